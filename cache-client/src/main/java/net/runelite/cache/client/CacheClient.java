@@ -24,7 +24,6 @@
  */
 package net.runelite.cache.client;
 
-import com.google.common.base.Stopwatch;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
@@ -43,18 +42,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
-import net.runelite.cache.fs.Archive;
-import net.runelite.cache.fs.Index;
-import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
-import net.runelite.cache.index.ArchiveData;
-import net.runelite.cache.index.IndexData;
 import net.runelite.protocol.update.decoders.HandshakeResponseDecoder;
 import net.runelite.protocol.update.encoders.ArchiveRequestEncoder;
 import net.runelite.protocol.update.encoders.EncryptionEncoder;
 import net.runelite.protocol.api.update.ArchiveRequestPacket;
 import net.runelite.protocol.api.login.HandshakeResponseType;
-import net.runelite.cache.util.Crc32;
 import net.runelite.protocol.api.handshake.UpdateHandshakePacket;
 import net.runelite.protocol.handshake.UpdateHandshakeEncoder;
 import org.slf4j.Logger;
@@ -74,9 +67,10 @@ public class CacheClient implements AutoCloseable
 	private final int clientRevision;
 	private DownloadWatcher watcher;
 
-	private ClientState state;
+	private volatile ClientState state;
 
-	private final EventLoopGroup group = new NioEventLoopGroup(1);
+	private final EventLoopGroup group;
+	private final boolean sharedGroup;
 	private Channel channel;
 
 	private CompletableFuture<HandshakeResponseType> handshakeFuture;
@@ -92,6 +86,18 @@ public class CacheClient implements AutoCloseable
 		this.store = store;
 		this.host = host;
 		this.clientRevision = clientRevision;
+		this.group = new NioEventLoopGroup(1);
+		this.sharedGroup = false;
+	}
+
+	private CacheClient(Store store, String host, int clientRevision, DownloadWatcher watcher, EventLoopGroup group)
+	{
+		this.store = store;
+		this.host = host;
+		this.clientRevision = clientRevision;
+		this.watcher = watcher;
+		this.group = group;
+		this.sharedGroup = true;
 	}
 
 	public CacheClient(Store store, int clientRevision, DownloadWatcher watcher)
@@ -117,7 +123,7 @@ public class CacheClient implements AutoCloseable
 					p.addLast("decoder", new HandshakeResponseDecoder());
 
 					p.addLast(
-						new CacheClientHandler(),
+						new CacheClientHandler(CacheClient.this),
 						new HandshakeResponseHandler(CacheClient.this),
 						new ArchiveResponseHandler(CacheClient.this)
 					);
@@ -155,8 +161,15 @@ public class CacheClient implements AutoCloseable
 	@Override
 	public void close()
 	{
-		channel.close().syncUninterruptibly();
-		group.shutdownGracefully();
+		if (channel != null)
+		{
+			channel.close().syncUninterruptibly();
+		}
+
+		if (!sharedGroup)
+		{
+			group.shutdownGracefully();
+		}
 	}
 
 	public int getClientRevision()
@@ -202,177 +215,60 @@ public class CacheClient implements AutoCloseable
 
 	public void download() throws IOException
 	{
-		Stopwatch stopwatch = Stopwatch.createStarted();
-
-		List<IndexInfo> indexes = requestIndexes();
-		for (IndexInfo indexInfo : indexes)
-		{
-			int i = indexInfo.getId();
-			int crc = indexInfo.getCrc();
-			int revision = indexInfo.getRevision();
-
-			Index index = store.findIndex(i);
-
-			if (index == null)
-			{
-				logger.info("Index {} does not exist, creating", i);
-			}
-			else if (index.getRevision() != revision)
-			{
-				if (revision < index.getRevision())
-				{
-					logger.warn("Index {} revision is going BACKWARDS! (our revision {}, their revision {})", index.getId(), index.getRevision(), revision);
-				}
-				else
-				{
-					logger.info("Index {} has the wrong revision (our revision {}, their revision {})", index.getId(), index.getRevision(), revision);
-				}
-			}
-			else if (index.getCrc() != crc)
-			{
-				logger.warn("Index {} CRC has changed! (our crc {}, their crc {})",
-					index.getCrc(), index.getCrc(), crc);
-			}
-			else
-			{
-				// despite the index being up to date, not everything
-				// can be downloaded, eg. for tracks.
-				logger.info("Index {} is up to date", index.getId());
-			}
-
-			logger.info("Downloading index {}", i);
-
-			FileResult indexFileResult = requestFile(255, i, true).join();
-			indexFileResult.decompress(null);
-
-			logger.info("Downloaded index {}", i);
-
-			if (indexFileResult.getCrc() != crc)
-			{
-				logger.warn("Corrupted download for index {}", i);
-				continue;
-			}
-
-			IndexData indexData = new IndexData();
-			indexData.load(indexFileResult.getContents());
-
-			if (index == null)
-			{
-				index = store.addIndex(i);
-			}
-
-			// update index settings
-			index.setProtocol(indexData.getProtocol());
-			index.setNamed(indexData.isNamed());
-			index.setCrc(crc);
-			index.setRevision(revision);
+		download(1);
+	}
 
-			logger.info("Index {} has {} archives", i, indexData.getArchives().length);
+	/**
+	 * Download the cache into the store, using this connection and
+	 * additional connections to the same server
+	 *
+	 * @param connections the total number of connections to use
+	 * @throws IOException
+	 */
+	public void download(int connections) throws IOException
+	{
+		List<CacheClient> clients = new ArrayList<>(connections);
+		clients.add(this);
 
-			for (ArchiveData ad : indexData.getArchives())
+		try
+		{
+			for (int i = 1; i < connections; ++i)
 			{
-				Archive existing = index.getArchive(ad.getId());
+				CacheClient client = new CacheClient(store, host, clientRevision, watcher, group);
+				clients.add(client);
 
-				if (existing != null && existing.getRevision() == ad.getRevision()
-					&& existing.getCrc() == ad.getCrc()
-					&& existing.getNameHash() == ad.getNameHash())
+				client.connect();
+				HandshakeResponseType result = client.handshake().join();
+				if (result != HandshakeResponseType.RESPONSE_OK)
 				{
-					logger.debug("Archive {}/{} in index {} is up to date",
-						ad.getId(), indexData.getArchives().length, index.getId());
-					continue;
+					throw new IOException("Handshake failed for additional connection: " + result);
 				}
-
-				if (existing == null)
-				{
-					logger.info("Archive {}/{} in index {} is out of date, downloading",
-						ad.getId(), indexData.getArchives().length, index.getId());
-				}
-				else if (ad.getRevision() < existing.getRevision())
-				{
-					logger.warn("Archive {}/{} in index {} revision is going BACKWARDS! (our revision {}, their revision {})",
-						ad.getId(), indexData.getArchives().length, index.getId(),
-						existing.getRevision(), ad.getRevision());
-				}
-				else
-				{
-					logger.info("Archive {}/{} in index {} is out of date, downloading. " +
-						"revision: ours: {} theirs: {}, crc: ours: {} theirs {}, name: ours {} theirs {}",
-						ad.getId(), indexData.getArchives().length, index.getId(),
-						existing.getRevision(), ad.getRevision(),
-						existing.getCrc(), ad.getCrc(),
-						existing.getNameHash(), ad.getNameHash());
-				}
-
-				final Archive archive = existing == null
-					? index.addArchive(ad.getId())
-					: existing;
-
-				archive.setRevision(ad.getRevision());
-				archive.setCrc(ad.getCrc());
-				archive.setNameHash(ad.getNameHash());
-
-				// Add files
-				archive.setFileData(ad.getFiles());
-
-				CompletableFuture<FileResult> future = requestFile(index.getId(), ad.getId(), false);
-				future.handle((fr, ex) ->
-				{
-					byte[] data = fr.getCompressedData();
-
-					Crc32 crc32 = new Crc32();
-					crc32.update(data, 0, data.length);
-					int hash = crc32.getHash();
-
-					if (hash != archive.getCrc())
-					{
-						logger.warn("crc mismatch on downloaded archive {}/{}: {} != {}",
-							archive.getIndex().getId(), archive.getArchiveId(),
-							hash, archive.getCrc());
-						throw new RuntimeException("crc mismatch");
-					}
-
-					if (watcher != null)
-					{
-						watcher.downloadComplete(archive, data);
-					}
-					else
-					{
-						try
-						{
-							Storage storage = store.getStorage();
-							storage.saveArchive(archive, data);
-						}
-						catch (IOException ex1)
-						{
-							logger.warn("unable to save archive data", ex1);
-						}
-					}
-					return null;
-				});
 			}
-		}
 
-		// flush any pending requests
-		channel.flush();
-
-		while (!requests.isEmpty())
+			new CacheDownloader(store, watcher, clients).download();
+		}
+		finally
 		{
-			// wait for pending requests
-			synchronized (this)
+			for (CacheClient client : clients.subList(1, clients.size()))
 			{
-				try
-				{
-					wait();
-				}
-				catch (InterruptedException ex)
-				{
-					logger.warn(null, ex);
-				}
+				client.close();
 			}
 		}
+	}
 
-		stopwatch.stop();
-		logger.info("Download completed in {}", stopwatch);
+	/**
+	 * Request a file from the server. If too many requests are already
+	 * pending, this waits for one of them to finish first.
+	 *
+	 * @param index
+	 * @param fileId
+	 * @return a future completed when the file is received
+	 */
+	public synchronized CompletableFuture<FileResult> requestFile(int index, int fileId)
+	{
+		CompletableFuture<FileResult> future = requestFile(index, fileId, false);
+		channel.flush();
+		return future;
 	}
 
 	private synchronized CompletableFuture<FileResult> requestFile(int index, int fileId, boolean flush)
@@ -384,7 +280,7 @@ public class CacheClient implements AutoCloseable
 
 		if (!flush)
 		{
-			while (requests.size() >= MAX_REQUESTS)
+			while (requests.size() >= MAX_REQUESTS && state == ClientState.CONNECTED)
 			{
 				channel.flush();
 
@@ -397,6 +293,11 @@ public class CacheClient implements AutoCloseable
 					logger.warn("interrupted while waiting for requests", ex);
 				}
 			}
+
+			if (state != ClientState.CONNECTED)
+			{
+				throw new IllegalStateException("Connection closed while waiting for requests");
+			}
 		}
 
 		ArchiveRequestPacket archiveRequest = new ArchiveRequestPacket();
@@ -456,4 +357,32 @@ public class CacheClient implements AutoCloseable
 
 		pr.getFuture().complete(result);
 	}
+
+	/**
+	 * Fail the handshake and all pending requests once the connection is
+	 * closed, and wake up anyone waiting to make a request
+	 */
+	void onDisconnect()
+	{
+		List<PendingFileRequest> failed;
+		synchronized (this)
+		{
+			state = ClientState.DISCONNECTED;
+			failed = new ArrayList<>(requests);
+			requests.clear();
+			notifyAll();
+		}
+
+		IOException ex = new IOException("Connection closed");
+
+		if (handshakeFuture != null)
+		{
+			handshakeFuture.completeExceptionally(ex);
+		}
+
+		for (PendingFileRequest pr : failed)
+		{
+			pr.getFuture().completeExceptionally(ex);
+		}
+	}
 }
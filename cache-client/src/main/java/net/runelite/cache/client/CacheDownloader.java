@@ -0,0 +1,443 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.client;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Storage;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.index.ArchiveData;
+import net.runelite.cache.index.IndexData;
+import net.runelite.cache.util.Crc32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Downloads a cache over one or more connections.
+ * <p>
+ * Index data for every index is requested up front, and each index is
+ * processed as soon as it arrives, so archives of the first indexes are
+ * downloading while later indexes are still being fetched. Archive
+ * requests are put on a shared queue which every connection takes from
+ * while its pipeline has room. The store is only modified from a single
+ * writer thread, which processes indexes and saves archives.
+ * <p>
+ * Archives requested over a connection which closes are queued again for
+ * the remaining connections, and the download fails once every
+ * connection is lost.
+ */
+class CacheDownloader
+{
+	private static final Logger logger = LoggerFactory.getLogger(CacheDownloader.class);
+
+	private static final ArchiveRequest END = new ArchiveRequest(null);
+
+	private final Store store;
+	private final DownloadWatcher watcher;
+	private final List<CacheClient> clients;
+
+	private final BlockingQueue<ArchiveRequest> queue = new LinkedBlockingQueue<>();
+	// one for the downloader, and one for each index or archive which is
+	// not yet finished. This is a plain counter as a Phaser is limited to
+	// 65535 parties, and a cache has more archives than that
+	private final AtomicInteger pending = new AtomicInteger(1);
+	private final CompletableFuture<Void> finished = new CompletableFuture<>();
+	// feeders whose connection is still open
+	private final AtomicInteger connected = new AtomicInteger();
+	private final ExecutorService writer = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+		.setNameFormat("cache-writer")
+		.build());
+
+	CacheDownloader(Store store, DownloadWatcher watcher, List<CacheClient> clients)
+	{
+		this.store = store;
+		this.watcher = watcher;
+		this.clients = clients;
+	}
+
+	void download() throws IOException
+	{
+		Stopwatch stopwatch = Stopwatch.createStarted();
+
+		List<Thread> feeders = new ArrayList<>(clients.size());
+		connected.set(clients.size());
+		for (CacheClient client : clients)
+		{
+			Thread thread = new Thread(() -> feed(client), "cache-feeder-" + feeders.size());
+			thread.setDaemon(true);
+			thread.start();
+			feeders.add(thread);
+		}
+
+		try
+		{
+			CacheClient client = clients.get(0);
+			for (IndexInfo indexInfo : client.requestIndexes())
+			{
+				logger.info("Downloading index {}", indexInfo.getId());
+
+				pending.incrementAndGet();
+				client.requestFile(255, indexInfo.getId()).whenComplete((indexFileResult, ex) ->
+					writer.execute(() ->
+					{
+						try
+						{
+							if (ex != null)
+							{
+								logger.warn("Unable to download index {}", indexInfo.getId(), ex);
+								return;
+							}
+
+							processIndex(indexInfo, indexFileResult);
+						}
+						catch (IOException | RuntimeException ex1)
+						{
+							logger.warn("Unable to process index {}", indexInfo.getId(), ex1);
+						}
+						finally
+						{
+							arrive();
+						}
+					}));
+			}
+
+			// wait for every index and archive to be downloaded and written
+			arrive();
+			finished.join();
+		}
+		catch (CompletionException ex)
+		{
+			throw new IOException("Download failed", ex.getCause());
+		}
+		finally
+		{
+			for (int i = 0; i < feeders.size(); ++i)
+			{
+				queue.add(END);
+			}
+
+			writer.shutdown();
+		}
+
+		try
+		{
+			for (Thread thread : feeders)
+			{
+				thread.join();
+			}
+
+			writer.awaitTermination(1, TimeUnit.MINUTES);
+		}
+		catch (InterruptedException ex)
+		{
+			logger.warn("interrupted while waiting for downloads to finish", ex);
+			Thread.currentThread().interrupt();
+		}
+
+		stopwatch.stop();
+		logger.info("Download completed in {} using {} connections", stopwatch, clients.size());
+	}
+
+	/**
+	 * Mark an index or archive as finished, completing the download
+	 * if it was the last one
+	 */
+	private void arrive()
+	{
+		if (pending.decrementAndGet() == 0)
+		{
+			finished.complete(null);
+		}
+	}
+
+	/**
+	 * Send archive requests from the queue to a client, for as long as its
+	 * pipeline has room and its connection is open
+	 */
+	private void feed(CacheClient client)
+	{
+		for (;;)
+		{
+			ArchiveRequest request;
+			try
+			{
+				request = queue.take();
+			}
+			catch (InterruptedException ex)
+			{
+				logger.warn("interrupted while waiting for archive requests", ex);
+				return;
+			}
+
+			if (request == END)
+			{
+				return;
+			}
+
+			Archive archive = request.archive;
+			CompletableFuture<FileResult> future;
+			try
+			{
+				future = client.requestFile(request.index, request.archiveId);
+			}
+			catch (RuntimeException ex)
+			{
+				if (client.getState() == ClientState.DISCONNECTED)
+				{
+					queue.add(request);
+					disconnected();
+					return;
+				}
+
+				logger.warn("Unable to request archive {}/{}", request.index, request.archiveId, ex);
+				arrive();
+				continue;
+			}
+
+			future.whenComplete((fr, ex) ->
+			{
+				if (ex != null && client.getState() == ClientState.DISCONNECTED)
+				{
+					// retry on one of the remaining connections
+					logger.debug("Connection lost, requeueing archive {}/{}", request.index, request.archiveId);
+					queue.add(request);
+					return;
+				}
+
+				if (ex != null)
+				{
+					logger.warn("Unable to download archive {}/{}", request.index, request.archiveId, ex);
+					arrive();
+					return;
+				}
+
+				byte[] data = fr.getCompressedData();
+
+				Crc32 crc32 = new Crc32();
+				crc32.update(data, 0, data.length);
+				int hash = crc32.getHash();
+
+				if (hash != request.crc)
+				{
+					logger.warn("crc mismatch on downloaded archive {}/{}: {} != {}",
+						request.index, request.archiveId,
+						hash, request.crc);
+					arrive();
+					return;
+				}
+
+				writer.execute(() ->
+				{
+					try
+					{
+						save(archive, data);
+					}
+					finally
+					{
+						arrive();
+					}
+				});
+			});
+		}
+	}
+
+	/**
+	 * Stop feeding a client whose connection has closed, failing the
+	 * download if it was the last connection
+	 */
+	private void disconnected()
+	{
+		int remaining = connected.decrementAndGet();
+		logger.warn("Lost a connection, {} remaining", remaining);
+
+		if (remaining == 0)
+		{
+			finished.completeExceptionally(new IOException("All connections to the server were lost"));
+		}
+	}
+
+	private void save(Archive archive, byte[] data)
+	{
+		if (watcher != null)
+		{
+			watcher.downloadComplete(archive, data);
+			return;
+		}
+
+		try
+		{
+			Storage storage = store.getStorage();
+			storage.saveArchive(archive, data);
+		}
+		catch (IOException ex)
+		{
+			logger.warn("unable to save archive data", ex);
+		}
+	}
+
+	/**
+	 * Update an index from its downloaded index data, and queue requests for
+	 * the archives which are out of date. Runs on the writer thread.
+	 */
+	private void processIndex(IndexInfo indexInfo, FileResult indexFileResult) throws IOException
+	{
+		int i = indexInfo.getId();
+		int crc = indexInfo.getCrc();
+		int revision = indexInfo.getRevision();
+
+		Index index = store.findIndex(i);
+
+		if (index == null)
+		{
+			logger.info("Index {} does not exist, creating", i);
+		}
+		else if (index.getRevision() != revision)
+		{
+			if (revision < index.getRevision())
+			{
+				logger.warn("Index {} revision is going BACKWARDS! (our revision {}, their revision {})", index.getId(), index.getRevision(), revision);
+			}
+			else
+			{
+				logger.info("Index {} has the wrong revision (our revision {}, their revision {})", index.getId(), index.getRevision(), revision);
+			}
+		}
+		else if (index.getCrc() != crc)
+		{
+			logger.warn("Index {} CRC has changed! (our crc {}, their crc {})",
+				index.getCrc(), index.getCrc(), crc);
+		}
+		else
+		{
+			// despite the index being up to date, not everything
+			// can be downloaded, eg. for tracks.
+			logger.info("Index {} is up to date", index.getId());
+		}
+
+		indexFileResult.decompress(null);
+
+		logger.info("Downloaded index {}", i);
+
+		if (indexFileResult.getCrc() != crc)
+		{
+			logger.warn("Corrupted download for index {}", i);
+			return;
+		}
+
+		IndexData indexData = new IndexData();
+		indexData.load(indexFileResult.getContents());
+
+		if (index == null)
+		{
+			index = store.addIndex(i);
+		}
+
+		// update index settings
+		index.setProtocol(indexData.getProtocol());
+		index.setNamed(indexData.isNamed());
+		index.setCrc(crc);
+		index.setRevision(revision);
+
+		logger.info("Index {} has {} archives", i, indexData.getArchives().length);
+
+		for (ArchiveData ad : indexData.getArchives())
+		{
+			Archive existing = index.getArchive(ad.getId());
+
+			if (existing != null && existing.getRevision() == ad.getRevision()
+				&& existing.getCrc() == ad.getCrc()
+				&& existing.getNameHash() == ad.getNameHash())
+			{
+				logger.debug("Archive {}/{} in index {} is up to date",
+					ad.getId(), indexData.getArchives().length, index.getId());
+				continue;
+			}
+
+			if (existing == null)
+			{
+				logger.info("Archive {}/{} in index {} is out of date, downloading",
+					ad.getId(), indexData.getArchives().length, index.getId());
+			}
+			else if (ad.getRevision() < existing.getRevision())
+			{
+				logger.warn("Archive {}/{} in index {} revision is going BACKWARDS! (our revision {}, their revision {})",
+					ad.getId(), indexData.getArchives().length, index.getId(),
+					existing.getRevision(), ad.getRevision());
+			}
+			else
+			{
+				logger.info("Archive {}/{} in index {} is out of date, downloading. " +
+					"revision: ours: {} theirs: {}, crc: ours: {} theirs {}, name: ours {} theirs {}",
+					ad.getId(), indexData.getArchives().length, index.getId(),
+					existing.getRevision(), ad.getRevision(),
+					existing.getCrc(), ad.getCrc(),
+					existing.getNameHash(), ad.getNameHash());
+			}
+
+			final Archive archive = existing == null
+				? index.addArchive(ad.getId())
+				: existing;
+
+			archive.setRevision(ad.getRevision());
+			archive.setCrc(ad.getCrc());
+			archive.setNameHash(ad.getNameHash());
+
+			// Add files
+			archive.setFileData(ad.getFiles());
+
+			pending.incrementAndGet();
+			queue.add(new ArchiveRequest(archive));
+		}
+	}
+
+	private static class ArchiveRequest
+	{
+		private final Archive archive;
+		private final int index;
+		private final int archiveId;
+		private final int crc;
+
+		ArchiveRequest(Archive archive)
+		{
+			this.archive = archive;
+			this.index = archive != null ? archive.getIndex().getId() : -1;
+			this.archiveId = archive != null ? archive.getArchiveId() : -1;
+			this.crc = archive != null ? archive.getCrc() : 0;
+		}
+	}
+}
@@ -24,21 +24,22 @@
  */
 package net.runelite.cache.server;
 
-import com.google.common.primitives.Ints;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.util.ReferenceCountUtil;
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import net.runelite.cache.fs.Archive;
-import net.runelite.cache.fs.Container;
 import net.runelite.cache.fs.Index;
 import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.fs.jagex.CompressionType;
 import net.runelite.cache.fs.jagex.DiskStorage;
 import net.runelite.protocol.api.update.ArchiveRequestPacket;
-import net.runelite.protocol.api.update.ArchiveResponsePacket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,67 +47,115 @@ public class ArchiveRequestHandler extends SimpleChannelInboundHandler<ArchiveRe
 {
 	private static final Logger logger = LoggerFactory.getLogger(ArchiveRequestHandler.class);
 
+	/**
+	 * Maximum number of requests being loaded for a connection before
+	 * reading from it is suspended
+	 */
+	private static final int MAX_PENDING = 64;
+
 	private final Store store;
+	private final IndexResponseCache indexResponses;
+	private final Executor executor;
+
+	private int pending; // only accessed from the event loop
 
-	public ArchiveRequestHandler(Store store)
+	public ArchiveRequestHandler(Store store, IndexResponseCache indexResponses, Executor executor)
 	{
 		this.store = store;
+		this.indexResponses = indexResponses;
+		this.executor = executor;
 	}
 
 	@Override
 	protected void channelRead0(ChannelHandlerContext ctx, ArchiveRequestPacket archiveRequest) throws Exception
 	{
-		if (archiveRequest.getIndex() == 255)
-		{
-			handleRequest255(ctx, archiveRequest.getIndex(),
-				archiveRequest.getArchive());
-		}
-		else
+		int index = archiveRequest.getIndex();
+		int archiveId = archiveRequest.getArchive();
+
+		++pending;
+		updateAutoRead(ctx);
+
+		// disk reads are done off of the event loop
+		executor.execute(() ->
 		{
-			handleRequest(ctx, archiveRequest.getIndex(),
-				archiveRequest.getArchive());
-		}
+			ArchiveResponse response = null;
+			try
+			{
+				response = index == 255
+					? handleRequest255(ctx, index, archiveId)
+					: handleRequest(ctx, index, archiveId);
+			}
+			catch (IOException | RuntimeException ex)
+			{
+				logger.warn("Unable to load archive {}/{}", index, archiveId, ex);
+			}
+
+			respond(ctx, response);
+		});
 	}
 
-	private void handleRequest255(ChannelHandlerContext ctx, int index, int archiveId) throws IOException
+	@Override
+	public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception
 	{
-		logger.info("Client {} requests 255: index {}, archive {}", ctx.channel().remoteAddress(), index, archiveId);
+		updateAutoRead(ctx);
+		ctx.fireChannelWritabilityChanged();
+	}
 
-		byte[] compressed;
-		if (archiveId == 255)
+	private void respond(ChannelHandlerContext ctx, ArchiveResponse response)
+	{
+		try
 		{
-			// index 255 data, for each index:
-			// 4 byte crc
-			// 4 byte revision
-			ByteBuf buffer = ctx.alloc().heapBuffer(store.getIndexes().size() * 8);
-			for (Index i : store.getIndexes())
+			ctx.executor().execute(() ->
 			{
-				buffer.writeInt(i.getCrc());
-				buffer.writeInt(i.getRevision());
-			}
+				--pending;
 
-			compressed = compress(CompressionType.NONE, Arrays.copyOf(buffer.array(), buffer.readableBytes()));
-			buffer.release();
+				if (response != null)
+				{
+					ctx.writeAndFlush(response);
+				}
+
+				updateAutoRead(ctx);
+			});
 		}
-		else
+		catch (RejectedExecutionException ex)
 		{
-			// Requires disk storage. Use packed index data from
-			// store as its crc matches
-			DiskStorage storage = (DiskStorage) store.getStorage();
-			compressed = storage.readIndex(archiveId);
+			// the event loop is shutting down
+			ReferenceCountUtil.release(response);
 		}
+	}
 
-		ArchiveResponsePacket response = new ArchiveResponsePacket();
-		response.setIndex(index);
-		response.setArchive(archiveId);
-		response.setData(compressed);
+	/**
+	 * Stop reading requests from a client while its responses are not being
+	 * drained fast enough, so a slow client can't queue unbounded responses
+	 */
+	private void updateAutoRead(ChannelHandlerContext ctx)
+	{
+		Channel channel = ctx.channel();
+		boolean autoRead = channel.isWritable() && pending < MAX_PENDING;
+		if (channel.config().isAutoRead() != autoRead)
+		{
+			logger.debug("Client {} {} reading", channel.remoteAddress(), autoRead ? "resumed" : "suspended");
+			channel.config().setAutoRead(autoRead);
+		}
+	}
 
-		ctx.writeAndFlush(response);
+	private ArchiveResponse handleRequest255(ChannelHandlerContext ctx, int index, int archiveId) throws IOException
+	{
+		logger.debug("Client {} requests 255: index {}, archive {}", ctx.channel().remoteAddress(), index, archiveId);
+
+		ByteBuf response = indexResponses.get(archiveId);
+		if (response == null)
+		{
+			logger.warn("Missing index {}", archiveId);
+			return null;
+		}
+
+		return new ArchiveResponse(index, archiveId, response);
 	}
 
-	private void handleRequest(ChannelHandlerContext ctx, int index, int archiveId) throws IOException
+	private ArchiveResponse handleRequest(ChannelHandlerContext ctx, int index, int archiveId) throws IOException
 	{
-		logger.info("Client {} requests index {} archive {}", ctx.channel().remoteAddress(), index, archiveId);
+		logger.debug("Client {} requests index {} archive {}", ctx.channel().remoteAddress(), index, archiveId);
 
 		Index i = store.findIndex(index);
 		assert i != null;
@@ -114,45 +163,85 @@ public class ArchiveRequestHandler extends SimpleChannelInboundHandler<ArchiveRe
 		Archive archive = i.getArchive(archiveId);
 		assert archive != null;
 
-		Storage storage = store.getStorage();
-		byte[] packed = storage.loadArchive(archive); // is compressed, includes length and type
+		ByteBuf packed = loadArchive(ctx, archive); // is compressed, includes length and type
 
 		if (packed == null)
 		{
 			logger.warn("Missing archive {}/{}", index, archiveId);
-			return; // is it possible to notify the client of an error with this?
+			return null; // is it possible to notify the client of an error with this?
 		}
 
-		byte compression = packed[0];
-		int compressedSize = Ints.fromBytes(packed[1], packed[2],
-			packed[3], packed[4]);
+		int start = packed.readerIndex();
+		int length = packed.readableBytes();
+		if (length < 5)
+		{
+			logger.warn("Archive {}/{} is too short: {} bytes", index, archiveId, length);
+			packed.release();
+			return null;
+		}
+
+		byte compression = packed.getByte(start);
+		int compressedSize = packed.getInt(start + 1);
 
 		// size the client expects the data to be
-		int expectedSize = 1 // compression type
+		long expectedSize = 1 // compression type
 			+ 4 // compressed size
-			+ compressedSize
+			+ (compressedSize & 0xFFFFFFFFL)
 			+ (compression != CompressionType.NONE ? 4 : 0);
-		if (packed.length != expectedSize)
+		if (length != expectedSize)
 		{
 			// It may have the archive revision appended at the end.
 			// The data the client writes will have it, but the data fetched from
 			// the update server will never have it
-			assert packed.length - expectedSize == 2 : "packed length != expected size";
-			packed = Arrays.copyOf(packed, packed.length - 2);
-		}
+			if (length - expectedSize != 2)
+			{
+				logger.warn("Archive {}/{} is corrupt: length {} != expected size {}", index, archiveId, length, expectedSize);
+				packed.release();
+				return null;
+			}
 
-		ArchiveResponsePacket response = new ArchiveResponsePacket();
-		response.setIndex(index);
-		response.setArchive(archiveId);
-		response.setData(packed);
+			packed.writerIndex(start + (int) expectedSize);
+		}
 
-		ctx.writeAndFlush(response);
+		return new ArchiveResponse(index, archiveId, packed);
 	}
 
-	private byte[] compress(int compression, byte[] data) throws IOException
+	/**
+	 * Load the packed data for an archive. Disk storage reads it straight
+	 * into a pooled direct buffer, other storages have it wrapped.
+	 */
+	private ByteBuf loadArchive(ChannelHandlerContext ctx, Archive archive) throws IOException
 	{
-		Container container = new Container(compression, -1);
-		container.compress(data, null);
-		return container.data;
+		Storage storage = store.getStorage();
+		if (!(storage instanceof DiskStorage))
+		{
+			byte[] packed = storage.loadArchive(archive);
+			return packed != null ? Unpooled.wrappedBuffer(packed) : null;
+		}
+
+		DiskStorage diskStorage = (DiskStorage) storage;
+		int length = diskStorage.getArchiveLength(archive);
+		if (length < 0)
+		{
+			return null;
+		}
+
+		ByteBuf buffer = ctx.alloc().directBuffer(length, length);
+		try
+		{
+			if (!diskStorage.loadArchive(archive, buffer.nioBuffer(0, length)))
+			{
+				buffer.release();
+				return null;
+			}
+		}
+		catch (IOException | RuntimeException ex)
+		{
+			buffer.release();
+			throw ex;
+		}
+
+		buffer.writerIndex(length);
+		return buffer;
 	}
 }
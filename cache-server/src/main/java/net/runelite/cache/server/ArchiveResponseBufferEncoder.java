@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageEncoder;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Encodes an {@link ArchiveResponse} into the same chunked format as
+ * {@link net.runelite.protocol.update.encoders.ArchiveResponseEncoder},
+ * but builds the response out of slices of the archive buffer instead of
+ * copying it, so the data goes straight from the archive buffer to the
+ * socket.
+ */
+public class ArchiveResponseBufferEncoder extends MessageToMessageEncoder<ArchiveResponse>
+{
+	private static final Logger logger = LoggerFactory.getLogger(ArchiveResponseBufferEncoder.class);
+
+	private static final int CHUNK_SIZE = 512;
+
+	private static final ByteBuf SEPARATOR = Unpooled.unreleasableBuffer(
+		Unpooled.directBuffer(1, 1).writeByte(0xff));
+
+	@Override
+	protected void encode(ChannelHandlerContext ctx, ArchiveResponse archiveResponse, List<Object> out) throws Exception
+	{
+		ByteBuf file = archiveResponse.content();
+		int length = file.readableBytes();
+
+		// 3 byte header, and one separator for every chunk after the first
+		int chunks = length <= CHUNK_SIZE - 3 ? 1 : 1 + (length - (CHUNK_SIZE - 3) + CHUNK_SIZE - 2) / (CHUNK_SIZE - 1);
+		CompositeByteBuf composite = ctx.alloc().compositeDirectBuffer(chunks * 2);
+
+		try
+		{
+			// archive file header
+			// 1 byte index
+			// 2 byte archive
+			ByteBuf header = ctx.alloc().directBuffer(3, 3);
+			header.writeByte(archiveResponse.getIndex());
+			header.writeShort(archiveResponse.getArchive());
+			composite.addComponent(header);
+
+			int size = header.readableBytes();
+			int pos = file.readerIndex();
+			int end = pos + length;
+
+			// - 3 for the header
+			int chunkSize = Math.min(length, CHUNK_SIZE - 3);
+			composite.addComponent(file.slice(pos, chunkSize).retain());
+			size += chunkSize;
+			pos += chunkSize;
+
+			while (pos < end)
+			{
+				composite.addComponent(SEPARATOR.duplicate());
+
+				chunkSize = Math.min(end - pos, CHUNK_SIZE - 1);
+				composite.addComponent(file.slice(pos, chunkSize).retain());
+				size += 1 + chunkSize;
+				pos += chunkSize;
+			}
+
+			composite.writerIndex(size);
+		}
+		catch (Exception ex)
+		{
+			composite.release();
+			throw ex;
+		}
+
+		logger.debug("Wrote index {} archive {} (size {}) in {} bytes",
+			archiveResponse.getIndex(), archiveResponse.getArchive(),
+			length, composite.readableBytes());
+
+		out.add(composite);
+	}
+}
@@ -24,14 +24,26 @@
  */
 package net.runelite.cache.server;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import net.runelite.cache.fs.Store;
+import net.runelite.cache.fs.jagex.DiskStorage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,31 +53,81 @@ public class CacheServer implements AutoCloseable
 
 	private static final int PORT = 43594;
 
-	private final EventLoopGroup group = new NioEventLoopGroup(1);
+	private static final int DEFAULT_WORKER_THREADS = Runtime.getRuntime().availableProcessors();
+	private static final int DEFAULT_IO_THREADS = 4;
+
+	private static final int WRITE_BUFFER_LOW_WATER_MARK = 64 * 1024;
+	private static final int WRITE_BUFFER_HIGH_WATER_MARK = 256 * 1024;
+
+	private EventLoopGroup bossGroup;
+	private EventLoopGroup workerGroup;
+	private ExecutorService ioExecutor;
 
 	private Channel channel;
 
 	private final Store store;
 	private final int revision;
+	private final IndexResponseCache indexResponses;
+
+	private int workerThreads = DEFAULT_WORKER_THREADS;
+	private int ioThreads = DEFAULT_IO_THREADS;
+	private boolean epoll;
 
 	public CacheServer(Store store, int revision)
 	{
 		this.store = store;
 		this.revision = revision;
+		this.indexResponses = new IndexResponseCache(store);
+
+		if (store.getStorage() instanceof DiskStorage && !((DiskStorage) store.getStorage()).isMapped())
+		{
+			logger.info("Cache files are not memory mapped, archives will be read through the heap");
+		}
+	}
+
+	/**
+	 * Open a store to be served. The cache files are memory mapped, so
+	 * archives can be read concurrently by the io threads, and are copied
+	 * straight into direct buffers.
+	 *
+	 * @param folder cache folder
+	 * @return the store
+	 * @throws IOException
+	 */
+	public static Store openStore(File folder) throws IOException
+	{
+		return new Store(new DiskStorage(folder, true));
 	}
 
 	public void start()
 	{
+		boolean useEpoll = epoll && Epoll.isAvailable();
+		if (epoll && !useEpoll)
+		{
+			logger.warn("Epoll transport is unavailable, falling back to nio", Epoll.unavailabilityCause());
+		}
+
+		bossGroup = useEpoll ? new EpollEventLoopGroup(1) : new NioEventLoopGroup(1);
+		workerGroup = useEpoll ? new EpollEventLoopGroup(workerThreads) : new NioEventLoopGroup(workerThreads);
+		ioExecutor = Executors.newFixedThreadPool(ioThreads, new ThreadFactoryBuilder()
+			.setNameFormat("cache-server-io-%d")
+			.setDaemon(true)
+			.build());
+
 		ServerBootstrap b = new ServerBootstrap();
-		b.group(group)
-			.channel(NioServerSocketChannel.class)
-			.option(ChannelOption.TCP_NODELAY, true)
+		b.group(bossGroup, workerGroup)
+			.channel(useEpoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class)
+			.childOption(ChannelOption.TCP_NODELAY, true)
+			.childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+			.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK,
+				new WriteBufferWaterMark(WRITE_BUFFER_LOW_WATER_MARK, WRITE_BUFFER_HIGH_WATER_MARK))
 			.childHandler(new CacheServerInitializer(this));
 
 		ChannelFuture f = b.bind(PORT).syncUninterruptibly();
 		channel = f.channel();
 
-		logger.info("Server is now listening on {}", PORT);
+		logger.info("Server is now listening on {} using {} worker threads and {} io threads ({})",
+			PORT, workerThreads, ioThreads, useEpoll ? "epoll" : "nio");
 	}
 
 	public void waitForClose()
@@ -76,8 +138,17 @@ public class CacheServer implements AutoCloseable
 	@Override
 	public void close()
 	{
-		channel.close().syncUninterruptibly();
-		group.shutdownGracefully();
+		if (channel != null)
+		{
+			channel.close().syncUninterruptibly();
+		}
+
+		if (bossGroup != null)
+		{
+			bossGroup.shutdownGracefully();
+			workerGroup.shutdownGracefully();
+			ioExecutor.shutdown();
+		}
 	}
 
 	public int getRevision()
@@ -89,4 +160,56 @@ public class CacheServer implements AutoCloseable
 	{
 		return store;
 	}
+
+	public IndexResponseCache getIndexResponses()
+	{
+		return indexResponses;
+	}
+
+	public Executor getIoExecutor()
+	{
+		return ioExecutor;
+	}
+
+	public int getWorkerThreads()
+	{
+		return workerThreads;
+	}
+
+	/**
+	 * Set the number of event loop threads used for client connections.
+	 * Must be called before {@link #start()}.
+	 */
+	public void setWorkerThreads(int workerThreads)
+	{
+		this.workerThreads = workerThreads;
+	}
+
+	public int getIoThreads()
+	{
+		return ioThreads;
+	}
+
+	/**
+	 * Set the number of threads archives are read from the store on.
+	 * Must be called before {@link #start()}.
+	 */
+	public void setIoThreads(int ioThreads)
+	{
+		this.ioThreads = ioThreads;
+	}
+
+	public boolean isEpoll()
+	{
+		return epoll;
+	}
+
+	/**
+	 * Use the native epoll transport if it is available. Must be called
+	 * before {@link #start()}.
+	 */
+	public void setEpoll(boolean epoll)
+	{
+		this.epoll = epoll;
+	}
 }
@@ -58,11 +58,12 @@ public class CacheServerInitializer extends ChannelInitializer<SocketChannel>
 		p.addLast(
 			new HandshakeResponseEncoder(),
 			new XorEncoder(),
-			new ArchiveResponseEncoder()
+			new ArchiveResponseEncoder(),
+			new ArchiveResponseBufferEncoder()
 		);
 
 		p.addLast(
-			new ArchiveRequestHandler(server.getStore()),
+			new ArchiveRequestHandler(server.getStore(), server.getIndexResponses(), server.getIoExecutor()),
 			new EncryptionHandler(),
 			new HandshakeHandler(server)
 		);
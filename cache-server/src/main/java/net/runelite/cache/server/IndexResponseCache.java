@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import java.util.List;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Storage;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.cache.fs.jagex.DiskStorage;
+import net.runelite.cache.util.Crc32;
+import net.runelite.cache.util.IntObjectMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the precomputed responses for requests to index 255, which are
+ * the packed index data for each index, and the table of index crcs and
+ * revisions. The responses are built once, and rebuilt only when an
+ * index of the store is added, removed, or has its crc or revision
+ * changed.
+ */
+public class IndexResponseCache
+{
+	private static final Logger logger = LoggerFactory.getLogger(IndexResponseCache.class);
+
+	private final Store store;
+	private volatile Responses responses;
+
+	public IndexResponseCache(Store store)
+	{
+		this.store = store;
+	}
+
+	/**
+	 * Get the response for an index 255 request. The returned buffer is a
+	 * duplicate of a shared, unreleasable buffer, and so may be written
+	 * to a channel without being retained.
+	 *
+	 * @param archiveId the archive requested, which is either an index id
+	 * or 255 for the index table
+	 * @return the packed response data, or null if there is no such index
+	 * @throws IOException
+	 */
+	public ByteBuf get(int archiveId) throws IOException
+	{
+		Responses r = responses;
+		if (r == null || !r.isCurrent(store))
+		{
+			r = build();
+		}
+
+		ByteBuf buffer = archiveId == 255 ? r.table : r.indexes.get(archiveId);
+		return buffer != null ? buffer.duplicate() : null;
+	}
+
+	/**
+	 * Drop the cached responses, so they are rebuilt on the next request
+	 */
+	public void invalidate()
+	{
+		responses = null;
+	}
+
+	private synchronized Responses build() throws IOException
+	{
+		Responses r = responses;
+		if (r != null && r.isCurrent(store))
+		{
+			return r;
+		}
+
+		List<Index> storeIndexes = store.getIndexes();
+		int count = storeIndexes.size();
+
+		r = new Responses(count);
+		Storage storage = store.getStorage();
+		ByteBuf table = Unpooled.buffer(count * 8, count * 8);
+
+		for (int i = 0; i < count; ++i)
+		{
+			Index index = storeIndexes.get(i);
+			r.ids[i] = index.getId();
+			r.crcs[i] = index.getCrc();
+			r.revisions[i] = index.getRevision();
+
+			byte[] packed;
+			if (storage instanceof DiskStorage)
+			{
+				// Use packed index data from the disk as its crc matches
+				packed = ((DiskStorage) storage).readIndex(index.getId());
+			}
+			else
+			{
+				Container container = new Container(index.getCompression(), -1); // index data revision is always -1
+				container.compress(index.toIndexData().writeIndexData(), null);
+				packed = container.data;
+			}
+
+			// the crc sent to the client must be of the data it is sent
+			Crc32 crc = new Crc32();
+			crc.update(packed, 0, packed.length);
+
+			// index 255 data, for each index:
+			// 4 byte crc
+			// 4 byte revision
+			table.writeInt(crc.getHash());
+			table.writeInt(index.getRevision());
+
+			r.indexes.put(index.getId(), share(packed));
+		}
+
+		Container container = new Container(CompressionType.NONE, -1);
+		container.compress(table.array(), null);
+		r.table = share(container.data);
+
+		logger.debug("Built index 255 responses for {} indexes", count);
+
+		responses = r;
+		return r;
+	}
+
+	private static ByteBuf share(byte[] data)
+	{
+		// heap backed so that replaced responses are simply collected
+		return Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(data));
+	}
+
+	private static class Responses
+	{
+		private final int[] ids;
+		private final int[] crcs;
+		private final int[] revisions;
+		private final IntObjectMap<ByteBuf> indexes;
+		private ByteBuf table;
+
+		Responses(int count)
+		{
+			ids = new int[count];
+			crcs = new int[count];
+			revisions = new int[count];
+			indexes = new IntObjectMap<>(count);
+		}
+
+		boolean isCurrent(Store store)
+		{
+			List<Index> storeIndexes = store.getIndexes();
+			if (storeIndexes.size() != ids.length)
+			{
+				return false;
+			}
+
+			for (int i = 0; i < ids.length; ++i)
+			{
+				Index index = storeIndexes.get(i);
+				if (index.getId() != ids[i] || index.getCrc() != crcs[i] || index.getRevision() != revisions[i])
+				{
+					return false;
+				}
+			}
+
+			return true;
+		}
+	}
+}
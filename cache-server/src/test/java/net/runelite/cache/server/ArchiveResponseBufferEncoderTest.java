@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.protocol.api.update.ArchiveResponsePacket;
+import net.runelite.protocol.update.decoders.ArchiveResponseDecoder;
+import net.runelite.protocol.update.encoders.ArchiveResponseEncoder;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ArchiveResponseBufferEncoderTest
+{
+	@Test
+	public void testEncode() throws Exception
+	{
+		byte[] data = new byte[5000];
+		Random random = new Random(42L);
+		random.nextBytes(data);
+
+		Container container = new Container(CompressionType.NONE, -1);
+		container.compress(data, null);
+		byte[] compressedData = container.data;
+
+		ByteBuf archive = Unpooled.directBuffer(compressedData.length);
+		archive.writeBytes(compressedData);
+
+		EmbeddedChannel channel = new EmbeddedChannel(new ArchiveResponseBufferEncoder());
+		Assert.assertTrue(channel.writeOutbound(new ArchiveResponse(2, 3, archive)));
+
+		ByteBuf buf = channel.readOutbound();
+
+		// must match the copying encoder byte for byte
+		ArchiveResponsePacket packet = new ArchiveResponsePacket();
+		packet.setIndex(2);
+		packet.setArchive(3);
+		packet.setData(compressedData);
+
+		EmbeddedChannel expectedChannel = new EmbeddedChannel(new ArchiveResponseEncoder());
+		Assert.assertTrue(expectedChannel.writeOutbound(packet));
+		ByteBuf expected = expectedChannel.readOutbound();
+		Assert.assertEquals(expected, buf);
+
+		ArchiveResponseDecoder decoder = new ArchiveResponseDecoder();
+		List<Object> out = new ArrayList<>();
+		decoder.decode(null, buf, out);
+
+		Assert.assertEquals(1, out.size());
+		ArchiveResponsePacket response = (ArchiveResponsePacket) out.get(0);
+
+		Assert.assertEquals(2, response.getIndex());
+		Assert.assertEquals(3, response.getArchive());
+		Assert.assertArrayEquals(compressedData, response.getData());
+
+		buf.release();
+		expected.release();
+		// the slices were the last references to the archive buffer
+		Assert.assertEquals(0, archive.refCnt());
+		Assert.assertFalse(channel.finish());
+		Assert.assertFalse(expectedChannel.finish());
+	}
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.server;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.runelite.cache.client.CacheClient;
+import net.runelite.cache.client.FileResult;
+import net.runelite.cache.client.IndexInfo;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.index.ArchiveData;
+import net.runelite.cache.index.IndexData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Load generator for a cache server. Opens a number of client connections
+ * which each request random archives, pipelined, for a fixed duration, and
+ * reports the throughput and latency of the server.
+ */
+public class CacheServerLoadGenerator
+{
+	private static final Logger logger = LoggerFactory.getLogger(CacheServerLoadGenerator.class);
+
+	private final String host;
+	private final int revision;
+	private final int clients;
+	private final long duration;
+
+	public CacheServerLoadGenerator(String host, int revision, int clients, long duration, TimeUnit unit)
+	{
+		this.host = host;
+		this.revision = revision;
+		this.clients = clients;
+		this.duration = unit.toNanos(duration);
+	}
+
+	public Result run() throws Exception
+	{
+		Path folder = Files.createTempDirectory("cacheload");
+		try (Store store = new Store(folder.toFile()))
+		{
+			int[][] archives = findArchives(store);
+			logger.info("Requesting {} archives from {} with {} clients", archives.length, host, clients);
+
+			ExecutorService executor = Executors.newFixedThreadPool(clients);
+			try
+			{
+				List<Future<long[]>> futures = new ArrayList<>();
+				for (int i = 0; i < clients; ++i)
+				{
+					long seed = i;
+					futures.add(executor.submit(() -> runClient(store, archives, new Random(seed))));
+				}
+
+				long[] latencies = new long[0];
+				for (Future<long[]> future : futures)
+				{
+					long[] l = future.get();
+					int pos = latencies.length;
+					latencies = Arrays.copyOf(latencies, pos + l.length);
+					System.arraycopy(l, 0, latencies, pos, l.length);
+				}
+
+				Arrays.sort(latencies);
+				return new Result(latencies, duration);
+			}
+			finally
+			{
+				executor.shutdownNow();
+			}
+		}
+		finally
+		{
+			MoreFiles.deleteRecursively(folder, RecursiveDeleteOption.ALLOW_INSECURE);
+		}
+	}
+
+	/**
+	 * Find every archive on the server
+	 *
+	 * @return index and archive id pairs
+	 */
+	private int[][] findArchives(Store store) throws Exception
+	{
+		List<int[]> archives = new ArrayList<>();
+
+		try (CacheClient client = new CacheClient(store, host, revision))
+		{
+			client.connect();
+			client.handshake().get();
+
+			for (IndexInfo indexInfo : client.requestIndexes())
+			{
+				FileResult result = client.requestFile(255, indexInfo.getId()).join();
+				result.decompress(null);
+
+				IndexData indexData = new IndexData();
+				indexData.load(result.getContents());
+
+				for (ArchiveData ad : indexData.getArchives())
+				{
+					archives.add(new int[]
+					{
+						indexInfo.getId(), ad.getId()
+					});
+				}
+			}
+		}
+
+		return archives.toArray(new int[archives.size()][]);
+	}
+
+	private long[] runClient(Store store, int[][] archives, Random random) throws Exception
+	{
+		Latencies latencies = new Latencies();
+		AtomicInteger inFlight = new AtomicInteger();
+
+		try (CacheClient client = new CacheClient(store, host, revision))
+		{
+			client.connect();
+			client.handshake().get();
+
+			long end = System.nanoTime() + duration;
+			while (System.nanoTime() < end)
+			{
+				int[] archive = archives[random.nextInt(archives.length)];
+				long start = System.nanoTime();
+
+				inFlight.incrementAndGet();
+				CompletableFuture<FileResult> future = client.requestFile(archive[0], archive[1]);
+				future.thenRun(() ->
+				{
+					latencies.add(System.nanoTime() - start);
+					inFlight.decrementAndGet();
+				});
+			}
+
+			// wait for the requests which are still pending
+			long timeout = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+			while (inFlight.get() > 0 && System.nanoTime() < timeout)
+			{
+				Thread.sleep(10);
+			}
+		}
+
+		return latencies.toArray();
+	}
+
+	private static class Latencies
+	{
+		private long[] latencies = new long[1024];
+		private int count;
+
+		synchronized void add(long latency)
+		{
+			if (count == latencies.length)
+			{
+				latencies = Arrays.copyOf(latencies, count * 2);
+			}
+			latencies[count++] = latency;
+		}
+
+		synchronized long[] toArray()
+		{
+			return Arrays.copyOf(latencies, count);
+		}
+	}
+
+	public static class Result
+	{
+		private final long[] latencies;
+		private final long duration;
+
+		Result(long[] latencies, long duration)
+		{
+			this.latencies = latencies;
+			this.duration = duration;
+		}
+
+		public int getRequests()
+		{
+			return latencies.length;
+		}
+
+		public double getRequestsPerSecond()
+		{
+			return latencies.length / (duration / 1e9);
+		}
+
+		/**
+		 * Get a latency percentile, in microseconds
+		 */
+		public long getPercentile(double percentile)
+		{
+			if (latencies.length == 0)
+			{
+				return 0;
+			}
+
+			int i = (int) Math.ceil(percentile / 100.0 * latencies.length) - 1;
+			return TimeUnit.NANOSECONDS.toMicros(latencies[Math.max(i, 0)]);
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format("%d requests, %.1f requests/sec, p50 %dus, p99 %dus, max %dus",
+				getRequests(), getRequestsPerSecond(),
+				getPercentile(50), getPercentile(99), getPercentile(100));
+		}
+	}
+
+	public static void main(String[] args) throws Exception
+	{
+		if (args.length < 2)
+		{
+			System.err.println("usage: CacheServerLoadGenerator <host> <revision> [clients] [seconds]");
+			return;
+		}
+
+		String host = args[0];
+		int revision = Integer.parseInt(args[1]);
+		int clients = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+		int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+
+		Result result = new CacheServerLoadGenerator(host, revision, clients, seconds, TimeUnit.SECONDS).run();
+		logger.info("{}", result);
+	}
+}
@@ -26,6 +26,7 @@ package net.runelite.cache.server;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 import net.runelite.cache.StoreLocation;
 import net.runelite.cache.client.CacheClient;
 import net.runelite.cache.fs.Archive;
@@ -36,13 +37,18 @@ import net.runelite.cache.fs.Store;
 import net.runelite.cache.index.FileData;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class CacheServerTest
 {
+	private static final Logger logger = LoggerFactory.getLogger(CacheServerTest.class);
+
 	private static final String HOST = "localhost";
 	private static final int REVISION = 154;
 
@@ -53,7 +59,7 @@ public class CacheServerTest
 	@Ignore
 	public void testDownload() throws Exception
 	{
-		try (Store store = new Store(StoreLocation.LOCATION);
+		try (Store store = CacheServer.openStore(StoreLocation.LOCATION);
 			CacheServer server = new CacheServer(store, REVISION))
 		{
 			store.load();
@@ -72,7 +78,7 @@ public class CacheServerTest
 	@Test
 	public void testServer() throws Exception
 	{
-		try (Store store = new Store(folder.newFolder());
+		try (Store store = CacheServer.openStore(folder.newFolder());
 			CacheServer server = new CacheServer(store, REVISION))
 		{
 			addInitialFilesToStore(store);
@@ -104,6 +110,75 @@ public class CacheServerTest
 		}
 	}
 
+	@Test
+	public void testServerMultipleConnections() throws Exception
+	{
+		try (Store store = CacheServer.openStore(folder.newFolder());
+			CacheServer server = new CacheServer(store, REVISION))
+		{
+			Storage storage = store.getStorage();
+			for (int i = 0; i < 2; ++i)
+			{
+				Index index = store.addIndex(i);
+				for (int j = 0; j < 100; ++j)
+				{
+					Archive archive = index.addArchive(j);
+					FileData[] files = new FileData[1];
+					archive.setFileData(files);
+					files[0] = new FileData();
+
+					Container container = new Container(archive.getCompression(), -1);
+					container.compress(("test " + i + " " + j).getBytes(), null);
+					storage.saveArchive(archive, container.data);
+				}
+			}
+
+			store.save();
+
+			server.start();
+
+			try (Store store2 = new Store(folder.newFolder());
+				CacheClient client = new CacheClient(store2, HOST, REVISION))
+			{
+				client.connect();
+				client.handshake().get();
+				client.download(4);
+
+				Storage storage2 = store2.getStorage();
+				for (int i = 0; i < 2; ++i)
+				{
+					Index index = store2.findIndex(i);
+					assertEquals(100, index.getArchives().size());
+
+					for (Archive archive : index.getArchives())
+					{
+						byte[] data = archive.decompress(storage2.loadArchive(archive));
+						assertArrayEquals(("test " + i + " " + archive.getArchiveId()).getBytes(), data);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	@Ignore
+	public void testLoad() throws Exception
+	{
+		try (Store store = CacheServer.openStore(StoreLocation.LOCATION);
+			CacheServer server = new CacheServer(store, REVISION))
+		{
+			store.load();
+
+			server.setEpoll(true);
+			server.start();
+
+			CacheServerLoadGenerator loadGenerator = new CacheServerLoadGenerator(HOST, REVISION, 200, 30, TimeUnit.SECONDS);
+			CacheServerLoadGenerator.Result result = loadGenerator.run();
+			logger.info("{}", result);
+			assertTrue(result.getRequests() > 0);
+		}
+	}
+
 	private void addInitialFilesToStore(Store store) throws FileNotFoundException, IOException
 	{
 		Storage storage = store.getStorage();
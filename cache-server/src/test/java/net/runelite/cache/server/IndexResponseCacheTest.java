@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.fs.jagex.DiskStorage;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IndexResponseCacheTest
+{
+	@Rule
+	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
+
+	@Test
+	public void testGet() throws Exception
+	{
+		try (Store store = new Store(folder.newFolder()))
+		{
+			Index index = store.addIndex(0);
+			index.setRevision(1);
+			store.save();
+
+			IndexResponseCache cache = new IndexResponseCache(store);
+
+			byte[] table = Container.decompress(getBytes(cache.get(255)), null).data;
+			assertEquals(8, table.length);
+			assertEquals(index.getCrc(), Unpooled.wrappedBuffer(table).getInt(0));
+			assertEquals(1, Unpooled.wrappedBuffer(table).getInt(4));
+
+			DiskStorage storage = (DiskStorage) store.getStorage();
+			assertArrayEquals(storage.readIndex(0), getBytes(cache.get(0)));
+
+			assertNull(cache.get(1));
+
+			// changing the store rebuilds the responses
+			index.setRevision(2);
+			store.save();
+
+			table = Container.decompress(getBytes(cache.get(255)), null).data;
+			assertEquals(index.getCrc(), Unpooled.wrappedBuffer(table).getInt(0));
+			assertEquals(2, Unpooled.wrappedBuffer(table).getInt(4));
+		}
+	}
+
+	private static byte[] getBytes(ByteBuf buffer)
+	{
+		byte[] b = new byte[buffer.readableBytes()];
+		buffer.readBytes(b);
+		return b;
+	}
+}
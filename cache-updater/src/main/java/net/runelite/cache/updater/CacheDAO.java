@@ -35,8 +35,11 @@ import org.sql2o.ResultSetIterable;
 
 class CacheDAO
 {
+	private static final int BATCH_SIZE = 1000;
+
 	// cache prepared statements for high volume queries
 	private Query associateArchive;
+	private int associateArchiveBatched;
 	private Query findArchive, insertArchive;
 	private Query associateFile;
 
@@ -105,7 +108,24 @@ class CacheDAO
 		associateArchive
 			.addParameter("index", index.getId())
 			.addParameter("archive", archive.getId())
-			.executeUpdate();
+			.addToBatch();
+
+		if (++associateArchiveBatched >= BATCH_SIZE)
+		{
+			flushArchiveAssociations();
+		}
+	}
+
+	/**
+	 * Execute any archive to index associations which have been batched
+	 */
+	public void flushArchiveAssociations()
+	{
+		if (associateArchiveBatched > 0)
+		{
+			associateArchive.executeBatch();
+			associateArchiveBatched = 0;
+		}
 	}
 
 	public ArchiveEntry findArchive(Connection con, IndexEntry index,
@@ -25,7 +25,9 @@
 package net.runelite.cache.updater;
 
 import java.io.IOException;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Index;
 import net.runelite.cache.fs.Storage;
@@ -42,6 +44,8 @@ public class CacheStorage implements Storage
 	private CacheEntry cacheEntry;
 	private final CacheDAO cacheDao;
 	private final Connection con;
+	// archive rows of the loaded cache, by the archive they were loaded into
+	private final Map<Archive, ArchiveEntry> loadedArchives = new IdentityHashMap<>();
 
 	public CacheStorage(CacheEntry cacheEntry, CacheDAO cacheDao, Connection con)
 	{
@@ -94,6 +98,7 @@ public class CacheStorage implements Storage
 					archive.setCrc(archiveEntry.getCrc());
 					archive.setRevision(archiveEntry.getRevision());
 					archive.setHash(archiveEntry.getHash());
+					loadedArchives.put(archive, archiveEntry);
 
 					// File data is not necessary for cache updating
 				}
@@ -110,23 +115,43 @@ public class CacheStorage implements Storage
 
 			for (Archive archive : index.getArchives())
 			{
-				ArchiveEntry archiveEntry = cacheDao.findArchive(con, entry, archive.getArchiveId(),
-					archive.getNameHash(), archive.getCrc(), archive.getRevision());
-				if (archiveEntry == null)
+				// unchanged archives reuse the row they were loaded from
+				ArchiveEntry archiveEntry = loadedArchives.get(archive);
+				if (archiveEntry == null || !isUnchanged(archiveEntry, archive))
 				{
-					byte[] hash = archive.getHash();
-					archiveEntry = cacheDao.createArchive(con, entry, archive.getArchiveId(),
-						archive.getNameHash(), archive.getCrc(), archive.getRevision(), hash);
-
-					for (FileData file : archive.getFileData())
-					{
-						cacheDao.associateFileToArchive(con, archiveEntry, file.getId(), file.getNameHash());
-					}
+					archiveEntry = findOrCreateArchive(entry, archive);
 				}
 
 				cacheDao.associateArchiveToIndex(con, archiveEntry, entry);
 			}
 		}
+
+		cacheDao.flushArchiveAssociations();
+	}
+
+	private ArchiveEntry findOrCreateArchive(IndexEntry entry, Archive archive)
+	{
+		ArchiveEntry archiveEntry = cacheDao.findArchive(con, entry, archive.getArchiveId(),
+			archive.getNameHash(), archive.getCrc(), archive.getRevision());
+		if (archiveEntry == null)
+		{
+			byte[] hash = archive.getHash();
+			archiveEntry = cacheDao.createArchive(con, entry, archive.getArchiveId(),
+				archive.getNameHash(), archive.getCrc(), archive.getRevision(), hash);
+
+			for (FileData file : archive.getFileData())
+			{
+				cacheDao.associateFileToArchive(con, archiveEntry, file.getId(), file.getNameHash());
+			}
+		}
+		return archiveEntry;
+	}
+
+	private static boolean isUnchanged(ArchiveEntry archiveEntry, Archive archive)
+	{
+		return archiveEntry.getNameHash() == archive.getNameHash()
+			&& archiveEntry.getCrc() == archive.getCrc()
+			&& archiveEntry.getRevision() == archive.getRevision();
 	}
 
 	@Override
@@ -30,8 +30,9 @@ import io.minio.errors.InvalidPortException;
 import java.io.IOException;
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import net.runelite.cache.client.CacheClient;
 import net.runelite.cache.client.IndexInfo;
@@ -63,6 +64,12 @@ public class CacheUpdater implements CommandLineRunner
 	@Value("${minio.bucket}")
 	private String minioBucket;
 
+	@Value("${minio.uploadthreads:8}")
+	private int uploadThreads;
+
+	@Value("${cache.connections:4}")
+	private int connections;
+
 	@Autowired
 	public CacheUpdater(
 		@Qualifier("Runelite Cache SQL2O") Sql2o sql2o,
@@ -92,10 +99,15 @@ public class CacheUpdater implements CommandLineRunner
 			Store store = new Store(storage);
 			store.load();
 
-			ExecutorService executor = Executors.newSingleThreadExecutor();
+			// uploads run in parallel, and once the queue is full the
+			// downloader runs them itself so it can't get too far ahead
+			ExecutorService executor = new ThreadPoolExecutor(uploadThreads, uploadThreads,
+				0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(uploadThreads * 4),
+				new ThreadPoolExecutor.CallerRunsPolicy());
 
 			CacheClient client = new CacheClient(store, rsVersion,
-				(Archive archive, byte[] data) -> executor.submit(new CacheUploader(minioClient, minioBucket, archive, data)));
+				(Archive archive, byte[] data) -> executor.execute(new CacheUploader(minioClient, minioBucket, archive, data)));
 
 			client.connect();
 			HandshakeResponseType result = client.handshake().join();
@@ -115,7 +127,9 @@ public class CacheUpdater implements CommandLineRunner
 				return;
 			}
 
-			client.download();
+			// only archives which differ from the most recent cache are
+			// downloaded and uploaded
+			client.download(connections);
 
 			CacheEntry newCache = created ? cache : cacheDao.createCache(con, rsVersion, Instant.now());
 
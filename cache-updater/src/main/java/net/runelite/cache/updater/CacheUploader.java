@@ -35,7 +35,6 @@ import io.minio.errors.InvalidBucketNameException;
 import io.minio.errors.NoResponseException;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import net.runelite.cache.fs.Archive;
@@ -49,25 +48,29 @@ public class CacheUploader implements Runnable
 
 	private final MinioClient minioClient;
 	private final String minioBucket;
-	private final Archive archive;
+	private final byte[] hash;
 	private final byte[] data;
 
+	/**
+	 * Create an uploader for an archive. The archive hash is set
+	 * immediately, so it is available when the store is saved even if the
+	 * upload has not yet run.
+	 */
 	public CacheUploader(MinioClient minioClient, String minioBucket, Archive archive, byte[] data)
 	{
 		this.minioClient = minioClient;
 		this.minioBucket = minioBucket;
-		this.archive = archive;
+		this.hash = Hashing.sha256().hashBytes(data).asBytes();
 		this.data = data;
+
+		archive.setHash(hash);
 	}
 
 	@Override
 	public void run()
 	{
-		byte[] hash = Hashing.sha256().hashBytes(data).asBytes();
 		String hashStr = BaseEncoding.base16().encode(hash);
 
-		archive.setHash(hash);
-
 		String path = new StringBuilder()
 			.append(hashStr.substring(0, 2))
 			.append('/')
@@ -76,8 +79,9 @@ public class CacheUploader implements Runnable
 
 		try
 		{
-			try (InputStream in = minioClient.getObject(minioBucket, path))
+			try
 			{
+				minioClient.statObject(minioBucket, path);
 				return; // already exists
 			}
 			catch (ErrorResponseException ex)
@@ -29,7 +29,9 @@ import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import lombok.Getter;
 import lombok.Setter;
@@ -42,10 +44,7 @@ import net.runelite.cache.definitions.loaders.OverlayLoader;
 import net.runelite.cache.definitions.loaders.SpriteLoader;
 import net.runelite.cache.definitions.loaders.UnderlayLoader;
 import net.runelite.cache.fs.Archive;
-import net.runelite.cache.fs.ArchiveFiles;
-import net.runelite.cache.fs.FSFile;
 import net.runelite.cache.fs.Index;
-import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.item.ColorPalette;
 import net.runelite.cache.item.RSTextureProvider;
@@ -905,20 +904,13 @@ public class MapImageDumper
 
 	private void loadUnderlays(Store store) throws IOException
 	{
-		Storage storage = store.getStorage();
 		Index index = store.getIndex(IndexType.CONFIGS);
 		Archive archive = index.getArchive(ConfigType.UNDERLAY.getId());
 
-		byte[] archiveData = storage.loadArchive(archive);
-		ArchiveFiles files = archive.getFiles(archiveData);
-
-		for (FSFile file : files.getFiles())
-		{
-			UnderlayLoader loader = new UnderlayLoader();
-			UnderlayDefinition underlay = loader.load(file.getFileId(), file.getContents());
-
-			underlays.put(underlay.getId(), underlay);
-		}
+		UnderlayLoader loader = new UnderlayLoader();
+		store.loadFiles(archive,
+			file -> loader.load(file.getFileId(), file.getContents()),
+			underlay -> underlays.put(underlay.getId(), underlay));
 	}
 
 	private UnderlayDefinition findUnderlay(int id)
@@ -928,20 +920,13 @@ public class MapImageDumper
 
 	private void loadOverlays(Store store) throws IOException
 	{
-		Storage storage = store.getStorage();
 		Index index = store.getIndex(IndexType.CONFIGS);
 		Archive archive = index.getArchive(ConfigType.OVERLAY.getId());
 
-		byte[] archiveData = storage.loadArchive(archive);
-		ArchiveFiles files = archive.getFiles(archiveData);
-
-		for (FSFile file : files.getFiles())
-		{
-			OverlayLoader loader = new OverlayLoader();
-			OverlayDefinition overlay = loader.load(file.getFileId(), file.getContents());
-
-			overlays.put(overlay.getId(), overlay);
-		}
+		OverlayLoader loader = new OverlayLoader();
+		store.loadFiles(archive,
+			file -> loader.load(file.getFileId(), file.getContents()),
+			overlay -> overlays.put(overlay.getId(), overlay));
 	}
 
 	private OverlayDefinition findOverlay(int id)
@@ -951,26 +936,31 @@ public class MapImageDumper
 
 	private void loadSprites() throws IOException
 	{
-		Storage storage = store.getStorage();
 		Index index = store.getIndex(IndexType.SPRITES);
 		final int mapsceneHash = Djb2.hash("mapscene");
 
+		// only the mapscene sprites are drawn as map icons
+		List<Archive> mapscenes = new ArrayList<>();
 		for (Archive a : index.getArchives())
 		{
-			byte[] contents = a.decompress(storage.loadArchive(a));
-
-			SpriteLoader loader = new SpriteLoader();
-			SpriteDefinition[] sprites = loader.load(a.getArchiveId(), contents);
+			if (a.getNameHash() == mapsceneHash)
+			{
+				mapscenes.add(a);
+			}
+		}
 
-			for (SpriteDefinition sprite : sprites)
+		SpriteLoader loader = new SpriteLoader();
+		store.loadArchives(mapscenes,
+			(a, data) -> loader.load(a.getArchiveId(), a.decompress(data)),
+			(SpriteDefinition[] sprites) ->
 			{
-				if (sprite.getHeight() <= 0 || sprite.getWidth() <= 0)
+				for (SpriteDefinition sprite : sprites)
 				{
-					continue;
-				}
+					if (sprite.getHeight() <= 0 || sprite.getWidth() <= 0)
+					{
+						continue;
+					}
 
-				if (a.getNameHash() == mapsceneHash)
-				{
 					BufferedImage spriteImage = new BufferedImage(sprite.getWidth(), sprite.getHeight(), BufferedImage.TYPE_INT_ARGB);
 					spriteImage.setRGB(0, 0, sprite.getWidth(), sprite.getHeight(), sprite.getPixels(), 0, sprite.getWidth());
 
@@ -980,8 +970,7 @@ public class MapImageDumper
 					assert scaledMapIcons.containsKey(sprite.getFrame()) == false;
 					scaledMapIcons.put(sprite.getFrame(), scaledImage);
 				}
-			}
-		}
+			});
 	}
 
 }
@@ -35,9 +35,7 @@ import net.runelite.cache.definitions.SpriteDefinition;
 import net.runelite.cache.definitions.exporters.SpriteExporter;
 import net.runelite.cache.definitions.loaders.SpriteLoader;
 import net.runelite.cache.definitions.providers.SpriteProvider;
-import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Index;
-import net.runelite.cache.fs.Storage;
 import net.runelite.cache.fs.Store;
 
 public class SpriteManager implements SpriteProvider
@@ -52,21 +50,18 @@ public class SpriteManager implements SpriteProvider
 
 	public void load() throws IOException
 	{
-		Storage storage = store.getStorage();
 		Index index = store.getIndex(IndexType.SPRITES);
+		SpriteLoader loader = new SpriteLoader();
 
-		for (Archive a : index.getArchives())
-		{
-			byte[] contents = a.decompress(storage.loadArchive(a));
-
-			SpriteLoader loader = new SpriteLoader();
-			SpriteDefinition[] defs = loader.load(a.getArchiveId(), contents);
-
-			for (SpriteDefinition sprite : defs)
+		store.loadArchives(index.getArchives(),
+			(a, data) -> loader.load(a.getArchiveId(), a.decompress(data)),
+			(SpriteDefinition[] defs) ->
 			{
-				sprites.put(sprite.getId(), sprite);
-			}
-		}
+				for (SpriteDefinition sprite : defs)
+				{
+					sprites.put(sprite.getId(), sprite);
+				}
+			});
 	}
 
 	public Collection<SpriteDefinition> getSprites()
@@ -169,7 +169,12 @@ public class Archive
 
 	public void setNameHash(int nameHash)
 	{
+		int oldNameHash = this.nameHash;
 		this.nameHash = nameHash;
+		if (oldNameHash != nameHash)
+		{
+			index.updateNameHash(this, oldNameHash);
+		}
 	}
 
 	public int getCrc()
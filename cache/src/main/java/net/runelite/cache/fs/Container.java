@@ -24,15 +24,14 @@
  */
 package net.runelite.cache.fs;
 
-import static com.google.common.primitives.Bytes.concat;
 import com.google.common.primitives.Ints;
 import java.io.IOException;
+import java.util.Arrays;
+import net.runelite.cache.fs.jagex.CompressionCodec;
 import net.runelite.cache.fs.jagex.CompressionType;
 import net.runelite.cache.io.InputStream;
 import net.runelite.cache.io.OutputStream;
-import net.runelite.cache.util.BZip2;
 import net.runelite.cache.util.Crc32;
-import net.runelite.cache.util.GZip;
 import net.runelite.cache.util.Xtea;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,25 +57,40 @@ public class Container
 
 		byte[] compressedData;
 		int length;
-		switch (compression)
+		if (compression == CompressionType.NONE)
 		{
-			case CompressionType.NONE:
-				compressedData = data;
-				length = compressedData.length;
-				break;
-			case CompressionType.BZ2:
-				compressedData = concat(Ints.toByteArray(data.length), BZip2.compress(data));
-				length = compressedData.length - 4;
-				break;
-			case CompressionType.GZ:
-				compressedData = concat(Ints.toByteArray(data.length), GZip.compress(data));
-				length = compressedData.length - 4;
-				break;
-			default:
+			compressedData = data;
+			length = compressedData.length;
+		}
+		else
+		{
+			CompressionCodec codec = CompressionType.getCodec(compression);
+			if (codec == null)
+			{
 				throw new RuntimeException("Unknown compression type");
+			}
+
+			byte[] compressed = codec.compress(data);
+			length = compressed.length;
+
+			// decompressed length, followed by the compressed data
+			compressedData = new byte[4 + length];
+			compressedData[0] = (byte) (data.length >> 24);
+			compressedData[1] = (byte) (data.length >> 16);
+			compressedData[2] = (byte) (data.length >> 8);
+			compressedData[3] = (byte) data.length;
+			System.arraycopy(compressed, 0, compressedData, 4, length);
 		}
 
-		compressedData = encrypt(compressedData, compressedData.length, keys);
+		if (keys != null)
+		{
+			if (compressedData == data)
+			{
+				// don't encrypt the caller's data
+				compressedData = Arrays.copyOf(data, data.length);
+			}
+			Xtea.encrypt(keys, compressedData, 0, compressedData.length);
+		}
 
 		stream.writeByte(compression);
 		stream.writeInt(length);
@@ -106,84 +120,69 @@ public class Container
 
 		byte[] data;
 		int revision = -1;
-		switch (compression)
+		if (compression == CompressionType.NONE)
 		{
-			case CompressionType.NONE:
-			{
-				byte[] encryptedData = new byte[compressedLength];
-				stream.readBytes(encryptedData, 0, compressedLength);
+			byte[] encryptedData = new byte[compressedLength];
+			stream.readBytes(encryptedData, 0, compressedLength);
 
-				crc32.update(encryptedData, 0, compressedLength);
-				byte[] decryptedData = decrypt(encryptedData, encryptedData.length, keys);
+			crc32.update(encryptedData, 0, compressedLength);
+			byte[] decryptedData = decryptInPlace(encryptedData, keys);
 
-				if (stream.remaining() >= 2)
-				{
-					revision = stream.readUnsignedShort();
-					assert revision != -1;
-				}
-
-				data = decryptedData;
-
-				break;
-			}
-			case CompressionType.BZ2:
+			if (stream.remaining() >= 2)
 			{
-				byte[] encryptedData = new byte[compressedLength + 4];
-				stream.readBytes(encryptedData);
-
-				crc32.update(encryptedData, 0, encryptedData.length);
-				byte[] decryptedData = decrypt(encryptedData, encryptedData.length, keys);
-
-				if (stream.remaining() >= 2)
-				{
-					revision = stream.readUnsignedShort();
-					assert revision != -1;
-				}
-
-				stream = new InputStream(decryptedData);
-
-				int decompressedLength = stream.readInt();
-				data = BZip2.decompress(stream.getRemaining(), compressedLength);
-
-				if (data == null)
-				{
-					return null;
-				}
+				revision = stream.readUnsignedShort();
+				assert revision != -1;
+			}
 
-				assert data.length == decompressedLength;
+			data = decryptedData;
+		}
+		else
+		{
+			CompressionCodec codec = CompressionType.getCodec(compression);
+			if (codec == null)
+			{
+				throw new RuntimeException("Unknown decompression type");
+			}
 
-				break;
+			// decompressed length + compressed data
+			byte[] compressedData;
+			int offset;
+			if (keys == null)
+			{
+				// decompress straight out of the container
+				compressedData = b;
+				offset = stream.getOffset();
+				stream.skip(compressedLength + 4);
 			}
-			case CompressionType.GZ:
+			else
 			{
-				byte[] encryptedData = new byte[compressedLength + 4];
-				stream.readBytes(encryptedData);
-
-				crc32.update(encryptedData, 0, encryptedData.length);
-				byte[] decryptedData = decrypt(encryptedData, encryptedData.length, keys);
-
-				if (stream.remaining() >= 2)
-				{
-					revision = stream.readUnsignedShort();
-					assert revision != -1;
-				}
+				compressedData = new byte[compressedLength + 4];
+				stream.readBytes(compressedData);
+				offset = 0;
+			}
 
-				stream = new InputStream(decryptedData);
+			crc32.update(compressedData, offset, compressedLength + 4);
+			decryptInPlace(compressedData, keys);
 
-				int decompressedLength = stream.readInt();
-				data = GZip.decompress(stream.getRemaining(), compressedLength);
+			if (stream.remaining() >= 2)
+			{
+				revision = stream.readUnsignedShort();
+				assert revision != -1;
+			}
 
-				if (data == null)
-				{
-					return null;
-				}
+			int decompressedLength = Ints.fromBytes(compressedData[offset], compressedData[offset + 1],
+				compressedData[offset + 2], compressedData[offset + 3]);
+			if (decompressedLength < 0)
+			{
+				throw new IOException("Invalid decompressed length " + decompressedLength);
+			}
 
-				assert data.length == decompressedLength;
+			// the length is garbage if the keys are wrong, so check the
+			// compressed data is sane before allocating for it
+			codec.validate(compressedData, offset + 4, compressedLength, decompressedLength);
 
-				break;
-			}
-			default:
-				throw new RuntimeException("Unknown decompression type");
+			data = new byte[decompressedLength];
+			codec.decompress(compressedData, offset + 4, compressedLength, data);
 		}
 
 		Container container = new Container(compression, revision);
@@ -192,25 +191,16 @@ public class Container
 		return container;
 	}
 
-	private static byte[] decrypt(byte[] data, int length, int[] keys)
-	{
-		if (keys == null)
-		{
-			return data;
-		}
-
-		Xtea xtea = new Xtea(keys);
-		return xtea.decrypt(data, length);
-	}
-
-	private static byte[] encrypt(byte[] data, int length, int[] keys)
+	/**
+	 * Decrypt data in place. This is only used on data which has been
+	 * copied out of the container, so the container is left untouched.
+	 */
+	private static byte[] decryptInPlace(byte[] data, int[] keys)
 	{
-		if (keys == null)
+		if (keys != null)
 		{
-			return data;
+			Xtea.decrypt(keys, data, 0, data.length);
 		}
-
-		Xtea xtea = new Xtea(keys);
-		return xtea.encrypt(data, length);
+		return data;
 	}
 }
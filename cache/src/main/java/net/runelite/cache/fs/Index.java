@@ -25,12 +25,14 @@
 package net.runelite.cache.fs;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import net.runelite.cache.index.ArchiveData;
 import net.runelite.cache.index.FileData;
 import net.runelite.cache.index.IndexData;
 import net.runelite.cache.util.Djb2;
+import net.runelite.cache.util.IntObjectMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,6 +49,12 @@ public class Index
 	private int compression; // compression method of this index's data in 255
 
 	private final List<Archive> archives = new ArrayList<>();
+	private final List<Archive> unmodifiableArchives = Collections.unmodifiableList(archives);
+
+	// lookups by archive id and name hash. If multiple archives share an id or
+	// name hash, these map to the first of them in archives
+	private final IntObjectMap<Archive> archivesById = new IntObjectMap<>();
+	private final IntObjectMap<Archive> archivesByName = new IntObjectMap<>();
 
 	public Index(int id)
 	{
@@ -147,39 +155,88 @@ public class Index
 
 	public List<Archive> getArchives()
 	{
-		return archives;
+		return unmodifiableArchives;
 	}
 
 	public Archive addArchive(int id)
 	{
 		Archive archive = new Archive(this, id);
 		this.archives.add(archive);
+		archivesById.putIfAbsent(id, archive);
+		archivesByName.putIfAbsent(archive.getNameHash(), archive);
 		return archive;
 	}
 
-	public Archive getArchive(int id)
+	public void removeArchive(Archive archive)
 	{
-		for (Archive a : archives)
+		assert archive.getIndex() == this;
+
+		if (!archives.remove(archive))
+		{
+			return;
+		}
+
+		int id = archive.getArchiveId();
+		if (archivesById.get(id) == archive)
 		{
-			if (a.getArchiveId() == id)
+			archivesById.remove(id);
+			for (Archive a : archives)
 			{
-				return a;
+				if (a.getArchiveId() == id)
+				{
+					archivesById.put(id, a);
+					break;
+				}
 			}
 		}
-		return null;
+
+		removeNameHash(archive, archive.getNameHash());
 	}
 
-	public Archive findArchiveByName(String name)
+	/**
+	 * Called when the name hash of an archive in this index changes
+	 *
+	 * @param archive
+	 * @param oldNameHash
+	 */
+	void updateNameHash(Archive archive, int oldNameHash)
 	{
-		int hash = Djb2.hash(name);
+		removeNameHash(archive, oldNameHash);
+		archivesByName.putIfAbsent(archive.getNameHash(), archive);
+	}
+
+	private void removeNameHash(Archive archive, int nameHash)
+	{
+		if (archivesByName.get(nameHash) != archive)
+		{
+			return;
+		}
+
+		archivesByName.remove(nameHash);
 		for (Archive a : archives)
 		{
-			if (a.getNameHash() == hash)
+			if (a != archive && a.getNameHash() == nameHash)
 			{
-				return a;
+				archivesByName.put(nameHash, a);
+				break;
 			}
 		}
-		return null;
+	}
+
+	public Archive getArchive(int id)
+	{
+		return archivesById.get(id);
+	}
+
+	public Archive findArchiveByName(String name)
+	{
+		int hash = Djb2.hash(name);
+		return findArchiveByNameHash(hash);
+	}
+
+	public Archive findArchiveByNameHash(int nameHash)
+	{
+		return archivesByName.get(nameHash);
 	}
 
 	public IndexData toIndexData()
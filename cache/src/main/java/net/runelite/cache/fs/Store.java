@@ -28,11 +28,18 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 import net.runelite.cache.IndexType;
 import net.runelite.cache.fs.jagex.DiskStorage;
+import net.runelite.cache.util.IOFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,6 +49,7 @@ public final class Store implements Closeable
 
 	private final Storage storage;
 	private final List<Index> indexes = new ArrayList<>();
+	private ForkJoinPool pool = ForkJoinPool.commonPool();
 
 	public Store(File folder) throws IOException
 	{
@@ -61,6 +69,23 @@ public final class Store implements Closeable
 		return storage;
 	}
 
+	public ForkJoinPool getPool()
+	{
+		return pool;
+	}
+
+	/**
+	 * Set the pool used to load and decode archives in parallel.
+	 * The storage must support loading archives from the pool's threads
+	 * concurrently.
+	 *
+	 * @param pool
+	 */
+	public void setPool(ForkJoinPool pool)
+	{
+		this.pool = Objects.requireNonNull(pool);
+	}
+
 	@Override
 	public void close() throws IOException
 	{
@@ -147,4 +172,95 @@ public final class Store implements Closeable
 		}
 		return null;
 	}
+
+	/**
+	 * Load each of the given sources on the pool, and pass the results to
+	 * the consumer. The consumer is called on the calling thread, in the
+	 * order of the sources, as results become available. Null results are
+	 * skipped.
+	 *
+	 * @param sources
+	 * @param loader function to load a source, called concurrently
+	 * @param consumer
+	 * @param <S> source type
+	 * @param <T> result type
+	 * @throws IOException if any source fails to load
+	 */
+	public <S, T> void load(Collection<S> sources, IOFunction<? super S, ? extends T> loader, Consumer<? super T> consumer) throws IOException
+	{
+		List<ForkJoinTask<? extends T>> tasks = new ArrayList<>(sources.size());
+		for (S source : sources)
+		{
+			tasks.add(pool.submit(() -> loader.apply(source)));
+		}
+
+		try
+		{
+			for (ForkJoinTask<? extends T> task : tasks)
+			{
+				T result = task.get();
+				if (result != null)
+				{
+					consumer.accept(result);
+				}
+			}
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+		catch (ExecutionException ex)
+		{
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException)
+			{
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException)
+			{
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error)
+			{
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		}
+		finally
+		{
+			for (ForkJoinTask<? extends T> task : tasks)
+			{
+				task.cancel(false);
+			}
+		}
+	}
+
+	/**
+	 * Load the archives, and decode them on the pool.
+	 *
+	 * @param archives
+	 * @param decoder function to decode an archive given its data from storage
+	 * @param consumer called on the calling thread, in archive order
+	 * @see #load(Collection, IOFunction, Consumer)
+	 */
+	public <T> void loadArchives(Collection<Archive> archives, ArchiveDecoder<? extends T> decoder, Consumer<? super T> consumer) throws IOException
+	{
+		load(archives, archive -> decoder.decode(archive, storage.loadArchive(archive)), consumer);
+	}
+
+	/**
+	 * Load the files of an archive, and decode them on the pool.
+	 *
+	 * @param archive
+	 * @param decoder function to decode a file, called concurrently
+	 * @param consumer called on the calling thread, in file order
+	 * @see #load(Collection, IOFunction, Consumer)
+	 */
+	public <T> void loadFiles(Archive archive, IOFunction<FSFile, ? extends T> decoder, Consumer<? super T> consumer) throws IOException
+	{
+		byte[] archiveData = storage.loadArchive(archive);
+		ArchiveFiles files = archive.getFiles(archiveData);
+		load(files.getFiles(), decoder, consumer);
+	}
 }
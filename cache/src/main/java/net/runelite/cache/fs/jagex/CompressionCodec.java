@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.fs.jagex;
+
+import java.io.IOException;
+
+/**
+ * Compresses and decompresses container data for a {@link CompressionType}
+ */
+public interface CompressionCodec
+{
+	/**
+	 * Compress data
+	 *
+	 * @param data
+	 * @return compressed data, without the decompressed length
+	 * @throws IOException
+	 */
+	byte[] compress(byte[] data) throws IOException;
+
+	/**
+	 * Decompress data into out. Implementations must be thread safe.
+	 *
+	 * @param data
+	 * @param off offset of the compressed data
+	 * @param len length of the compressed data
+	 * @param out array to decompress into, sized to the decompressed length
+	 * from the container
+	 * @throws IOException
+	 */
+	void decompress(byte[] data, int off, int len, byte[] out) throws IOException;
+
+	/**
+	 * Check that compressed data is plausibly valid for the decompressed
+	 * length from the container, before anything is allocated for it. This
+	 * rejects data which has been decrypted with the wrong keys.
+	 *
+	 * @param data
+	 * @param off offset of the compressed data
+	 * @param len length of the compressed data
+	 * @param decompressedLength decompressed length from the container
+	 * @throws IOException
+	 */
+	void validate(byte[] data, int off, int len, int decompressedLength) throws IOException;
+}
@@ -29,4 +29,40 @@ public class CompressionType
 	public static final int NONE = 0;
 	public static final int BZ2  = 1;
 	public static final int GZ   = 2;
+
+	private static final CompressionCodec[] codecs = new CompressionCodec[]
+	{
+		null, new BZip2Codec(), new GZipCodec()
+	};
+
+	/**
+	 * Get the codec for a compression type
+	 *
+	 * @param compression compression type
+	 * @return the codec, or null for NONE or an unknown compression type
+	 */
+	public static CompressionCodec getCodec(int compression)
+	{
+		if (compression <= NONE || compression >= codecs.length)
+		{
+			return null;
+		}
+		return codecs[compression];
+	}
+
+	/**
+	 * Replace the codec used for a compression type. This should be done
+	 * before any containers are compressed or decompressed.
+	 *
+	 * @param compression compression type
+	 * @param codec codec
+	 */
+	public static void setCodec(int compression, CompressionCodec codec)
+	{
+		if (compression <= NONE || compression >= codecs.length)
+		{
+			throw new IllegalArgumentException("unknown compression type " + compression);
+		}
+		codecs[compression] = codec;
+	}
 }
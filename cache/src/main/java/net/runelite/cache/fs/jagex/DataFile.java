@@ -30,6 +30,10 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,21 +44,73 @@ public class DataFile implements Closeable
 	private static final int SECTOR_SIZE = 520;
 
 	private final RandomAccessFile dat;
+	private final boolean mapped;
+
+	/**
+	 * read only view of the data file, remapped when reads go past its end
+	 */
+	private volatile MappedByteBuffer map;
+	/**
+	 * held for reading while the mapping is accessed, and for writing while
+	 * it is released or the file is truncated
+	 */
+	private final ReadWriteLock mapLock = new ReentrantReadWriteLock();
 
 	public DataFile(File file) throws FileNotFoundException
+	{
+		this(file, false);
+	}
+
+	/**
+	 *
+	 * @param file data file
+	 * @param mapped whether reads should go through a memory mapped view of
+	 * the file. Mapped reads do not use the file pointer and so may be done
+	 * concurrently from multiple threads.
+	 * @throws FileNotFoundException
+	 */
+	public DataFile(File file, boolean mapped) throws FileNotFoundException
 	{
 		this.dat = new RandomAccessFile(file, "rw");
+		this.mapped = mapped;
 	}
 
 	@Override
 	public void close() throws IOException
 	{
-		dat.close();
+		mapLock.writeLock().lock();
+		try
+		{
+			MappedBuffers.unmap(map);
+			map = null;
+			dat.close();
+		}
+		finally
+		{
+			mapLock.writeLock().unlock();
+		}
 	}
 
-	public void clear() throws IOException
+	public synchronized void clear() throws IOException
 	{
-		dat.setLength(0L);
+		// the mapping must be released before truncating, accessing
+		// a mapped region past the end of the file is fatal
+		mapLock.writeLock().lock();
+		try
+		{
+			MappedBuffers.unmap(map);
+			map = null;
+			dat.setLength(0L);
+		}
+		finally
+		{
+			mapLock.writeLock().unlock();
+		}
+	}
+
+	public boolean isMapped()
+	{
+		return mapped;
 	}
 
 	/**
@@ -68,14 +124,158 @@ public class DataFile implements Closeable
 	 */
 	public byte[] read(int indexId, int archiveId, int sector, int size) throws IOException
 	{
-		if (sector <= 0L || dat.length() / SECTOR_SIZE < (long) sector)
+		byte[] data = new byte[size];
+		return read(indexId, archiveId, sector, size, ByteBuffer.wrap(data)) ? data : null;
+	}
+
+	/**
+	 * Read an archive into a buffer. When the file is mapped, the
+	 * archive is copied from the mapping into the buffer without
+	 * going through the heap, if the buffer is direct.
+	 *
+	 * @param indexId expected index of archive of contents being read
+	 * @param archiveId expected archive of contents being read
+	 * @param sector sector to start reading at
+	 * @param size size of file
+	 * @param out buffer to read the archive into, which must have at least
+	 * size bytes remaining
+	 * @return true if the archive was read
+	 * @throws IOException
+	 */
+	public boolean read(int indexId, int archiveId, int sector, int size, ByteBuffer out) throws IOException
+	{
+		if (out.remaining() < size)
 		{
-			logger.warn("bad read, dat length {}, requested sector {}", dat.length(), sector);
-			return null;
+			throw new IllegalArgumentException("buffer is too small for archive " + indexId + "/" + archiveId);
+		}
+
+		if (mapped)
+		{
+			// the archive can't end before this, even if all of its sectors are contiguous
+			long minimumEnd = (long) SECTOR_SIZE * sector + size;
+			MappedByteBuffer m = map;
+			if (m == null || m.capacity() < minimumEnd)
+			{
+				remap();
+			}
+
+			mapLock.readLock().lock();
+			try
+			{
+				m = map;
+				// the file may have been cleared since it was remapped
+				if (m != null && m.capacity() >= minimumEnd)
+				{
+					// duplicate so that positioning the view doesn't affect other readers
+					ByteBuffer view = m.duplicate();
+					return readSectors((s, length) ->
+					{
+						int pos = SECTOR_SIZE * s;
+						if (pos + length > view.capacity())
+						{
+							return null;
+						}
+
+						view.limit(pos + length);
+						view.position(pos);
+						return view;
+					}, view.capacity(), indexId, archiveId, sector, size, out);
+				}
+			}
+			finally
+			{
+				mapLock.readLock().unlock();
+			}
 		}
 
+		return readFile(indexId, archiveId, sector, size, out);
+	}
+
+	private synchronized boolean readFile(int indexId, int archiveId, int sector, int size, ByteBuffer out) throws IOException
+	{
 		byte[] readBuffer = new byte[SECTOR_SIZE];
-		ByteBuffer buffer = ByteBuffer.allocate(size);
+		return readSectors((s, length) ->
+		{
+			dat.seek((long) SECTOR_SIZE * s);
+			int i = dat.read(readBuffer, 0, length);
+			return i == length ? ByteBuffer.wrap(readBuffer, 0, length) : null;
+		}, dat.length(), indexId, archiveId, sector, size, out);
+	}
+
+	/**
+	 * Remap the data file if it has grown since it was last mapped. Readers
+	 * are excluded while the old mapping is released.
+	 *
+	 * @throws IOException
+	 */
+	private void remap() throws IOException
+	{
+		mapLock.writeLock().lock();
+		try
+		{
+			long length = dat.length();
+			MappedByteBuffer m = map;
+			if (m != null && m.capacity() == length)
+			{
+				return;
+			}
+
+			MappedBuffers.unmap(m);
+			map = null;
+
+			if (length > Integer.MAX_VALUE)
+			{
+				logger.debug("data file is too large to map ({} bytes), falling back to file reads", length);
+				return;
+			}
+
+			map = dat.getChannel().map(FileChannel.MapMode.READ_ONLY, 0L, length);
+		}
+		finally
+		{
+			mapLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Source of sectors for {@link #readSectors}
+	 */
+	@FunctionalInterface
+	private interface SectorReader
+	{
+		/**
+		 * @param sector sector to read
+		 * @param length number of bytes to read from the start of the sector
+		 * @return a buffer with the sector's bytes remaining, or null on a short read
+		 * @throws IOException
+		 */
+		ByteBuffer read(int sector, int length) throws IOException;
+	}
+
+	/**
+	 * Follow an archive's sector chain, copying its data into a buffer
+	 *
+	 * @param reader source of the sectors
+	 * @param datLength length of the data file
+	 * @param indexId expected index of archive of contents being read
+	 * @param archiveId expected archive of contents being read
+	 * @param sector sector to start reading at
+	 * @param size size of file
+	 * @param out buffer to read the archive into
+	 * @return true if the archive was read
+	 * @throws IOException
+	 */
+	private static boolean readSectors(SectorReader reader, long datLength, int indexId, int archiveId, int sector, int size, ByteBuffer out) throws IOException
+	{
+		final long sectors = datLength / SECTOR_SIZE;
+		if (sector <= 0 || sectors < sector)
+		{
+			logger.warn("bad read, dat length {}, requested sector {}", datLength, sector);
+			return false;
+		}
+
+		final boolean extended = archiveId > 0xFFFF;
+		final int headerSize = extended ? 10 : 8;
 
 		for (int part = 0, readBytesCount = 0, nextSector;
 			size > readBytesCount;
@@ -84,64 +284,38 @@ public class DataFile implements Closeable
 			if (sector == 0)
 			{
 				logger.warn("Unexpected end of file");
-				return null;
+				return false;
 			}
 
-			dat.seek(SECTOR_SIZE * sector);
-
 			int dataBlockSize = size - readBytesCount;
-			byte headerSize;
+			if (dataBlockSize > SECTOR_SIZE - headerSize)
+			{
+				dataBlockSize = SECTOR_SIZE - headerSize;
+			}
+
+			ByteBuffer block = reader.read(sector, headerSize + dataBlockSize);
+			if (block == null)
+			{
+				logger.warn("Short read when reading file data for {}/{}", indexId, archiveId);
+				return false;
+			}
+
 			int currentIndex;
 			int currentPart;
 			int currentArchive;
-			if (archiveId > 0xFFFF)
+			if (extended)
 			{
-				headerSize = 10;
-				if (dataBlockSize > SECTOR_SIZE - headerSize)
-				{
-					dataBlockSize = SECTOR_SIZE - headerSize;
-				}
-
-				int i = dat.read(readBuffer, 0, headerSize + dataBlockSize);
-				if (i != headerSize + dataBlockSize)
-				{
-					logger.warn("Short read when reading file data for {}/{}", indexId, archiveId);
-					return null;
-				}
-
-				currentArchive = ((readBuffer[0] & 0xFF) << 24)
-					| ((readBuffer[1] & 0xFF) << 16)
-					| ((readBuffer[2] & 0xFF) << 8)
-					| (readBuffer[3] & 0xFF);
-				currentPart = ((readBuffer[4] & 0xFF) << 8) + (readBuffer[5] & 0xFF);
-				nextSector = ((readBuffer[6] & 0xFF) << 16)
-					| ((readBuffer[7] & 0xFF) << 8)
-					| (readBuffer[8] & 0xFF);
-				currentIndex = readBuffer[9] & 0xFF;
+				currentArchive = block.getInt();
+				currentPart = block.getShort() & 0xFFFF;
+				nextSector = ((block.get() & 0xFF) << 16) | (block.getShort() & 0xFFFF);
+				currentIndex = block.get() & 0xFF;
 			}
 			else
 			{
-				headerSize = 8;
-				if (dataBlockSize > SECTOR_SIZE - headerSize)
-				{
-					dataBlockSize = SECTOR_SIZE - headerSize;
-				}
-
-				int i = dat.read(readBuffer, 0, headerSize + dataBlockSize);
-				if (i != headerSize + dataBlockSize)
-				{
-					logger.warn("short read");
-					return null;
-				}
-
-				currentArchive = ((readBuffer[0] & 0xFF) << 8)
-					| (readBuffer[1] & 0xFF);
-				currentPart = ((readBuffer[2] & 0xFF) << 8)
-					| (readBuffer[3] & 0xFF);
-				nextSector = ((readBuffer[4] & 0xFF) << 16)
-					| ((readBuffer[5] & 0xFF) << 8)
-					| (readBuffer[6] & 0xFF);
-				currentIndex = readBuffer[7] & 0xFF;
+				currentArchive = block.getShort() & 0xFFFF;
+				currentPart = block.getShort() & 0xFFFF;
+				nextSector = ((block.get() & 0xFF) << 16) | (block.getShort() & 0xFFFF);
+				currentIndex = block.get() & 0xFF;
 			}
 
 			if (archiveId != currentArchive || currentPart != part || indexId != currentIndex)
@@ -150,26 +324,25 @@ public class DataFile implements Closeable
 					archiveId, currentArchive,
 					part, currentPart,
 					indexId, currentIndex);
-				return null;
+				return false;
 			}
 
-			if (nextSector < 0 || dat.length() / SECTOR_SIZE < (long) nextSector)
+			if (nextSector < 0 || sectors < nextSector)
 			{
 				logger.warn("Invalid next sector");
-				return null;
+				return false;
 			}
 
-			buffer.put(readBuffer, headerSize, dataBlockSize);
+			out.put(block);
 			readBytesCount += dataBlockSize;
 
 			++part;
 		}
 
-		buffer.flip();
-		return buffer.array();
+		return true;
 	}
 
-	public DataFileWriteResult write(int indexId, int archiveId, byte[] compressedData) throws IOException
+	public synchronized DataFileWriteResult write(int indexId, int archiveId, byte[] compressedData) throws IOException
 	{
 		int sector;
 		int startSector;
@@ -28,6 +28,7 @@ import com.google.common.primitives.Ints;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import net.runelite.cache.fs.Archive;
@@ -48,18 +49,43 @@ public class DiskStorage implements Storage
 	private static final String MAIN_FILE_CACHE_DAT = "main_file_cache.dat2";
 	private static final String MAIN_FILE_CACHE_IDX = "main_file_cache.idx";
 
+	/**
+	 * system property which makes the default disk storage memory map the cache files
+	 */
+	private static final String MAPPED_PROPERTY = "runelite.cache.mapped";
+
 	private final File folder;
+	private final boolean mapped;
 
 	private final DataFile data;
 	private final IndexFile index255;
 	private final List<IndexFile> indexFiles = new ArrayList<>();
 
 	public DiskStorage(File folder) throws IOException
+	{
+		this(folder, Boolean.getBoolean(MAPPED_PROPERTY));
+	}
+
+	/**
+	 *
+	 * @param folder cache folder
+	 * @param mapped whether to read the data and index files through memory
+	 * mappings instead of file reads. Mapped storage may have archives loaded
+	 * from multiple threads concurrently.
+	 * @throws IOException
+	 */
+	public DiskStorage(File folder, boolean mapped) throws IOException
 	{
 		this.folder = folder;
+		this.mapped = mapped;
+
+		this.data = new DataFile(new File(folder, MAIN_FILE_CACHE_DAT), mapped);
+		this.index255 = new IndexFile(255, new File(folder, MAIN_FILE_CACHE_IDX + "255"), mapped);
+	}
 
-		this.data = new DataFile(new File(folder, MAIN_FILE_CACHE_DAT));
-		this.index255 = new IndexFile(255, new File(folder, MAIN_FILE_CACHE_IDX + "255"));
+	public boolean isMapped()
+	{
+		return mapped;
 	}
 
 	@Override
@@ -85,7 +111,7 @@ public class DiskStorage implements Storage
 		}
 	}
 
-	private IndexFile getIndex(int i) throws FileNotFoundException
+	private synchronized IndexFile getIndex(int i) throws FileNotFoundException
 	{
 		for (IndexFile indexFile : indexFiles)
 		{
@@ -95,7 +121,7 @@ public class DiskStorage implements Storage
 			}
 		}
 
-		IndexFile indexFile = new IndexFile(i, new File(folder, MAIN_FILE_CACHE_IDX + i));
+		IndexFile indexFile = new IndexFile(i, new File(folder, MAIN_FILE_CACHE_IDX + i), mapped);
 		indexFiles.add(indexFile);
 		return indexFile;
 	}
@@ -171,6 +197,46 @@ public class DiskStorage implements Storage
 		return archiveData;
 	}
 
+	/**
+	 * Get the length of the data for an archive
+	 *
+	 * @param archive
+	 * @return the length of the archive data, or -1 if the archive
+	 * isn't stored
+	 * @throws IOException
+	 */
+	public int getArchiveLength(Archive archive) throws IOException
+	{
+		IndexFile indexFile = getIndex(archive.getIndex().getId());
+		IndexEntry entry = indexFile.read(archive.getArchiveId());
+		return entry != null ? entry.getLength() : -1;
+	}
+
+	/**
+	 * Load the data for an archive into a buffer. If the storage is mapped
+	 * and the buffer is direct, the data is not copied through the heap.
+	 *
+	 * @param archive
+	 * @param out buffer with at least {@link #getArchiveLength(Archive)}
+	 * bytes remaining
+	 * @return true if the archive was loaded
+	 * @throws IOException
+	 */
+	public boolean loadArchive(Archive archive, ByteBuffer out) throws IOException
+	{
+		Index index = archive.getIndex();
+		IndexFile indexFile = getIndex(index.getId());
+
+		IndexEntry entry = indexFile.read(archive.getArchiveId());
+		if (entry == null)
+		{
+			logger.debug("can't read archive " + archive.getArchiveId() + " from index " + index.getId());
+			return false;
+		}
+
+		return data.read(index.getId(), entry.getId(), entry.getSector(), entry.getLength(), out);
+	}
+
 	@Override
 	public void save(Store store) throws IOException
 	{
@@ -29,7 +29,11 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,24 +46,58 @@ public class IndexFile implements Closeable
 	private final int indexFileId;
 	private final File file;
 	private final RandomAccessFile idx;
+	private final boolean mapped;
 	private final byte[] buffer = new byte[INDEX_ENTRY_LEN];
 
+	private volatile MappedByteBuffer map;
+	/**
+	 * held for reading while the mapping is accessed, and for writing while
+	 * it is released or the file is truncated
+	 */
+	private final ReadWriteLock mapLock = new ReentrantReadWriteLock();
+
 	public IndexFile(int indexFileId, File file) throws FileNotFoundException
+	{
+		this(indexFileId, file, false);
+	}
+
+	public IndexFile(int indexFileId, File file, boolean mapped) throws FileNotFoundException
 	{
 		this.indexFileId = indexFileId;
 		this.file = file;
 		this.idx = new RandomAccessFile(file, "rw");
+		this.mapped = mapped;
 	}
 
 	@Override
 	public void close() throws IOException
 	{
-		idx.close();
+		mapLock.writeLock().lock();
+		try
+		{
+			MappedBuffers.unmap(map);
+			map = null;
+			idx.close();
+		}
+		finally
+		{
+			mapLock.writeLock().unlock();
+		}
 	}
 
-	public void clear() throws IOException
+	public synchronized void clear() throws IOException
 	{
-		idx.setLength(0L);
+		mapLock.writeLock().lock();
+		try
+		{
+			MappedBuffers.unmap(map);
+			map = null;
+			idx.setLength(0L);
+		}
+		finally
+		{
+			mapLock.writeLock().unlock();
+		}
 	}
 
 	@Override
@@ -109,7 +147,42 @@ public class IndexFile implements Closeable
 		idx.write(buffer);
 	}
 
-	public synchronized IndexEntry read(int id) throws IOException
+	public IndexEntry read(int id) throws IOException
+	{
+		if (mapped)
+		{
+			int pos = id * INDEX_ENTRY_LEN;
+			MappedByteBuffer m = map;
+			if (m == null || m.capacity() < pos + INDEX_ENTRY_LEN)
+			{
+				remap();
+			}
+
+			mapLock.readLock().lock();
+			try
+			{
+				m = map;
+				if (m == null || m.capacity() < pos + INDEX_ENTRY_LEN)
+				{
+					logger.debug("short read for id {} on index {}, index length {}", id, indexFileId, m != null ? m.capacity() : 0);
+					return null;
+				}
+
+				// absolute gets, so the mapping can be shared between readers
+				int length = ((m.get(pos) & 0xFF) << 16) | (m.getShort(pos + 1) & 0xFFFF);
+				int sector = ((m.get(pos + 3) & 0xFF) << 16) | (m.getShort(pos + 4) & 0xFFFF);
+				return toEntry(id, length, sector);
+			}
+			finally
+			{
+				mapLock.readLock().unlock();
+			}
+		}
+
+		return readFile(id);
+	}
+
+	private synchronized IndexEntry readFile(int id) throws IOException
 	{
 		idx.seek(id * INDEX_ENTRY_LEN);
 		int i = idx.read(buffer);
@@ -121,7 +194,34 @@ public class IndexFile implements Closeable
 
 		int length = ((buffer[0] & 0xFF) << 16) | ((buffer[1] & 0xFF) << 8) | (buffer[2] & 0xFF);
 		int sector = ((buffer[3] & 0xFF) << 16) | ((buffer[4] & 0xFF) << 8) | (buffer[5] & 0xFF);
+		return toEntry(id, length, sector);
+	}
 
+	private void remap() throws IOException
+	{
+		mapLock.writeLock().lock();
+		try
+		{
+			long length = idx.length();
+			MappedByteBuffer m = map;
+			if (m != null && m.capacity() == length)
+			{
+				return;
+			}
+
+			MappedBuffers.unmap(m);
+			map = null;
+			// index files are at most 0xFFFFFF entries, so always fit in a single mapping
+			map = idx.getChannel().map(FileChannel.MapMode.READ_ONLY, 0L, length);
+		}
+		finally
+		{
+			mapLock.writeLock().unlock();
+		}
+	}
+
+	private IndexEntry toEntry(int id, int length, int sector)
+	{
 		if (length <= 0 || sector <= 0)
 		{
 			logger.debug("invalid length or sector {}/{}", length, sector);
@@ -25,8 +25,10 @@
 package net.runelite.cache.region;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import net.runelite.cache.IndexType;
 import net.runelite.cache.definitions.LocationsDefinition;
@@ -65,14 +67,15 @@ public class RegionLoader
 
 	public void loadRegions() throws IOException
 	{
+		List<Integer> regionIds = new ArrayList<>(MAX_REGION);
 		for (int i = 0; i < MAX_REGION; ++i)
 		{
-			Region region = this.loadRegionFromArchive(i);
-			if (region != null)
-			{
-				regions.put(i, region);
-			}
+			regionIds.add(i);
 		}
+
+		// regions are loaded concurrently, but added in region id order
+		store.load(regionIds, this::loadRegionFromArchive,
+			region -> regions.put(region.getRegionID(), region));
 	}
 
 	public Region loadRegionFromArchive(int i) throws IOException
@@ -40,6 +40,8 @@ public class BZip2
 {
 	private static final Logger logger = LoggerFactory.getLogger(BZip2.class);
 
+	private static final ThreadLocal<BZip2Decoder> DECODER = ThreadLocal.withInitial(BZip2Decoder::new);
+
 	private static final byte[] BZIP_HEADER = new byte[]
 	{
 		'B', 'Z', // magic
@@ -47,6 +49,16 @@ public class BZip2
 		'1'       // block size
 	};
 
+	private static final byte[] BLOCK_MAGIC = new byte[]
+	{
+		0x31, 0x41, 0x59, 0x26, 0x53, 0x59
+	};
+
+	private static final byte[] EOS_MAGIC = new byte[]
+	{
+		0x17, 0x72, 0x45, 0x38, 0x50, (byte) 0x90
+	};
+
 	public static byte[] compress(byte[] bytes) throws IOException
 	{
 		InputStream is = new ByteArrayInputStream(bytes);
@@ -83,4 +95,46 @@ public class BZip2
 
 		return os.toByteArray();
 	}
+
+	/**
+	 * Decompress headerless bzip2 data into out, using a per thread decoder.
+	 *
+	 * @param bytes
+	 * @param off offset of the compressed data
+	 * @param len length of the compressed data
+	 * @param out array to decompress into, which must be exactly the
+	 * length of the decompressed data
+	 * @throws IOException
+	 */
+	public static void decompress(byte[] bytes, int off, int len, byte[] out) throws IOException
+	{
+		DECODER.get().decompress(bytes, off, len, out);
+	}
+
+	/**
+	 * Check headerless bzip2 data starts with a block, or with the end of
+	 * stream marker if the decompressed data is empty
+	 *
+	 * @param bytes
+	 * @param off offset of the compressed data
+	 * @param len length of the compressed data
+	 * @param decompressedLength expected decompressed length
+	 * @throws IOException
+	 */
+	public static void validate(byte[] bytes, int off, int len, int decompressedLength) throws IOException
+	{
+		byte[] magic = decompressedLength > 0 ? BLOCK_MAGIC : EOS_MAGIC;
+		if (len < magic.length)
+		{
+			throw new IOException("bzip2 data is too short");
+		}
+
+		for (int i = 0; i < magic.length; ++i)
+		{
+			if (bytes[off + i] != magic[i])
+			{
+				throw new IOException("invalid bzip2 block header");
+			}
+		}
+	}
 }
@@ -0,0 +1,527 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.util;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A bzip2 decoder which decodes directly into a caller provided array. The
+ * decoder holds the block sized tables needed for decoding, so it should be
+ * reused rather than created per decode. Instances are not thread safe.
+ * <p>
+ * The input is expected to have its stream header removed, and to have been
+ * compressed with a block size of 100k, as is done for cache archives. The
+ * block and stream CRCs are checked against the decompressed data.
+ */
+public class BZip2Decoder
+{
+	private static final int BLOCK_SIZE = 100_000;
+
+	private static final int RUNA = 0;
+	private static final int RUNB = 1;
+
+	private static final int MIN_GROUPS = 2;
+	private static final int MAX_GROUPS = 6;
+	private static final int GROUP_SIZE = 50;
+	private static final int MAX_ALPHA_SIZE = 258;
+	private static final int MAX_CODE_LEN = 20;
+	private static final int MAX_SELECTORS = 1 << 15;
+
+	private static final int BLOCK_MAGIC_HI = 0x314159;
+	private static final int BLOCK_MAGIC_LO = 0x265359;
+	private static final int EOS_MAGIC_HI = 0x177245;
+	private static final int EOS_MAGIC_LO = 0x385090;
+
+	private static final int[] CRC_TABLE = new int[256];
+
+	static
+	{
+		// bzip2 uses the crc32 polynomial, but msb first
+		for (int i = 0; i < 256; ++i)
+		{
+			int c = i << 24;
+			for (int j = 0; j < 8; ++j)
+			{
+				c = (c & 0x80000000) != 0 ? (c << 1) ^ 0x04C11DB7 : c << 1;
+			}
+			CRC_TABLE[i] = c;
+		}
+	}
+
+	private final int[] tt = new int[BLOCK_SIZE];
+	private final int[] unzftab = new int[256];
+	private final int[] cftab = new int[257];
+	private final byte[] seqToUnseq = new byte[256];
+	private final byte[] mtf = new byte[256];
+	private final byte[] selectors = new byte[MAX_SELECTORS];
+	private final byte[] groupPos = new byte[MAX_GROUPS];
+	private final byte[] lengths = new byte[MAX_ALPHA_SIZE];
+	private final int[][] limit = new int[MAX_GROUPS][MAX_CODE_LEN + 2];
+	private final int[][] base = new int[MAX_GROUPS][MAX_CODE_LEN + 2];
+	private final int[][] perm = new int[MAX_GROUPS][MAX_ALPHA_SIZE];
+	private final int[] minLens = new int[MAX_GROUPS];
+
+	private byte[] in;
+	private int inPos;
+	private int inEnd;
+	private long bitBuffer;
+	private int bitCount;
+
+	private int alphaSize;
+	private int nSelectors;
+
+	/**
+	 * Decompress data into out. The decompressed data must fill out exactly.
+	 *
+	 * @param in compressed data, without the stream header
+	 * @param off offset of the compressed data
+	 * @param len length of the compressed data
+	 * @param out array to decompress into
+	 * @throws IOException if the data is invalid, or doesn't decompress
+	 * to exactly the length of out
+	 */
+	public void decompress(byte[] in, int off, int len, byte[] out) throws IOException
+	{
+		this.in = in;
+		this.inPos = off;
+		this.inEnd = off + len;
+		this.bitBuffer = 0L;
+		this.bitCount = 0;
+
+		try
+		{
+			int outPos = 0;
+			int streamCrc = 0;
+			for (;;)
+			{
+				int magicHi = bits(24);
+				int magicLo = bits(24);
+				// block or stream crc
+				int crc = bits(16) << 16 | bits(16);
+
+				if (magicHi == EOS_MAGIC_HI && magicLo == EOS_MAGIC_LO)
+				{
+					if (crc != streamCrc)
+					{
+						throw new IOException("stream crc mismatch");
+					}
+					break;
+				}
+
+				if (magicHi != BLOCK_MAGIC_HI || magicLo != BLOCK_MAGIC_LO)
+				{
+					throw new IOException("bad block header");
+				}
+
+				int blockStart = outPos;
+				outPos = decodeBlock(out, outPos);
+
+				int blockCrc = crc(out, blockStart, outPos);
+				if (crc != blockCrc)
+				{
+					throw new IOException("block crc mismatch");
+				}
+				streamCrc = (streamCrc << 1 | streamCrc >>> 31) ^ blockCrc;
+			}
+
+			if (outPos != out.length)
+			{
+				throw new IOException("decompressed length " + outPos + " != " + out.length);
+			}
+		}
+		finally
+		{
+			this.in = null;
+		}
+	}
+
+	private int decodeBlock(byte[] out, int outPos) throws IOException
+	{
+		if (bit())
+		{
+			throw new IOException("randomised blocks are not supported");
+		}
+
+		int origPtr = bits(24);
+
+		readTables();
+
+		int nblock = readSymbols();
+		if (origPtr < 0 || origPtr >= nblock)
+		{
+			throw new IOException("bad origPtr");
+		}
+
+		// undo the BWT
+		final int[] tt = this.tt;
+		final int[] cftab = this.cftab;
+		cftab[0] = 0;
+		for (int i = 1; i <= 256; ++i)
+		{
+			cftab[i] = cftab[i - 1] + unzftab[i - 1];
+		}
+
+		for (int i = 0; i < nblock; ++i)
+		{
+			int uc = tt[i] & 0xFF;
+			tt[cftab[uc]++] |= i << 8;
+		}
+
+		// undo the initial run length encoding. Runs of 4 identical bytes
+		// are followed by a count of further repetitions
+		int tPos = tt[origPtr] >>> 8;
+		int last = -1;
+		int run = 0;
+		for (int i = 0; i < nblock; ++i)
+		{
+			tPos = tt[tPos];
+			int ch = tPos & 0xFF;
+			tPos >>>= 8;
+
+			if (run == 4)
+			{
+				if (outPos + ch > out.length)
+				{
+					throw new IOException("decompressed data is too long");
+				}
+
+				Arrays.fill(out, outPos, outPos + ch, (byte) last);
+				outPos += ch;
+				run = 0;
+				continue;
+			}
+
+			if (ch == last)
+			{
+				++run;
+			}
+			else
+			{
+				last = ch;
+				run = 1;
+			}
+
+			if (outPos >= out.length)
+			{
+				throw new IOException("decompressed data is too long");
+			}
+
+			out[outPos++] = (byte) ch;
+		}
+
+		return outPos;
+	}
+
+	private void readTables() throws IOException
+	{
+		// symbol map
+		int nInUse = 0;
+		int inUse16 = bits(16);
+		for (int i = 0; i < 16; ++i)
+		{
+			if ((inUse16 & (0x8000 >>> i)) != 0)
+			{
+				int inUse = bits(16);
+				for (int j = 0; j < 16; ++j)
+				{
+					if ((inUse & (0x8000 >>> j)) != 0)
+					{
+						seqToUnseq[nInUse++] = (byte) (i * 16 + j);
+					}
+				}
+			}
+		}
+
+		if (nInUse == 0)
+		{
+			throw new IOException("no symbols in use");
+		}
+
+		alphaSize = nInUse + 2;
+
+		// selectors
+		int nGroups = bits(3);
+		if (nGroups < MIN_GROUPS || nGroups > MAX_GROUPS)
+		{
+			throw new IOException("bad number of huffman groups");
+		}
+
+		nSelectors = bits(15);
+		if (nSelectors < 1)
+		{
+			throw new IOException("bad number of selectors");
+		}
+
+		for (int i = 0; i < nGroups; ++i)
+		{
+			groupPos[i] = (byte) i;
+		}
+
+		for (int i = 0; i < nSelectors; ++i)
+		{
+			int j = 0;
+			while (bit())
+			{
+				if (++j >= nGroups)
+				{
+					throw new IOException("bad selector");
+				}
+			}
+
+			// undo the move to front of the selector
+			byte v = groupPos[j];
+			for (; j > 0; --j)
+			{
+				groupPos[j] = groupPos[j - 1];
+			}
+			groupPos[0] = v;
+			selectors[i] = v;
+		}
+
+		// coding tables
+		for (int t = 0; t < nGroups; ++t)
+		{
+			int curr = bits(5);
+			int minLen = MAX_CODE_LEN;
+			int maxLen = 0;
+			for (int i = 0; i < alphaSize; ++i)
+			{
+				for (;;)
+				{
+					if (curr < 1 || curr > MAX_CODE_LEN)
+					{
+						throw new IOException("bad code length");
+					}
+
+					if (!bit())
+					{
+						break;
+					}
+
+					curr += bit() ? -1 : 1;
+				}
+
+				lengths[i] = (byte) curr;
+				minLen = Math.min(minLen, curr);
+				maxLen = Math.max(maxLen, curr);
+			}
+
+			createDecodeTables(t, minLen, maxLen);
+		}
+	}
+
+	private void createDecodeTables(int t, int minLen, int maxLen)
+	{
+		final int[] limit = this.limit[t];
+		final int[] base = this.base[t];
+		final int[] perm = this.perm[t];
+
+		int pp = 0;
+		for (int i = minLen; i <= maxLen; ++i)
+		{
+			for (int j = 0; j < alphaSize; ++j)
+			{
+				if (lengths[j] == i)
+				{
+					perm[pp++] = j;
+				}
+			}
+		}
+
+		Arrays.fill(base, 0);
+		for (int i = 0; i < alphaSize; ++i)
+		{
+			++base[lengths[i] + 1];
+		}
+
+		for (int i = 1; i < base.length; ++i)
+		{
+			base[i] += base[i - 1];
+		}
+
+		Arrays.fill(limit, 0);
+		int vec = 0;
+		for (int i = minLen; i <= maxLen; ++i)
+		{
+			vec += base[i + 1] - base[i];
+			limit[i] = vec - 1;
+			vec <<= 1;
+		}
+
+		for (int i = minLen + 1; i <= maxLen; ++i)
+		{
+			base[i] = ((limit[i - 1] + 1) << 1) - base[i];
+		}
+
+		minLens[t] = minLen;
+	}
+
+	/**
+	 * Read the huffman coded symbols of the block, undoing the move to
+	 * front and run length encoding of the symbols. The block bytes are
+	 * put into the low byte of tt.
+	 *
+	 * @return the block length
+	 */
+	private int readSymbols() throws IOException
+	{
+		final int[] tt = this.tt;
+		final int eob = alphaSize - 1;
+
+		Arrays.fill(unzftab, 0);
+		for (int i = 0; i < 256; ++i)
+		{
+			mtf[i] = (byte) i;
+		}
+
+		int groupNo = -1;
+		int groupRemaining = 0;
+		int[] limit = null;
+		int[] base = null;
+		int[] perm = null;
+		int minLen = 0;
+
+		int nblock = 0;
+		int runLength = 0;
+		int runWeight = 1;
+
+		for (;;)
+		{
+			if (groupRemaining == 0)
+			{
+				if (++groupNo >= nSelectors)
+				{
+					throw new IOException("ran out of selectors");
+				}
+
+				int group = selectors[groupNo];
+				limit = this.limit[group];
+				base = this.base[group];
+				perm = this.perm[group];
+				minLen = minLens[group];
+				groupRemaining = GROUP_SIZE;
+			}
+			--groupRemaining;
+
+			int zn = minLen;
+			int zvec = bits(zn);
+			while (zvec > limit[zn])
+			{
+				if (++zn > MAX_CODE_LEN)
+				{
+					throw new IOException("bad huffman code");
+				}
+				zvec = (zvec << 1) | (bit() ? 1 : 0);
+			}
+
+			int idx = zvec - base[zn];
+			if (idx < 0 || idx >= alphaSize)
+			{
+				throw new IOException("bad huffman code");
+			}
+			int sym = perm[idx];
+
+			if (sym == RUNA || sym == RUNB)
+			{
+				// runs of the front symbol are written in bijective base 2
+				if (runWeight > BLOCK_SIZE)
+				{
+					throw new IOException("run is too long");
+				}
+				runLength += (sym + 1) * runWeight;
+				runWeight <<= 1;
+				continue;
+			}
+
+			if (runLength > 0)
+			{
+				if (nblock + runLength > BLOCK_SIZE)
+				{
+					throw new IOException("block is too long");
+				}
+
+				int uc = seqToUnseq[mtf[0] & 0xFF] & 0xFF;
+				unzftab[uc] += runLength;
+				Arrays.fill(tt, nblock, nblock + runLength, uc);
+				nblock += runLength;
+				runLength = 0;
+				runWeight = 1;
+			}
+
+			if (sym == eob)
+			{
+				return nblock;
+			}
+
+			if (nblock >= BLOCK_SIZE)
+			{
+				throw new IOException("block is too long");
+			}
+
+			// move to front
+			int pos = sym - 1;
+			byte v = mtf[pos];
+			System.arraycopy(mtf, 0, mtf, 1, pos);
+			mtf[0] = v;
+
+			int uc = seqToUnseq[v & 0xFF] & 0xFF;
+			++unzftab[uc];
+			tt[nblock++] = uc;
+		}
+	}
+
+	private static int crc(byte[] b, int start, int end)
+	{
+		int crc = -1;
+		for (int i = start; i < end; ++i)
+		{
+			crc = (crc << 8) ^ CRC_TABLE[(crc >>> 24) ^ (b[i] & 0xFF)];
+		}
+		return ~crc;
+	}
+
+	private boolean bit() throws IOException
+	{
+		return bits(1) != 0;
+	}
+
+	private int bits(int n) throws IOException
+	{
+		while (bitCount < n)
+		{
+			if (inPos >= inEnd)
+			{
+				throw new IOException("unexpected end of compressed data");
+			}
+
+			bitBuffer = (bitBuffer << 8) | (in[inPos++] & 0xFF);
+			bitCount += 8;
+		}
+
+		bitCount -= n;
+		return (int) (bitBuffer >>> bitCount) & ((1 << n) - 1);
+	}
+}
@@ -30,8 +30,11 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
 import org.apache.commons.compress.utils.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,6 +43,17 @@ public class GZip
 {
 	private static final Logger logger = LoggerFactory.getLogger(GZip.class);
 
+	private static final int HEADER_LENGTH = 10;
+	private static final int TRAILER_LENGTH = 8;
+
+	private static final int FHCRC = 2;
+	private static final int FEXTRA = 4;
+	private static final int FNAME = 8;
+	private static final int FCOMMENT = 16;
+
+	private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(() -> new Inflater(true));
+	private static final ThreadLocal<CRC32> CRC = ThreadLocal.withInitial(CRC32::new);
+
 	public static byte[] compress(byte[] bytes) throws IOException
 	{
 		InputStream is = new ByteArrayInputStream(bytes);
@@ -64,4 +78,137 @@ public class GZip
 
 		return os.toByteArray();
 	}
+
+	/**
+	 * Decompress gzip data into out, using a per thread inflater.
+	 *
+	 * @param bytes
+	 * @param off offset of the gzip data
+	 * @param len length of the gzip data
+	 * @param out array to decompress into, which must be exactly the
+	 * length of the decompressed data
+	 * @throws IOException
+	 */
+	public static void decompress(byte[] bytes, int off, int len, byte[] out) throws IOException
+	{
+		final int end = off + len;
+		checkHeader(bytes, off, len);
+
+		int flags = bytes[off + 3];
+		int pos = off + HEADER_LENGTH;
+		if ((flags & FEXTRA) != 0)
+		{
+			pos += 2 + ((bytes[pos] & 0xFF) | (bytes[pos + 1] & 0xFF) << 8);
+		}
+		if ((flags & FNAME) != 0)
+		{
+			pos = skipString(bytes, pos, end);
+		}
+		if ((flags & FCOMMENT) != 0)
+		{
+			pos = skipString(bytes, pos, end);
+		}
+		if ((flags & FHCRC) != 0)
+		{
+			pos += 2;
+		}
+
+		int trailer = end - TRAILER_LENGTH;
+		if (pos > trailer)
+		{
+			throw new IOException("invalid gzip header");
+		}
+
+		Inflater inflater = INFLATER.get();
+		inflater.reset();
+		inflater.setInput(bytes, pos, trailer - pos);
+
+		int n = 0;
+		try
+		{
+			while (n < out.length)
+			{
+				int i = inflater.inflate(out, n, out.length - n);
+				if (i == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary()))
+				{
+					break;
+				}
+				n += i;
+			}
+		}
+		catch (DataFormatException ex)
+		{
+			throw new IOException(ex);
+		}
+
+		int size = readSize(bytes, off, len);
+		if (n != out.length || size != out.length)
+		{
+			throw new IOException("decompressed length " + size + " != " + out.length);
+		}
+
+		int crc = (bytes[trailer] & 0xFF)
+			| (bytes[trailer + 1] & 0xFF) << 8
+			| (bytes[trailer + 2] & 0xFF) << 16
+			| (bytes[trailer + 3] & 0xFF) << 24;
+		CRC32 crc32 = CRC.get();
+		crc32.reset();
+		crc32.update(out, 0, out.length);
+		if ((int) crc32.getValue() != crc)
+		{
+			throw new IOException("gzip crc mismatch");
+		}
+	}
+
+	/**
+	 * Check gzip data has a valid header, and that its trailer agrees
+	 * with the expected decompressed length
+	 *
+	 * @param bytes
+	 * @param off offset of the gzip data
+	 * @param len length of the gzip data
+	 * @param decompressedLength expected decompressed length
+	 * @throws IOException
+	 */
+	public static void validate(byte[] bytes, int off, int len, int decompressedLength) throws IOException
+	{
+		checkHeader(bytes, off, len);
+
+		int size = readSize(bytes, off, len);
+		if (size != decompressedLength)
+		{
+			throw new IOException("decompressed length " + size + " != " + decompressedLength);
+		}
+	}
+
+	private static void checkHeader(byte[] bytes, int off, int len) throws IOException
+	{
+		if (len < HEADER_LENGTH + TRAILER_LENGTH
+			|| (bytes[off] & 0xFF) != 0x1F || (bytes[off + 1] & 0xFF) != 0x8B
+			|| bytes[off + 2] != 8)
+		{
+			throw new IOException("invalid gzip header");
+		}
+	}
+
+	/**
+	 * Read the decompressed length, modulo 2^32, from the gzip trailer
+	 */
+	private static int readSize(byte[] bytes, int off, int len)
+	{
+		int pos = off + len - 4;
+		return (bytes[pos] & 0xFF)
+			| (bytes[pos + 1] & 0xFF) << 8
+			| (bytes[pos + 2] & 0xFF) << 16
+			| (bytes[pos + 3] & 0xFF) << 24;
+	}
+
+	private static int skipString(byte[] bytes, int pos, int end)
+	{
+		while (pos < end && bytes[pos] != 0)
+		{
+			++pos;
+		}
+		return pos + 1;
+	}
 }
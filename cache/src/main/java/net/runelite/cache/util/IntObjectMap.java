@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.util;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash map keyed by primitive ints. Lookups do not box
+ * the key. Null values are not permitted.
+ *
+ * @param <V> value type
+ */
+public class IntObjectMap<V>
+{
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private int[] keys;
+	private Object[] values;
+	private int size;
+
+	public IntObjectMap()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	public IntObjectMap(int expectedSize)
+	{
+		int capacity = Integer.highestOneBit(Math.max(expectedSize, 2) * 2 - 1) << 1;
+		keys = new int[capacity];
+		values = new Object[capacity];
+	}
+
+	private static int mix(int key)
+	{
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private int slot(int key)
+	{
+		int mask = keys.length - 1;
+		int i = mix(key) & mask;
+		while (values[i] != null && keys[i] != key)
+		{
+			i = (i + 1) & mask;
+		}
+		return i;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V get(int key)
+	{
+		return (V) values[slot(key)];
+	}
+
+	public boolean containsKey(int key)
+	{
+		return values[slot(key)] != null;
+	}
+
+	/**
+	 * Associates the value with the key.
+	 *
+	 * @param key
+	 * @param value
+	 * @return the previous value for the key, or null
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(int key, V value)
+	{
+		if (value == null)
+		{
+			throw new IllegalArgumentException("null value");
+		}
+
+		int i = slot(key);
+		V old = (V) values[i];
+		keys[i] = key;
+		values[i] = value;
+		if (old == null && ++size * 2 > keys.length)
+		{
+			rehash(keys.length << 1);
+		}
+		return old;
+	}
+
+	/**
+	 * Associates the value with the key if the key has no value.
+	 *
+	 * @param key
+	 * @param value
+	 * @return the existing value for the key, or null if the value was added
+	 */
+	@SuppressWarnings("unchecked")
+	public V putIfAbsent(int key, V value)
+	{
+		V existing = (V) values[slot(key)];
+		if (existing != null)
+		{
+			return existing;
+		}
+
+		put(key, value);
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V remove(int key)
+	{
+		int mask = keys.length - 1;
+		int i = slot(key);
+		V old = (V) values[i];
+		if (old == null)
+		{
+			return null;
+		}
+
+		// shift following entries of the probe sequence back into the hole
+		for (int j = (i + 1) & mask; values[j] != null; j = (j + 1) & mask)
+		{
+			int home = mix(keys[j]) & mask;
+			if (((j - home) & mask) >= ((j - i) & mask))
+			{
+				keys[i] = keys[j];
+				values[i] = values[j];
+				i = j;
+			}
+		}
+
+		values[i] = null;
+		--size;
+		return old;
+	}
+
+	public int size()
+	{
+		return size;
+	}
+
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	public void clear()
+	{
+		Arrays.fill(values, null);
+		size = 0;
+	}
+
+	private void rehash(int capacity)
+	{
+		int[] oldKeys = keys;
+		Object[] oldValues = values;
+
+		keys = new int[capacity];
+		values = new Object[capacity];
+
+		for (int i = 0; i < oldKeys.length; ++i)
+		{
+			if (oldValues[i] != null)
+			{
+				int j = slot(oldKeys[i]);
+				keys[j] = oldKeys[i];
+				values[j] = oldValues[i];
+			}
+		}
+	}
+}
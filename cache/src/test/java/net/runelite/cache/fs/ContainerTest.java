@@ -26,8 +26,10 @@ package net.runelite.cache.fs;
 
 import java.io.IOException;
 import java.util.Random;
+import static net.runelite.cache.fs.jagex.CompressionType.BZ2;
 import static net.runelite.cache.fs.jagex.CompressionType.GZ;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import org.junit.Test;
 
 public class ContainerTest
@@ -52,4 +54,42 @@ public class ContainerTest
 		assertArrayEquals(data, container.data);
 	}
 
+	@Test
+	public void testCompressBZip2MultipleBlocks() throws IOException
+	{
+		Random random = new Random(42L);
+		// larger than the 100k bzip2 block size, with runs for the run length encoding
+		byte[] data = new byte[250_000];
+		for (int i = 0; i < data.length; ++i)
+		{
+			data[i] = (byte) ((i / 7) % 13 + random.nextInt(2));
+		}
+
+		Container container = new Container(BZ2, 42);
+		container.compress(data, null);
+		byte[] compressedData = container.data;
+
+		container = Container.decompress(compressedData, null);
+		assertArrayEquals(data, container.data);
+		assertEquals(42, container.revision);
+	}
+
+	@Test(expected = IOException.class)
+	public void testDecompressWrongKeys() throws IOException
+	{
+		int[] keys = new int[]
+		{
+			4, 8, 15, 16
+		};
+		byte[] data = new byte[1024];
+		new Random(42L).nextBytes(data);
+
+		Container container = new Container(BZ2, -1);
+		container.compress(data, keys);
+
+		Container.decompress(container.data, new int[]
+		{
+			23, 42, 4, 8
+		});
+	}
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.fs;
+
+import java.io.IOException;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.region.RegionLoader;
+import net.runelite.cache.util.Djb2;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class IndexTest
+{
+	private static final Logger logger = LoggerFactory.getLogger(IndexTest.class);
+
+	private static final int MAX_REGION = 32768;
+
+	@Test
+	public void testLookup()
+	{
+		Index index = new Index(5);
+		Archive a1 = index.addArchive(1);
+		a1.setNameHash(Djb2.hash("m50_50"));
+		Archive a2 = index.addArchive(2);
+		a2.setNameHash(Djb2.hash("l50_50"));
+
+		assertSame(a1, index.getArchive(1));
+		assertSame(a2, index.getArchive(2));
+		assertNull(index.getArchive(3));
+
+		assertSame(a1, index.findArchiveByName("m50_50"));
+		assertSame(a2, index.findArchiveByName("l50_50"));
+		assertNull(index.findArchiveByName("m50_51"));
+
+		a1.setNameHash(Djb2.hash("m50_51"));
+		assertNull(index.findArchiveByName("m50_50"));
+		assertSame(a1, index.findArchiveByName("m50_51"));
+
+		index.removeArchive(a2);
+		assertNull(index.getArchive(2));
+		assertNull(index.findArchiveByName("l50_50"));
+	}
+
+	@Test
+	public void testDuplicateNameHash()
+	{
+		Index index = new Index(5);
+		Archive a1 = index.addArchive(1);
+		a1.setNameHash(42);
+		Archive a2 = index.addArchive(2);
+		a2.setNameHash(42);
+
+		// the first archive with the hash is found
+		assertSame(a1, index.findArchiveByNameHash(42));
+
+		index.removeArchive(a1);
+		assertSame(a2, index.findArchiveByNameHash(42));
+	}
+
+	@Test
+	@Ignore
+	public void timeRegionLookups() throws IOException
+	{
+		try (Store store = new Store(StoreLocation.LOCATION))
+		{
+			store.load();
+
+			Index index = store.getIndex(IndexType.MAPS);
+
+			long start = System.nanoTime();
+			int found = 0;
+			for (int i = 0; i < MAX_REGION; ++i)
+			{
+				int x = i >> 8;
+				int y = i & 0xFF;
+				if (findLinear(index, "m" + x + "_" + y) != null
+					&& findLinear(index, "l" + x + "_" + y) != null)
+				{
+					++found;
+				}
+			}
+			long linear = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			int found2 = 0;
+			for (int i = 0; i < MAX_REGION; ++i)
+			{
+				int x = i >> 8;
+				int y = i & 0xFF;
+				if (index.findArchiveByName("m" + x + "_" + y) != null
+					&& index.findArchiveByName("l" + x + "_" + y) != null)
+				{
+					++found2;
+				}
+			}
+			long hashed = System.nanoTime() - start;
+
+			logger.info("Found {}/{} regions, linear scan {}ms, hashed lookup {}ms",
+				found, found2, linear / 1_000_000L, hashed / 1_000_000L);
+
+			start = System.nanoTime();
+			RegionLoader regionLoader = new RegionLoader(store);
+			regionLoader.loadRegions();
+			logger.info("Loaded {} regions in {}ms",
+				regionLoader.getRegions().size(), (System.nanoTime() - start) / 1_000_000L);
+		}
+	}
+
+	private static Archive findLinear(Index index, String name)
+	{
+		int hash = Djb2.hash(name);
+		for (Archive a : index.getArchives())
+		{
+			if (a.getNameHash() == hash)
+			{
+				return a;
+			}
+		}
+		return null;
+	}
+}
@@ -26,7 +26,10 @@ package net.runelite.cache.fs;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import net.runelite.cache.StoreLocation;
 import net.runelite.cache.index.FileData;
 import org.junit.Assert;
@@ -148,4 +151,34 @@ public class StoreTest
 			}
 		}
 	}
+
+	@Test
+	public void testParallelLoad() throws IOException
+	{
+		List<Integer> sources = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_FILES; ++i)
+		{
+			sources.add(i);
+		}
+
+		List<Integer> results = new ArrayList<>();
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try (Store store = new Store(folder.getRoot()))
+		{
+			store.setPool(pool);
+			// results are passed to the consumer in source order, skipping nulls
+			store.load(sources, i -> i % 2 == 0 ? i * 2 : null, results::add);
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+
+		Assert.assertEquals(NUMBER_OF_FILES / 2, results.size());
+		for (int i = 0; i < results.size(); ++i)
+		{
+			Assert.assertEquals(i * 4, (int) results.get(i));
+		}
+	}
 }
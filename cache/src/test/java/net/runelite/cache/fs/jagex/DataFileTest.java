@@ -167,4 +167,26 @@ public class DataFileTest
 		Assert.assertEquals("testtesttesttest1", str);
 		Assert.assertEquals(42, res2.revision);
 	}
+
+	@Test
+	public void testMapped() throws IOException
+	{
+		byte[] b = new byte[4096];
+		for (int i = 0; i < b.length; ++i)
+		{
+			b[i] = (byte) i;
+		}
+
+		DataFile df = new DataFile(folder.newFile(), true);
+
+		DataFileWriteResult res = df.write(42, 3, b);
+		Assert.assertArrayEquals(b, df.read(42, 3, res.sector, res.compressedLength));
+
+		// writes past the end of the current mapping must be visible to later reads
+		DataFileWriteResult res2 = df.write(42, 0x1FFFF, b);
+		Assert.assertArrayEquals(b, df.read(42, 0x1FFFF, res2.sector, res2.compressedLength));
+		Assert.assertArrayEquals(b, df.read(42, 3, res.sector, res.compressedLength));
+
+		Assert.assertNull(df.read(41, 3, res.sector, res.compressedLength));
+	}
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import static org.junit.Assert.assertArrayEquals;
+import org.junit.Test;
+
+public class BZip2DecoderTest
+{
+	private static final String TEXT = "aaaaaaaaaaaabbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbb hello world\n";
+
+	/**
+	 * {@link #TEXT} compressed with bzip2 -1
+	 */
+	private static final byte[] BZIP2_TEXT = new byte[]
+	{
+		66, 90, 104, 49, 49, 65, 89, 38, 83, 89, -22, 122, -8, 28, 0, 0, 4, 113, -128, 0,
+		80, 0, 4, 64, 0, 54, 68, -112, -128, 32, 0, 49, 0, -48, 1, 89, 30, -102, 77, -96,
+		9, -124, 24, -122, 41, 85, -40, -26, 40, -47, 119, 36, 83, -123, 9, 14, -89, -81,
+		-127, -64
+	};
+
+	private static final int HEADER_LENGTH = 4;
+
+	@Test
+	public void testExternalBzip2() throws IOException
+	{
+		byte[] expected = TEXT.getBytes(StandardCharsets.US_ASCII);
+		byte[] out = new byte[expected.length];
+		new BZip2Decoder().decompress(BZIP2_TEXT, HEADER_LENGTH, BZIP2_TEXT.length - HEADER_LENGTH, out);
+		assertArrayEquals(expected, out);
+	}
+
+	@Test
+	public void testMultipleBlocks() throws IOException
+	{
+		byte[] data = data(250_000);
+		byte[] compressed = BZip2.compress(data);
+
+		byte[] out = new byte[data.length];
+		new BZip2Decoder().decompress(compressed, 0, compressed.length, out);
+		assertArrayEquals(data, out);
+	}
+
+	@Test(expected = IOException.class)
+	public void testTruncated() throws IOException
+	{
+		byte[] data = data(1000);
+		byte[] compressed = BZip2.compress(data);
+
+		new BZip2Decoder().decompress(compressed, 0, compressed.length - 10, new byte[data.length]);
+	}
+
+	@Test(expected = IOException.class)
+	public void testBadBlockCrc() throws IOException
+	{
+		byte[] data = data(1000);
+		byte[] compressed = BZip2.compress(data);
+		// the block crc follows the 6 byte block magic
+		compressed[6] ^= 1;
+
+		new BZip2Decoder().decompress(compressed, 0, compressed.length, new byte[data.length]);
+	}
+
+	@Test(expected = IOException.class)
+	public void testCorrupt() throws IOException
+	{
+		byte[] data = data(1000);
+		byte[] compressed = BZip2.compress(data);
+		compressed[compressed.length / 2] ^= 1;
+
+		new BZip2Decoder().decompress(compressed, 0, compressed.length, new byte[data.length]);
+	}
+
+	@Test(expected = IOException.class)
+	public void testWrongLength() throws IOException
+	{
+		byte[] data = data(1000);
+		byte[] compressed = BZip2.compress(data);
+
+		new BZip2Decoder().decompress(compressed, 0, compressed.length, new byte[data.length + 1]);
+	}
+
+	private static byte[] data(int length)
+	{
+		Random random = new Random(42L);
+		byte[] data = new byte[length];
+		for (int i = 0; i < data.length; ++i)
+		{
+			// runs for the run length encoding
+			data[i] = (byte) ((i / 7) % 13 + random.nextInt(2));
+		}
+		return data;
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import static org.junit.Assert.assertArrayEquals;
+import org.junit.Test;
+
+public class GZipTest
+{
+	private static final String TEXT = "aaaaaaaaaaaabbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbb hello world\n";
+
+	/**
+	 * {@link #TEXT} compressed with gzip, which includes the file name
+	 */
+	private static final byte[] GZIP_TEXT = new byte[]
+	{
+		31, -117, 8, 8, -28, -80, -44, 106, 0, 3, 116, 101, 115, 116, 46, 116, 120, 116, 0, 75,
+		76, 68, -128, 36, 2, 64, 33, 35, 53, 39, 39, 95, -95, 60, -65, 40, 39, -123, 11, 0,
+		-109, -103, -66, -35, 57, 0, 0, 0
+	};
+
+	@Test
+	public void testDecompress() throws IOException
+	{
+		byte[] data = new byte[4096];
+		new Random(42L).nextBytes(data);
+		byte[] compressed = GZip.compress(data);
+
+		// decompress from an offset, as is done for containers
+		byte[] buf = new byte[compressed.length + 5];
+		System.arraycopy(compressed, 0, buf, 5, compressed.length);
+
+		byte[] out = new byte[data.length];
+		GZip.decompress(buf, 5, compressed.length, out);
+		assertArrayEquals(data, out);
+	}
+
+	@Test
+	public void testExternalGzip() throws IOException
+	{
+		byte[] expected = TEXT.getBytes(StandardCharsets.US_ASCII);
+		byte[] out = new byte[expected.length];
+		GZip.decompress(GZIP_TEXT, 0, GZIP_TEXT.length, out);
+		assertArrayEquals(expected, out);
+	}
+
+	@Test(expected = IOException.class)
+	public void testBadCrc() throws IOException
+	{
+		byte[] data = TEXT.getBytes(StandardCharsets.US_ASCII);
+		byte[] compressed = GZip.compress(data);
+		// the crc is the first 4 bytes of the trailer
+		compressed[compressed.length - 8] ^= 1;
+
+		GZip.decompress(compressed, 0, compressed.length, new byte[data.length]);
+	}
+
+	@Test(expected = IOException.class)
+	public void testTruncated() throws IOException
+	{
+		byte[] data = TEXT.getBytes(StandardCharsets.US_ASCII);
+		byte[] compressed = GZip.compress(data);
+
+		GZip.decompress(compressed, 0, compressed.length - 10, new byte[data.length]);
+	}
+
+	@Test(expected = IOException.class)
+	public void testWrongLength() throws IOException
+	{
+		byte[] data = TEXT.getBytes(StandardCharsets.US_ASCII);
+		byte[] compressed = GZip.compress(data);
+
+		GZip.decompress(compressed, 0, compressed.length, new byte[data.length + 1]);
+	}
+}
@@ -24,6 +24,7 @@
  */
 package net.runelite.cache.util;
 
+import java.util.Arrays;
 import static org.junit.Assert.assertArrayEquals;
 import org.junit.Test;
 
@@ -52,4 +53,28 @@ public class XteaTest
 
 		assertArrayEquals(data, decData);
 	}
+
+	@Test
+	public void testInPlace()
+	{
+		byte[] data = "testtesttest1".getBytes();
+
+		int[] key = new int[]
+		{
+			4, 8, 15, 16
+		};
+		byte[] encrypted = new byte[]
+		{
+			121, -18, 48, 64, 120, -42, -113, 77, 116, 101, 115, 116, 49
+		};
+
+		byte[] buf = new byte[data.length + 2];
+		System.arraycopy(data, 0, buf, 1, data.length);
+
+		Xtea.encrypt(key, buf, 1, data.length);
+		assertArrayEquals(encrypted, Arrays.copyOfRange(buf, 1, 1 + data.length));
+
+		Xtea.decrypt(key, buf, 1, data.length);
+		assertArrayEquals(data, Arrays.copyOfRange(buf, 1, 1 + data.length));
+	}
 }
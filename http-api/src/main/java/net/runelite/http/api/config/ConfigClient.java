@@ -28,10 +28,15 @@ import com.google.gson.JsonParseException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import net.runelite.http.api.RuneLiteAPI;
-import okhttp3.Call;
-import okhttp3.Callback;
 import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.Request;
@@ -44,16 +49,49 @@ public class ConfigClient
 {
 	private static final Logger logger = LoggerFactory.getLogger(ConfigClient.class);
 
-	private static final MediaType TEXT_PLAIN = MediaType.parse("text/plain");
+	private static final MediaType JSON = MediaType.parse("application/json");
+
+	/**
+	 * how long to wait for more changes before sending them
+	 */
+	private static final long FLUSH_DELAY_MS = 500;
+
+	private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(r ->
+	{
+		Thread thread = new Thread(r, "Config Sync");
+		thread.setDaemon(true);
+		return thread;
+	});
 
 	private final UUID uuid;
 
+	/**
+	 * changes not yet sent, a null value unsets the key
+	 */
+	private final Map<String, String> pending = new LinkedHashMap<>();
+	private boolean flushScheduled;
+	/**
+	 * held while a batch is being sent
+	 */
+	private final Object flushLock = new Object();
+
+	private volatile String etag;
+
 	public ConfigClient(UUID uuid)
 	{
 		this.uuid = uuid;
 	}
 
-	public Configuration get() throws IOException
+	/**
+	 * Get the configuration
+	 *
+	 * @param etag the ETag of a configuration the caller already has, or
+	 * null
+	 * @return the configuration, or null if it has not changed from the
+	 * configuration with the given ETag
+	 * @throws IOException
+	 */
+	public Configuration get(String etag) throws IOException
 	{
 		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
 			.addPathSegment("config")
@@ -61,15 +99,33 @@ public class ConfigClient
 
 		logger.debug("Built URI: {}", url);
 
-		Request request = new Request.Builder()
+		Request.Builder builder = new Request.Builder()
 			.header(RuneLiteAPI.RUNELITE_AUTH, uuid.toString())
-			.url(url)
-			.build();
+			.url(url);
 
-		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+		if (etag != null)
 		{
+			builder.header("If-None-Match", etag);
+		}
+
+		try (Response response = RuneLiteAPI.CLIENT.newCall(builder.build()).execute())
+		{
+			if (response.code() == 304 && etag != null)
+			{
+				logger.debug("Configuration not modified");
+				this.etag = etag;
+				return null;
+			}
+
+			if (!response.isSuccessful())
+			{
+				throw new IOException("Unable to get configuration: " + response.code());
+			}
+
 			InputStream in = response.body().byteStream();
-			return RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), Configuration.class);
+			Configuration configuration = RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), Configuration.class);
+			this.etag = response.header("ETag");
+			return configuration;
 		}
 		catch (JsonParseException ex)
 		{
@@ -77,67 +133,93 @@ public class ConfigClient
 		}
 	}
 
-	public void set(String key, String value)
+	/**
+	 * Get the ETag of the configuration from the last call to {@link #get(String)}
+	 *
+	 * @return the ETag, or null if the server did not send one
+	 */
+	public String getEtag()
 	{
-		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
-			.addPathSegment("config")
-			.addPathSegment(key)
-			.build();
+		return etag;
+	}
 
-		logger.debug("Built URI: {}", url);
+	public synchronized void set(String key, String value)
+	{
+		pending.put(key, value);
+		scheduleFlush();
+	}
 
-		Request request = new Request.Builder()
-			.put(RequestBody.create(TEXT_PLAIN, value))
-			.header(RuneLiteAPI.RUNELITE_AUTH, uuid.toString())
-			.url(url)
-			.build();
+	public synchronized void unset(String key)
+	{
+		pending.put(key, null);
+		scheduleFlush();
+	}
 
-		RuneLiteAPI.CLIENT.newCall(request).enqueue(new Callback()
+	/**
+	 * send all pending changes now, waiting for them to be sent. Batches
+	 * are sent one at a time, so changes arrive in order.
+	 */
+	public void flush()
+	{
+		synchronized (flushLock)
 		{
-			@Override
-			public void onFailure(Call call, IOException e)
-			{
-				logger.warn("Unable to synchronize configuration item", e);
-			}
+			List<ConfigEntry> changes;
 
-			@Override
-			public void onResponse(Call call, Response response)
+			synchronized (this)
 			{
-				response.close();
-				logger.debug("Synchronized configuration value '{}' to '{}'", key, value);
+				flushScheduled = false;
+
+				if (pending.isEmpty())
+				{
+					return;
+				}
+
+				changes = new ArrayList<>(pending.size());
+				for (Map.Entry<String, String> entry : pending.entrySet())
+				{
+					ConfigEntry configEntry = new ConfigEntry();
+					configEntry.setKey(entry.getKey());
+					configEntry.setValue(entry.getValue());
+					changes.add(configEntry);
+				}
+				pending.clear();
 			}
-		});
-	}
 
-	public void unset(String key)
-	{
-		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
-			.addPathSegment("config")
-			.addPathSegment(key)
-			.build();
+			HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
+				.addPathSegment("config")
+				.build();
 
-		logger.debug("Built URI: {}", url);
+			logger.debug("Built URI: {}", url);
 
-		Request request = new Request.Builder()
-			.delete()
-			.header(RuneLiteAPI.RUNELITE_AUTH, uuid.toString())
-			.url(url)
-			.build();
+			Request request = new Request.Builder()
+				.patch(RequestBody.create(JSON, RuneLiteAPI.GSON.toJson(changes)))
+				.header(RuneLiteAPI.RUNELITE_AUTH, uuid.toString())
+				.url(url)
+				.build();
 
-		RuneLiteAPI.CLIENT.newCall(request).enqueue(new Callback()
-		{
-			@Override
-			public void onFailure(Call call, IOException e)
+			try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
 			{
-				logger.warn("Unable to unset configuration item", e);
-			}
+				if (!response.isSuccessful())
+				{
+					logger.warn("Unable to synchronize configuration: {}", response.code());
+					return;
+				}
 
-			@Override
-			public void onResponse(Call call, Response response)
+				logger.debug("Synchronized {} configuration changes", changes.size());
+			}
+			catch (IOException ex)
 			{
-				response.close();
-				logger.debug("Unset configuration value '{}'", key);
+				logger.warn("Unable to synchronize configuration", ex);
 			}
-		});
+		}
+	}
+
+	private void scheduleFlush()
+	{
+		if (!flushScheduled)
+		{
+			flushScheduled = true;
+			EXECUTOR.schedule(this::flush, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+		}
 	}
 }
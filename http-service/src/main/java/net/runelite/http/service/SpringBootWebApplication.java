@@ -44,7 +44,9 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.boot.web.support.SpringBootServletInitializer;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.sql2o.Sql2o;
 import org.sql2o.converters.Converter;
 import org.sql2o.quirks.NoQuirks;
@@ -54,6 +56,13 @@ import org.sql2o.quirks.NoQuirks;
 @Slf4j
 public class SpringBootWebApplication extends SpringBootServletInitializer
 {
+	/**
+	 * Number of threads for scheduled tasks. Some tasks, like the price
+	 * crawler, block on outbound requests and must not hold up the frequent
+	 * flush tasks.
+	 */
+	private static final int SCHEDULER_THREADS = 4;
+
 	@Bean
 	protected ServletContextListener listener()
 	{
@@ -91,6 +100,15 @@ public class SpringBootWebApplication extends SpringBootServletInitializer
 		};
 	}
 
+	@Bean
+	TaskScheduler taskScheduler()
+	{
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.setPoolSize(SCHEDULER_THREADS);
+		scheduler.setThreadNamePrefix("scheduler-");
+		return scheduler;
+	}
+
 	private Context getContext() throws NamingException
 	{
 		Context initCtx = new InitialContext();
@@ -24,16 +24,21 @@
  */
 package net.runelite.http.service.account;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.io.IOException;
 import net.runelite.http.service.account.beans.SessionEntry;
-import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import net.runelite.http.api.RuneLiteAPI;
+import net.runelite.http.service.util.TouchCoalescer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.sql2o.Connection;
 import org.sql2o.Sql2o;
@@ -43,10 +48,23 @@ public class AuthFilter
 {
 	private final Sql2o sql2o;
 
+	/**
+	 * sessions recently seen, so that most requests don't need to query
+	 * the database. Entries expire so sessions removed elsewhere are
+	 * eventually noticed.
+	 */
+	private final Cache<UUID, SessionEntry> sessionCache = CacheBuilder.newBuilder()
+		.maximumSize(10_000L)
+		.expireAfterWrite(1, TimeUnit.MINUTES)
+		.build();
+
+	private final TouchCoalescer lastUsed;
+
 	@Autowired
 	public AuthFilter(@Qualifier("Runelite SQL2O") Sql2o sql2o)
 	{
 		this.sql2o = sql2o;
+		this.lastUsed = new TouchCoalescer(sql2o, "update sessions set last_used = :time where uuid = :uuid");
 	}
 
 	public SessionEntry handle(HttpServletRequest request, HttpServletResponse response) throws IOException
@@ -60,11 +78,15 @@ public class AuthFilter
 
 		UUID uuid = UUID.fromString(runeliteAuth);
 
-		try (Connection con = sql2o.open())
+		SessionEntry sessionEntry = sessionCache.getIfPresent(uuid);
+		if (sessionEntry == null)
 		{
-			SessionEntry sessionEntry = con.createQuery("select user, uuid, created from sessions where uuid = :uuid")
-				.addParameter("uuid", uuid.toString())
-				.executeAndFetchFirst(SessionEntry.class);
+			try (Connection con = sql2o.open())
+			{
+				sessionEntry = con.createQuery("select user, uuid, created from sessions where uuid = :uuid")
+					.addParameter("uuid", uuid.toString())
+					.executeAndFetchFirst(SessionEntry.class);
+			}
 
 			if (sessionEntry == null)
 			{
@@ -72,17 +94,31 @@ public class AuthFilter
 				return null;
 			}
 
-			Instant now = Instant.now();
+			sessionCache.put(uuid, sessionEntry);
+		}
 
-			con.createQuery("update sessions set last_used = :last_used where uuid = :uuid")
-				.addParameter("last_used", Timestamp.from(now))
-				.addParameter("uuid", uuid.toString())
-				.executeUpdate();
+		Instant now = Instant.now();
+		lastUsed.touch(uuid, now);
+		sessionEntry.setLastUsed(now);
 
-			sessionEntry.setLastUsed(now);
+		return sessionEntry;
+	}
 
-			return sessionEntry;
-		}
+	/**
+	 * forget a session which has been removed from the database
+	 *
+	 * @param uuid
+	 */
+	public void invalidate(UUID uuid)
+	{
+		sessionCache.invalidate(uuid);
+		lastUsed.remove(uuid);
 	}
 
+	@Scheduled(fixedDelay = 10_000)
+	@PreDestroy
+	public void flush()
+	{
+		lastUsed.flush();
+	}
 }
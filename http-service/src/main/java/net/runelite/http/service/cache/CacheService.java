@@ -24,6 +24,9 @@
  */
 package net.runelite.http.service.cache;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.Iterables;
 import com.google.common.io.BaseEncoding;
 import com.google.common.io.ByteStreams;
@@ -41,17 +44,27 @@ import java.io.InputStream;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.cache.ConfigType;
 import net.runelite.cache.IndexType;
 import net.runelite.cache.definitions.ItemDefinition;
+import net.runelite.cache.definitions.NpcDefinition;
+import net.runelite.cache.definitions.ObjectDefinition;
+import net.runelite.cache.definitions.SpriteDefinition;
 import net.runelite.cache.definitions.loaders.ItemLoader;
+import net.runelite.cache.definitions.loaders.NpcLoader;
+import net.runelite.cache.definitions.loaders.ObjectLoader;
+import net.runelite.cache.definitions.loaders.SpriteLoader;
 import net.runelite.cache.fs.ArchiveFiles;
 import net.runelite.cache.fs.Container;
 import net.runelite.cache.fs.FSFile;
 import net.runelite.http.service.cache.beans.ArchiveEntry;
 import net.runelite.http.service.cache.beans.CacheEntry;
+import net.runelite.http.service.cache.beans.CacheStatsEntry;
 import net.runelite.http.service.cache.beans.FileEntry;
 import net.runelite.http.service.cache.beans.IndexEntry;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -68,6 +81,13 @@ import org.xmlpull.v1.XmlPullParserException;
 @Slf4j
 public class CacheService
 {
+	private static final long ARCHIVE_CACHE_WEIGHT = 64 * 1024 * 1024;
+	/**
+	 * total number of config definitions cached, across config types
+	 */
+	private static final long CONFIG_CACHE_WEIGHT = 100_000;
+	private static final long SPRITE_CACHE_WEIGHT = 32 * 1024 * 1024;
+
 	@Autowired
 	@Qualifier("Runelite Cache SQL2O")
 	private Sql2o sql2o;
@@ -77,6 +97,37 @@ public class CacheService
 
 	private final MinioClient minioClient;
 
+	/**
+	 * raw archive blobs, keyed by content hash
+	 */
+	private final Cache<String, byte[]> archiveCache = CacheBuilder.newBuilder()
+		.maximumWeight(ARCHIVE_CACHE_WEIGHT)
+		.<String, byte[]>weigher((hash, data) -> data.length)
+		.recordStats()
+		.build();
+
+	/**
+	 * decoded config definitions, keyed by cache, index and config type.
+	 * These are kept apart from sprites so that rendering many sprites can't
+	 * evict them.
+	 */
+	private final Cache<DefinitionKey, Map<Integer, ?>> configCache = CacheBuilder.newBuilder()
+		.maximumWeight(CONFIG_CACHE_WEIGHT)
+		.<DefinitionKey, Map<Integer, ?>>weigher((key, definitions) -> definitions.size())
+		.recordStats()
+		.build();
+
+	/**
+	 * decoded sprites, keyed by cache, index and sprite id
+	 */
+	private final Cache<DefinitionKey, SpriteDefinition[]> spriteCache = CacheBuilder.newBuilder()
+		.maximumWeight(SPRITE_CACHE_WEIGHT)
+		.<DefinitionKey, SpriteDefinition[]>weigher((key, sprites) -> spriteWeight(sprites))
+		.recordStats()
+		.build();
+
+	private volatile int mostRecentCacheId = -1;
+
 	@Autowired
 	public CacheService(
 		@Value("${minio.endpoint}") String minioEndpoint,
@@ -94,7 +145,8 @@ public class CacheService
 	}
 
 	/**
-	 * retrieve archive from storage
+	 * retrieve archive from storage. The returned data is shared with the
+	 * archive cache and must not be modified.
 	 *
 	 * @param archiveEntry
 	 * @return
@@ -102,6 +154,13 @@ public class CacheService
 	public byte[] getArchive(ArchiveEntry archiveEntry)
 	{
 		String hashStr = BaseEncoding.base16().encode(archiveEntry.getHash());
+
+		byte[] data = archiveCache.getIfPresent(hashStr);
+		if (data != null)
+		{
+			return data;
+		}
+
 		String path = new StringBuilder()
 			.append(hashStr.substring(0, 2))
 			.append('/')
@@ -110,7 +169,9 @@ public class CacheService
 
 		try (InputStream in = minioClient.getObject(minioBucket, path))
 		{
-			return ByteStreams.toByteArray(in);
+			data = ByteStreams.toByteArray(in);
+			archiveCache.put(hashStr, data);
+			return data;
 		}
 		catch (InvalidBucketNameException | NoSuchAlgorithmException | InsufficientDataException
 			| IOException | InvalidKeyException | NoResponseException | XmlPullParserException
@@ -178,7 +239,19 @@ public class CacheService
 		try (Connection con = sql2o.open())
 		{
 			CacheDAO cacheDao = new CacheDAO();
-			return cacheDao.findMostRecent(con);
+			CacheEntry cache = cacheDao.findMostRecent(con);
+			if (cache != null && cache.getId() != mostRecentCacheId)
+			{
+				// a new cache was uploaded, definitions of the old one are no longer served
+				if (mostRecentCacheId != -1)
+				{
+					log.info("Most recent cache changed from {} to {}, invalidating definitions", mostRecentCacheId, cache.getId());
+					configCache.invalidateAll();
+					spriteCache.invalidateAll();
+				}
+				mostRecentCacheId = cache.getId();
+			}
+			return cache;
 		}
 	}
 
@@ -231,18 +304,232 @@ public class CacheService
 	}
 
 	public List<ItemDefinition> getItems() throws IOException
+	{
+		Map<Integer, ItemDefinition> items = getConfig(ConfigType.ITEM, new ItemLoader()::load);
+		if (items == null)
+		{
+			return Collections.emptyList();
+		}
+		return new ArrayList<>(items.values());
+	}
+
+	/**
+	 * get an item definition from the most recent cache. Definitions are
+	 * shared between requests and must not be modified, use
+	 * {@link #loadItem(int)} for a private copy.
+	 *
+	 * @param itemId
+	 * @return
+	 * @throws IOException
+	 */
+	public ItemDefinition getItem(int itemId) throws IOException
+	{
+		Map<Integer, ItemDefinition> items = getConfig(ConfigType.ITEM, new ItemLoader()::load);
+		return items != null ? items.get(itemId) : null;
+	}
+
+	/**
+	 * decode a new, unshared, item definition from the most recent cache
+	 *
+	 * @param itemId
+	 * @return
+	 * @throws IOException
+	 */
+	public ItemDefinition loadItem(int itemId) throws IOException
+	{
+		ArchiveFiles archiveFiles = getConfigFiles(findMostRecent(), ConfigType.ITEM);
+		if (archiveFiles == null)
+		{
+			return null;
+		}
+
+		FSFile file = archiveFiles.findFile(itemId);
+		if (file == null)
+		{
+			return null;
+		}
+
+		return new ItemLoader().load(itemId, file.getContents());
+	}
+
+	/**
+	 * get an object definition from the most recent cache. The definition is
+	 * shared between requests and must not be modified.
+	 *
+	 * @param objectId
+	 * @return
+	 * @throws IOException
+	 */
+	public ObjectDefinition getObject(int objectId) throws IOException
+	{
+		Map<Integer, ObjectDefinition> objects = getConfig(ConfigType.OBJECT, new ObjectLoader()::load);
+		return objects != null ? objects.get(objectId) : null;
+	}
+
+	/**
+	 * get an npc definition from the most recent cache. The definition is
+	 * shared between requests and must not be modified.
+	 *
+	 * @param npcId
+	 * @return
+	 * @throws IOException
+	 */
+	public NpcDefinition getNpc(int npcId) throws IOException
+	{
+		Map<Integer, NpcDefinition> npcs = getConfig(ConfigType.NPC, new NpcLoader()::load);
+		return npcs != null ? npcs.get(npcId) : null;
+	}
+
+	/**
+	 * get the frames of a sprite from the most recent cache. The frames are
+	 * shared with other callers and must not be modified.
+	 *
+	 * @param spriteId
+	 * @return the sprite frames, or null if the sprite does not exist
+	 * @throws IOException
+	 */
+	public SpriteDefinition[] getSprites(int spriteId) throws IOException
 	{
 		CacheEntry cache = findMostRecent();
-		IndexEntry indexEntry = findIndexForCache(cache, IndexType.CONFIGS.getNumber());
-		ArchiveEntry archiveEntry = findArchiveForIndex(indexEntry, ConfigType.ITEM.getId());
+		if (cache == null)
+		{
+			return null;
+		}
+
+		DefinitionKey key = new DefinitionKey(cache.getId(), IndexType.SPRITES.getNumber(), spriteId);
+		SpriteDefinition[] sprites = spriteCache.getIfPresent(key);
+		if (sprites != null)
+		{
+			return sprites.clone();
+		}
+
+		IndexEntry indexEntry = findIndexForCache(cache, IndexType.SPRITES.getNumber());
+		if (indexEntry == null)
+		{
+			return null;
+		}
+
+		ArchiveEntry archiveEntry = findArchiveForIndex(indexEntry, spriteId);
+		if (archiveEntry == null)
+		{
+			return null;
+		}
+
 		ArchiveFiles archiveFiles = getArchiveFiles(archiveEntry);
-		final ItemLoader itemLoader = new ItemLoader();
-		final List<ItemDefinition> result = new ArrayList<>(archiveFiles.getFiles().size());
+		if (archiveFiles == null)
+		{
+			return null;
+		}
+
+		FSFile file = archiveFiles.getFiles().get(0);
+		sprites = new SpriteLoader().load(spriteId, file.getContents());
+		spriteCache.put(key, sprites);
+		return sprites.clone();
+	}
+
+	/**
+	 * Approximate size of decoded sprite frames, in bytes
+	 */
+	private static int spriteWeight(SpriteDefinition[] sprites)
+	{
+		int weight = 0;
+		for (SpriteDefinition sprite : sprites)
+		{
+			if (sprite.getPixels() != null)
+			{
+				weight += sprite.getPixels().length * Integer.BYTES;
+			}
+			if (sprite.pixelIdx != null)
+			{
+				weight += sprite.pixelIdx.length;
+			}
+			if (sprite.palette != null)
+			{
+				weight += sprite.palette.length * Integer.BYTES;
+			}
+		}
+		return weight;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> Map<Integer, T> getConfig(ConfigType configType, DefinitionLoader<T> loader) throws IOException
+	{
+		CacheEntry cache = findMostRecent();
+		if (cache == null)
+		{
+			return null;
+		}
+
+		DefinitionKey key = new DefinitionKey(cache.getId(), IndexType.CONFIGS.getNumber(), configType.getId());
+		Map<Integer, T> definitions = (Map<Integer, T>) configCache.getIfPresent(key);
+		if (definitions != null)
+		{
+			return definitions;
+		}
+
+		ArchiveFiles archiveFiles = getConfigFiles(cache, configType);
+		if (archiveFiles == null)
+		{
+			return null;
+		}
+
+		definitions = new LinkedHashMap<>(archiveFiles.getFiles().size());
 		for (FSFile file : archiveFiles.getFiles())
 		{
-			ItemDefinition itemDef = itemLoader.load(file.getFileId(), file.getContents());
-			result.add(itemDef);
+			definitions.put(file.getFileId(), loader.load(file.getFileId(), file.getContents()));
+		}
+		definitions = Collections.unmodifiableMap(definitions);
+		configCache.put(key, definitions);
+		return definitions;
+	}
+
+	private ArchiveFiles getConfigFiles(CacheEntry cache, ConfigType configType) throws IOException
+	{
+		if (cache == null)
+		{
+			return null;
+		}
+
+		IndexEntry indexEntry = findIndexForCache(cache, IndexType.CONFIGS.getNumber());
+		if (indexEntry == null)
+		{
+			return null;
 		}
-		return result;
+
+		ArchiveEntry archiveEntry = findArchiveForIndex(indexEntry, configType.getId());
+		if (archiveEntry == null)
+		{
+			return null;
+		}
+
+		return getArchiveFiles(archiveEntry);
+	}
+
+	public List<CacheStatsEntry> getStats()
+	{
+		List<CacheStatsEntry> stats = new ArrayList<>(3);
+		stats.add(toStatsEntry("archives", archiveCache));
+		stats.add(toStatsEntry("configs", configCache));
+		stats.add(toStatsEntry("sprites", spriteCache));
+		return stats;
+	}
+
+	private static CacheStatsEntry toStatsEntry(String name, Cache<?, ?> cache)
+	{
+		CacheStats stats = cache.stats();
+		CacheStatsEntry entry = new CacheStatsEntry();
+		entry.setName(name);
+		entry.setSize(cache.size());
+		entry.setHitCount(stats.hitCount());
+		entry.setMissCount(stats.missCount());
+		entry.setEvictionCount(stats.evictionCount());
+		entry.setHitRate(stats.hitRate());
+		return entry;
+	}
+
+	@FunctionalInterface
+	private interface DefinitionLoader<T>
+	{
+		T load(int id, byte[] data);
 	}
 }
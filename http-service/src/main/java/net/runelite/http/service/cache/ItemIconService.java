@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.cache;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.definitions.ItemDefinition;
+import net.runelite.cache.definitions.ModelDefinition;
+import net.runelite.cache.definitions.SpriteDefinition;
+import net.runelite.cache.definitions.TextureDefinition;
+import net.runelite.cache.definitions.loaders.ModelLoader;
+import net.runelite.cache.definitions.loaders.TextureLoader;
+import net.runelite.cache.definitions.providers.ItemProvider;
+import net.runelite.cache.definitions.providers.ModelProvider;
+import net.runelite.cache.definitions.providers.SpriteProvider;
+import net.runelite.cache.definitions.providers.TextureProvider;
+import net.runelite.cache.fs.ArchiveFiles;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.FSFile;
+import net.runelite.cache.item.ItemSpriteFactory;
+import net.runelite.http.service.cache.beans.ArchiveEntry;
+import net.runelite.http.service.cache.beans.CacheEntry;
+import net.runelite.http.service.cache.beans.IndexEntry;
+import net.runelite.http.service.util.CachedPng;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Renders item icons and keeps the encoded images for the most recent cache
+ */
+@Service
+@Slf4j
+public class ItemIconService
+{
+	public static final int DEFAULT_QUANTITY = 1;
+	public static final int DEFAULT_BORDER = 1;
+	public static final int DEFAULT_SHADOW_COLOR = 3153952;
+
+	private static final long ICON_CACHE_WEIGHT = 64 * 1024 * 1024;
+
+	private final CacheService cacheService;
+
+	private final Cache<ItemIconKey, CachedPng> iconCache = CacheBuilder.newBuilder()
+		.maximumWeight(ICON_CACHE_WEIGHT)
+		.<ItemIconKey, CachedPng>weigher((key, png) -> png.getData().length)
+		.recordStats()
+		.build();
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+		new ThreadFactoryBuilder()
+			.setNameFormat("item-icon-render-%d")
+			.setDaemon(true)
+			.build());
+
+	private volatile int prerenderedCacheId = -1;
+
+	@Autowired
+	public ItemIconService(CacheService cacheService)
+	{
+		this.cacheService = cacheService;
+	}
+
+	/**
+	 * get the icon of an item in the most recent cache
+	 *
+	 * @param itemId
+	 * @param quantity
+	 * @param border
+	 * @param shadowColor
+	 * @return the icon, or null if the item has no icon
+	 * @throws IOException
+	 */
+	public CachedPng getItemIcon(int itemId, int quantity, int border, int shadowColor) throws IOException
+	{
+		CacheEntry cache = cacheService.findMostRecent();
+		if (cache == null)
+		{
+			return null;
+		}
+
+		ItemIconKey key = new ItemIconKey(cache.getId(), itemId, quantity, border, shadowColor);
+		CachedPng png = iconCache.getIfPresent(key);
+		if (png != null)
+		{
+			return png;
+		}
+
+		png = render(cache, key);
+		if (png != null)
+		{
+			iconCache.put(key, png);
+		}
+		return png;
+	}
+
+	/**
+	 * render the default icon of every item when a new cache is seen
+	 *
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	@Scheduled(fixedDelay = 600_000) // 10 minutes
+	public void prerender() throws IOException, InterruptedException
+	{
+		CacheEntry cache = cacheService.findMostRecent();
+		if (cache == null || cache.getId() == prerenderedCacheId)
+		{
+			return;
+		}
+
+		final int cacheId = cache.getId();
+		iconCache.asMap().keySet().removeIf(key -> key.getCacheId() != cacheId);
+
+		List<ItemDefinition> items = cacheService.getItems();
+		log.info("Prerendering {} item icons for cache {}", items.size(), cacheId);
+
+		Stopwatch stopwatch = Stopwatch.createStarted();
+		AtomicInteger failed = new AtomicInteger();
+		List<Callable<Void>> tasks = new ArrayList<>(items.size());
+		for (ItemDefinition item : items)
+		{
+			ItemIconKey key = new ItemIconKey(cacheId, item.id, DEFAULT_QUANTITY, DEFAULT_BORDER, DEFAULT_SHADOW_COLOR);
+			tasks.add(() ->
+			{
+				try
+				{
+					if (iconCache.getIfPresent(key) == null)
+					{
+						CachedPng png = render(cache, key);
+						if (png != null)
+						{
+							iconCache.put(key, png);
+						}
+					}
+				}
+				catch (Exception ex)
+				{
+					log.debug("unable to render item {}", key.getItemId(), ex);
+					failed.incrementAndGet();
+				}
+				return null;
+			});
+		}
+
+		executor.invokeAll(tasks);
+		prerenderedCacheId = cacheId;
+
+		log.info("Prerendered {} item icons for cache {} in {} ({} failed)",
+			items.size(), cacheId, stopwatch, failed.get());
+	}
+
+	@PreDestroy
+	public void close()
+	{
+		executor.shutdownNow();
+	}
+
+	private CachedPng render(CacheEntry cache, ItemIconKey key) throws IOException
+	{
+		if (cacheService.getItem(key.getItemId()) == null)
+		{
+			return null;
+		}
+
+		ItemProvider itemProvider = new ItemProvider()
+		{
+			@Override
+			public ItemDefinition provide(int itemId)
+			{
+				try
+				{
+					// noted items are updated in place by the sprite factory
+					ItemDefinition item = cacheService.getItem(itemId);
+					return item != null && item.notedTemplate != -1 ? cacheService.loadItem(itemId) : item;
+				}
+				catch (IOException ex)
+				{
+					log.warn(null, ex);
+					return null;
+				}
+			}
+		};
+		ModelProvider modelProvider = new ModelProvider()
+		{
+			@Override
+			public ModelDefinition provide(int modelId) throws IOException
+			{
+				IndexEntry indexEntry = cacheService.findIndexForCache(cache, IndexType.MODELS.getNumber());
+				ArchiveEntry archiveEntry = cacheService.findArchiveForIndex(indexEntry, modelId);
+				byte[] archiveData = Container.decompress(cacheService.getArchive(archiveEntry), null).data;
+				return new ModelLoader().load(modelId, archiveData);
+			}
+		};
+		SpriteProvider spriteProvider = new SpriteProvider()
+		{
+			@Override
+			public SpriteDefinition provide(int spriteId, int frameId)
+			{
+				try
+				{
+					SpriteDefinition[] defs = cacheService.getSprites(spriteId);
+					return defs[frameId];
+				}
+				catch (Exception ex)
+				{
+					log.warn(null, ex);
+					return null;
+				}
+			}
+		};
+
+		TextureProvider textureProvider2 = new TextureProvider()
+		{
+			@Override
+			public TextureDefinition[] provide()
+			{
+				try
+				{
+					IndexEntry indexEntry = cacheService.findIndexForCache(cache, IndexType.TEXTURES.getNumber());
+					ArchiveEntry archiveEntry = cacheService.findArchiveForIndex(indexEntry, 0);
+					ArchiveFiles archiveFiles = cacheService.getArchiveFiles(archiveEntry);
+					TextureLoader loader = new TextureLoader();
+					TextureDefinition[] defs = new TextureDefinition[archiveFiles.getFiles().size()];
+					int i = 0;
+					for (FSFile file : archiveFiles.getFiles())
+					{
+						TextureDefinition def = loader.load(file.getFileId(), file.getContents());
+						defs[i++] = def;
+					}
+					return defs;
+				}
+				catch (Exception ex)
+				{
+					log.warn(null, ex);
+					return null;
+				}
+			}
+		};
+
+		BufferedImage itemImage = ItemSpriteFactory.createSprite(itemProvider, modelProvider, spriteProvider, textureProvider2,
+			key.getItemId(), key.getQuantity(), key.getBorder(), key.getShadowColor(), false);
+		if (itemImage == null)
+		{
+			return null;
+		}
+
+		ByteArrayOutputStream bao = new ByteArrayOutputStream();
+		ImageIO.write(itemImage, "png", bao);
+		return CachedPng.of(bao.toByteArray());
+	}
+}
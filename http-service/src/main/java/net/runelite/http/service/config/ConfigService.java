@@ -24,8 +24,17 @@
  */
 package net.runelite.http.service.config;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import net.runelite.http.api.config.ConfigEntry;
@@ -34,13 +43,19 @@ import net.runelite.http.service.account.AuthFilter;
 import net.runelite.http.service.account.beans.SessionEntry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import static org.springframework.web.bind.annotation.RequestMethod.DELETE;
+import static org.springframework.web.bind.annotation.RequestMethod.PATCH;
 import static org.springframework.web.bind.annotation.RequestMethod.PUT;
 import org.springframework.web.bind.annotation.RestController;
 import org.sql2o.Connection;
+import org.sql2o.Query;
 import org.sql2o.Sql2o;
 import org.sql2o.Sql2oException;
 
@@ -58,9 +73,25 @@ public class ConfigService
 	private static final String CONFIG_FK = "ALTER TABLE `config`\n"
 		+ "  ADD CONSTRAINT `user_fk` FOREIGN KEY (`user`) REFERENCES `users` (`id`) ON DELETE CASCADE ON UPDATE CASCADE;";
 
+	private static final int GENERATION_STRIPES = 1024;
+
 	private final Sql2o sql2o;
 	private final AuthFilter auth;
 
+	/**
+	 * configuration of recently seen users, invalidated when changed
+	 */
+	private final Cache<Integer, UserConfig> configCache = CacheBuilder.newBuilder()
+		.maximumSize(4096L)
+		.expireAfterWrite(10, TimeUnit.MINUTES)
+		.build();
+
+	/**
+	 * bumped before users' configuration is changed, striped by user, so a
+	 * read which overlaps a change isn't cached
+	 */
+	private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
 	@Autowired
 	public ConfigService(
 		@Qualifier("Runelite SQL2O") Sql2o sql2o,
@@ -88,7 +119,11 @@ public class ConfigService
 	}
 
 	@RequestMapping
-	public Configuration get(HttpServletRequest request, HttpServletResponse response) throws IOException
+	public ResponseEntity<Configuration> get(
+		HttpServletRequest request,
+		HttpServletResponse response,
+		@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+	) throws IOException
 	{
 		SessionEntry session = auth.handle(request, response);
 
@@ -97,16 +132,98 @@ public class ConfigService
 			return null;
 		}
 
-		List<ConfigEntry> config;
+		UserConfig userConfig = configCache.getIfPresent(session.getUser());
+		if (userConfig == null)
+		{
+			long generation = generations.get(stripe(session.getUser()));
+			List<ConfigEntry> config;
 
-		try (Connection con = sql2o.open())
+			try (Connection con = sql2o.open())
+			{
+				config = con.createQuery("select `key`, value from config where user = :user")
+					.addParameter("user", session.getUser())
+					.executeAndFetch(ConfigEntry.class);
+			}
+
+			userConfig = new UserConfig(config);
+
+			// a change may have been committed after the read, which must not be cached
+			if (generations.get(stripe(session.getUser())) == generation)
+			{
+				configCache.put(session.getUser(), userConfig);
+			}
+		}
+
+		if (userConfig.etag.equals(ifNoneMatch))
 		{
-			config = con.createQuery("select `key`, value from config where user = :user")
-				.addParameter("user", session.getUser())
-				.executeAndFetch(ConfigEntry.class);
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+				.eTag(userConfig.etag)
+				.build();
 		}
 
-		return new Configuration(config);
+		return ResponseEntity.ok()
+			.eTag(userConfig.etag)
+			.body(new Configuration(userConfig.config));
+	}
+
+	/**
+	 * apply many changes in one transaction. Entries without a value are
+	 * removed.
+	 */
+	@RequestMapping(method = PATCH)
+	public void patch(
+		HttpServletRequest request,
+		HttpServletResponse response,
+		@RequestBody List<ConfigEntry> changes
+	) throws IOException
+	{
+		SessionEntry session = auth.handle(request, response);
+
+		if (session == null)
+		{
+			return;
+		}
+
+		changing(session.getUser());
+
+		try (Connection con = sql2o.beginTransaction())
+		{
+			Query set = con.createQuery("insert into config (user, `key`, value) values (:user, :key, :value) on duplicate key update `key` = :key, value = :value");
+			Query unset = con.createQuery("delete from config where user = :user and `key` = :key");
+			boolean sets = false;
+			boolean unsets = false;
+
+			for (ConfigEntry entry : changes)
+			{
+				if (entry.getValue() != null)
+				{
+					set.addParameter("user", session.getUser())
+						.addParameter("key", entry.getKey())
+						.addParameter("value", entry.getValue())
+						.addToBatch();
+					sets = true;
+				}
+				else
+				{
+					unset.addParameter("user", session.getUser())
+						.addParameter("key", entry.getKey())
+						.addToBatch();
+					unsets = true;
+				}
+			}
+
+			if (sets)
+			{
+				set.executeBatch();
+			}
+			if (unsets)
+			{
+				unset.executeBatch();
+			}
+			con.commit(false);
+		}
+
+		configCache.invalidate(session.getUser());
 	}
 
 	@RequestMapping(path = "/{key:.+}", method = PUT)
@@ -124,6 +241,8 @@ public class ConfigService
 			return;
 		}
 
+		changing(session.getUser());
+
 		try (Connection con = sql2o.open())
 		{
 			con.createQuery("insert into config (user, `key`, value) values (:user, :key, :value) on duplicate key update `key` = :key, value = :value")
@@ -132,6 +251,8 @@ public class ConfigService
 				.addParameter("value", value != null ? value : "")
 				.executeUpdate();
 		}
+
+		configCache.invalidate(session.getUser());
 	}
 
 	@RequestMapping(path = "/{key:.+}", method = DELETE)
@@ -148,6 +269,8 @@ public class ConfigService
 			return;
 		}
 
+		changing(session.getUser());
+
 		try (Connection con = sql2o.open())
 		{
 			con.createQuery("delete from config where user = :user and `key` = :key")
@@ -155,5 +278,42 @@ public class ConfigService
 				.addParameter("key", key)
 				.executeUpdate();
 		}
+
+		configCache.invalidate(session.getUser());
+	}
+
+	/**
+	 * mark a user's configuration as about to change, before it is written
+	 */
+	private void changing(int user)
+	{
+		generations.incrementAndGet(stripe(user));
+	}
+
+	private static int stripe(int user)
+	{
+		return Math.floorMod(user, GENERATION_STRIPES);
+	}
+
+	private static class UserConfig
+	{
+		private final List<ConfigEntry> config;
+		private final String etag;
+
+		UserConfig(List<ConfigEntry> config)
+		{
+			this.config = Collections.unmodifiableList(config);
+
+			// hash the entries in key order, so the etag only changes with the configuration
+			Hasher hasher = Hashing.sha256().newHasher();
+			config.stream()
+				.sorted(Comparator.comparing(ConfigEntry::getKey))
+				.forEach(entry -> hasher
+					.putString(entry.getKey(), StandardCharsets.UTF_8)
+					.putByte((byte) 0)
+					.putString(entry.getValue(), StandardCharsets.UTF_8)
+					.putByte((byte) 0));
+			this.etag = '"' + hasher.hash().toString() + '"';
+		}
 	}
 }
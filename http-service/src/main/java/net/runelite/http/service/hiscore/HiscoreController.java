@@ -24,7 +24,7 @@
  */
 package net.runelite.http.service.hiscore;
 
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
 import net.runelite.http.api.hiscore.HiscoreEndpoint;
 import net.runelite.http.api.hiscore.HiscoreResult;
 import net.runelite.http.api.hiscore.HiscoreSkill;
@@ -51,40 +51,48 @@ public class HiscoreController
 	private XpTrackerService xpTrackerService;
 
 	@RequestMapping("/{endpoint}")
-	public HiscoreResult lookup(@PathVariable HiscoreEndpoint endpoint, @RequestParam String username) throws ExecutionException
+	public CompletableFuture<HiscoreResult> lookup(@PathVariable HiscoreEndpoint endpoint, @RequestParam String username)
 	{
-		HiscoreResult result = hiscoreService.lookupUsername(username, endpoint);
+		CompletableFuture<HiscoreResult> lookup = hiscoreService.lookupUsernameAsync(username, endpoint);
 
-		// Submit to xp tracker?
+		// Submit to xp tracker? This is a separate stage which isn't returned,
+		// so the tracker can't delay or fail the lookup
 		switch (endpoint)
 		{
 			case NORMAL:
 			case IRONMAN:
 			case ULTIMATE_IRONMAN:
 			case HARDCORE_IRONMAN:
-				xpTrackerService.update(username, result);
+				lookup.thenAccept(result ->
+				{
+					if (result != null)
+					{
+						xpTrackerService.submit(username, result);
+					}
+				});
 		}
 
-		return result;
+		return lookup;
 	}
 
 	@RequestMapping("/{endpoint}/{skillName}")
-	public SingleHiscoreSkillResult singleSkillLookup(@PathVariable HiscoreEndpoint endpoint, @PathVariable String skillName, @RequestParam String username) throws ExecutionException
+	public CompletableFuture<SingleHiscoreSkillResult> singleSkillLookup(@PathVariable HiscoreEndpoint endpoint, @PathVariable String skillName, @RequestParam String username)
 	{
 		HiscoreSkill skill = HiscoreSkill.valueOf(skillName.toUpperCase());
 
 		// RS api only supports looking up all stats
-		HiscoreResult result = hiscoreService.lookupUsername(username, endpoint);
-
-		// Find the skill to return
-		Skill requested = result.getSkill(skill);
+		return hiscoreService.lookupUsernameAsync(username, endpoint).thenApply(result ->
+		{
+			// Find the skill to return
+			Skill requested = result.getSkill(skill);
 
-		SingleHiscoreSkillResult skillResult = new SingleHiscoreSkillResult();
-		skillResult.setPlayer(username);
-		skillResult.setSkillName(skillName);
-		skillResult.setSkill(requested);
+			SingleHiscoreSkillResult skillResult = new SingleHiscoreSkillResult();
+			skillResult.setPlayer(username);
+			skillResult.setSkillName(skillName);
+			skillResult.setSkill(requested);
 
-		return skillResult;
+			return skillResult;
+		});
 	}
 
 	@InitBinder
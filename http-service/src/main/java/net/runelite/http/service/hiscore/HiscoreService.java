@@ -25,16 +25,27 @@
 package net.runelite.http.service.hiscore;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.http.api.hiscore.HiscoreClient;
 import net.runelite.http.api.hiscore.HiscoreEndpoint;
 import net.runelite.http.api.hiscore.HiscoreResult;
+import net.runelite.http.service.util.exception.NotFoundException;
 import okhttp3.HttpUrl;
 import org.springframework.stereotype.Service;
 
@@ -42,19 +53,39 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class HiscoreService
 {
+	/**
+	 * results younger than this are served without refreshing
+	 */
+	private static final Duration FRESH_TIME = Duration.ofMinutes(1);
+
+	/**
+	 * results older than {@link #FRESH_TIME} are still served while being
+	 * refreshed in the background, up until this age
+	 */
+	private static final long STALE_MINUTES = 10;
+
+	private static final int MAX_CONCURRENT_LOOKUPS = 8;
+	private static final int MAX_QUEUED_LOOKUPS = 256;
+
 	private final HiscoreClient hiscoreClient = new HiscoreClient();
-	private final LoadingCache<HiscoreKey, HiscoreResult> hiscoreCache = CacheBuilder.newBuilder()
-		.maximumSize(128)
-		.expireAfterWrite(1, TimeUnit.MINUTES)
-		.build(
-			new CacheLoader<HiscoreKey, HiscoreResult>()
-			{
-				@Override
-				public HiscoreResult load(HiscoreKey key) throws IOException
-				{
-					return hiscoreClient.lookup(key.getUsername(), key.getEndpoint());
-				}
-			});
+
+	private final Cache<HiscoreKey, CachedResult> hiscoreCache = CacheBuilder.newBuilder()
+		.maximumSize(1024)
+		.expireAfterWrite(STALE_MINUTES, TimeUnit.MINUTES)
+		.build();
+
+	/**
+	 * lookups in progress, so concurrent requests for the same player share one lookup
+	 */
+	private final ConcurrentMap<HiscoreKey, CompletableFuture<HiscoreResult>> pending = new ConcurrentHashMap<>();
+
+	private final ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_CONCURRENT_LOOKUPS, MAX_CONCURRENT_LOOKUPS,
+		0L, TimeUnit.MILLISECONDS,
+		new ArrayBlockingQueue<>(MAX_QUEUED_LOOKUPS),
+		new ThreadFactoryBuilder()
+			.setNameFormat("hiscore-lookup-%d")
+			.setDaemon(true)
+			.build());
 
 	@VisibleForTesting
 	HiscoreResult lookupUsername(String username, HttpUrl httpUrl) throws IOException
@@ -64,6 +95,100 @@ public class HiscoreService
 
 	public HiscoreResult lookupUsername(String username, HiscoreEndpoint endpoint) throws ExecutionException
 	{
-		return hiscoreCache.get(new HiscoreKey(username, endpoint));
+		try
+		{
+			return lookupUsernameAsync(username, endpoint).get();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new ExecutionException(ex);
+		}
+	}
+
+	/**
+	 * look up a player without blocking the calling thread. Results are
+	 * cached, and stale results are served while they are refreshed.
+	 *
+	 * @param username
+	 * @param endpoint
+	 * @return
+	 */
+	public CompletableFuture<HiscoreResult> lookupUsernameAsync(String username, HiscoreEndpoint endpoint)
+	{
+		HiscoreKey key = new HiscoreKey(username, endpoint);
+		CachedResult cached = hiscoreCache.getIfPresent(key);
+		if (cached == null)
+		{
+			return load(key);
+		}
+
+		if (Duration.between(cached.getTime(), Instant.now()).compareTo(FRESH_TIME) > 0)
+		{
+			load(key);
+		}
+
+		return CompletableFuture.completedFuture(cached.getResult());
+	}
+
+	@PreDestroy
+	public void close()
+	{
+		executor.shutdownNow();
+	}
+
+	private CompletableFuture<HiscoreResult> load(HiscoreKey key)
+	{
+		CompletableFuture<HiscoreResult> future = new CompletableFuture<>();
+		CompletableFuture<HiscoreResult> existing = pending.putIfAbsent(key, future);
+		if (existing != null)
+		{
+			return existing;
+		}
+
+		try
+		{
+			executor.execute(() ->
+			{
+				try
+				{
+					HiscoreResult result = lookupUsername(key.getUsername(), key.getEndpoint().getHiscoreURL());
+					if (result == null)
+					{
+						// unknown player, which isn't cached so the lookup is retried next time
+						hiscoreCache.invalidate(key);
+						future.completeExceptionally(new NotFoundException());
+						return;
+					}
+
+					hiscoreCache.put(key, new CachedResult(result, Instant.now()));
+					future.complete(result);
+				}
+				catch (IOException | RuntimeException ex)
+				{
+					log.debug("unable to look up {}", key, ex);
+					future.completeExceptionally(ex);
+				}
+				finally
+				{
+					pending.remove(key, future);
+				}
+			});
+		}
+		catch (RejectedExecutionException ex)
+		{
+			log.warn("Too many hiscore lookups queued, rejecting lookup of {}", key);
+			pending.remove(key, future);
+			future.completeExceptionally(ex);
+		}
+
+		return future;
+	}
+
+	@Value
+	private static class CachedResult
+	{
+		HiscoreResult result;
+		Instant time;
 	}
 }
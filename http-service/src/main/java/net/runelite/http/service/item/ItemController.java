@@ -24,23 +24,29 @@
  */
 package net.runelite.http.service.item;
 
-import com.google.common.base.Supplier;
-import com.google.common.base.Suppliers;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 import javax.servlet.http.HttpServletResponse;
 import net.runelite.http.api.item.Item;
 import net.runelite.http.api.item.ItemPrice;
 import net.runelite.http.api.item.SearchResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -56,26 +62,17 @@ public class ItemController
 		.maximumSize(1024L)
 		.build();
 
+	// matches the mapper of the default json message converter
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
 	private final ItemService itemService;
 
-	private final Supplier<ItemPrice[]> memorizedPrices;
+	private volatile EncodedPrices encodedPrices;
 
 	@Autowired
 	public ItemController(ItemService itemService)
 	{
 		this.itemService = itemService;
-
-		memorizedPrices = Suppliers.memoizeWithExpiration(() -> itemService.fetchPrices().stream()
-			.map(priceEntry ->
-			{
-				ItemPrice itemPrice = new ItemPrice();
-				itemPrice.setId(priceEntry.getItem());
-				itemPrice.setName(priceEntry.getName());
-				itemPrice.setPrice(priceEntry.getPrice());
-				itemPrice.setTime(priceEntry.getTime());
-				return itemPrice;
-			})
-			.toArray(ItemPrice[]::new), 30, TimeUnit.MINUTES);
 	}
 
 	@RequestMapping("/{itemId}")
@@ -132,6 +129,11 @@ public class ItemController
 
 		Instant now = Instant.now();
 
+		if (time == null)
+		{
+			itemService.recordPriceLookup(itemId);
+		}
+
 		if (time != null && time.isAfter(now))
 		{
 			time = now;
@@ -201,6 +203,11 @@ public class ItemController
 			itemIds = Arrays.copyOf(itemIds, MAX_BATCH_LOOKUP);
 		}
 
+		for (int itemId : itemIds)
+		{
+			itemService.recordPriceLookup(itemId);
+		}
+
 		List<PriceEntry> prices = itemService.getPrices(itemIds);
 
 		return prices.stream()
@@ -217,10 +224,76 @@ public class ItemController
 	}
 
 	@RequestMapping("/prices")
-	public ResponseEntity<ItemPrice[]> prices()
+	public ResponseEntity<byte[]> prices(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) throws IOException
 	{
-		return ResponseEntity.ok()
+		EncodedPrices encoded = getEncodedPrices();
+		boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
 			.cacheControl(CacheControl.maxAge(30, TimeUnit.MINUTES).cachePublic())
-			.body(memorizedPrices.get());
+			.contentType(MediaType.APPLICATION_JSON_UTF8)
+			.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+		if (gzip)
+		{
+			return builder
+				.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+				.body(encoded.gzip);
+		}
+
+		return builder.body(encoded.json);
+	}
+
+	/**
+	 * Get the encoded latest prices, encoding them again only if they have
+	 * changed since they were last encoded
+	 */
+	private EncodedPrices getEncodedPrices() throws IOException
+	{
+		LatestPrices latestPrices = itemService.getLatestPrices();
+
+		EncodedPrices encoded = encodedPrices;
+		if (encoded != null && encoded.version == latestPrices.getVersion())
+		{
+			return encoded;
+		}
+
+		synchronized (this)
+		{
+			encoded = encodedPrices;
+			int version = latestPrices.getVersion();
+			if (encoded != null && encoded.version == version)
+			{
+				return encoded;
+			}
+
+			byte[] json = objectMapper.writeValueAsBytes(latestPrices.toArray());
+
+			ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+			try (GZIPOutputStream gzip = new GZIPOutputStream(out))
+			{
+				gzip.write(json);
+			}
+
+			// the version is read before the prices, so a concurrent change
+			// causes another encode rather than being missed
+			encoded = new EncodedPrices(version, json, out.toByteArray());
+			encodedPrices = encoded;
+			return encoded;
+		}
+	}
+
+	private static class EncodedPrices
+	{
+		private final int version;
+		private final byte[] json;
+		private final byte[] gzip;
+
+		EncodedPrices(int version, byte[] json, byte[] gzip)
+		{
+			this.version = version;
+			this.json = json;
+			this.gzip = gzip;
+		}
 	}
 }
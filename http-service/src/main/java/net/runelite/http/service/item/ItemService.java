@@ -24,21 +24,26 @@
  */
 package net.runelite.http.service.item;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.RateLimiter;
 import com.google.gson.JsonParseException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
-import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.cache.definitions.ItemDefinition;
 import net.runelite.http.api.RuneLiteAPI;
+import net.runelite.http.api.item.ItemPrice;
 import net.runelite.http.api.item.ItemType;
 import net.runelite.http.service.cache.CacheService;
 import okhttp3.HttpUrl;
@@ -83,13 +88,27 @@ public class ItemService
 		+ ") ENGINE=InnoDB";
 
 	private static final int MAX_PENDING = 512;
+	private static final int MAX_LOOKUPS_PER_CHECK = 10;
+
+	private static final double RS_REQUESTS_PER_SECOND = 2;
+	private static final int CRAWL_CONCURRENCY = 4;
+	private static final int CRAWL_BATCH = 20;
 
 	private final Sql2o sql2o;
 	private final CacheService cacheService;
 
 	private final ConcurrentLinkedQueue<PendingLookup> pendingLookups = new ConcurrentLinkedQueue<PendingLookup>();
-	private int[] tradeableItems;
-	private final Random random = new Random();
+
+	// shared by all requests to the item database
+	private final RateLimiter rateLimiter = RateLimiter.create(RS_REQUESTS_PER_SECOND);
+	private final PriceCrawler priceCrawler = new PriceCrawler(
+		itemId -> fetchRSPrices(RS_PRICE_URL, itemId),
+		this::writePrices,
+		CRAWL_CONCURRENCY, rateLimiter);
+	private boolean crawlerLoaded;
+
+	private final LatestPrices latestPrices = new LatestPrices();
+	private volatile boolean latestPricesLoaded;
 
 	@Autowired
 	public ItemService(@Qualifier("Runelite SQL2O") Sql2o sql2o,
@@ -145,33 +164,57 @@ public class ItemService
 		}
 	}
 
+	/**
+	 * Get the latest price of each of the given items, with a single query
+	 *
+	 * @param itemIds item ids, which may contain duplicates
+	 * @return the prices of the items which have one, in the order of
+	 * their first occurrence in itemIds
+	 */
 	public List<PriceEntry> getPrices(int... itemIds)
 	{
-		try (Connection con = sql2o.open())
+		int[] ids = Arrays.stream(itemIds)
+			.distinct()
+			.toArray();
+
+		if (ids.length == 0)
 		{
-			Set<Integer> seen = new HashSet<>();
-			List<PriceEntry> priceEntries = new ArrayList<>(itemIds.length);
+			return Collections.emptyList();
+		}
 
-			for (int itemId : itemIds)
-			{
-				if (seen.contains(itemId))
-				{
-					continue;
-				}
-				seen.add(itemId);
+		// the ids are ints, so are safe to inline. The derived table
+		// resolves the latest time for every item with the item_time key
+		String in = Arrays.stream(ids)
+			.mapToObj(Integer::toString)
+			.collect(Collectors.joining(","));
 
-				PriceEntry priceEntry = getPrice(con, itemId, null);
+		List<PriceEntry> entries;
+		try (Connection con = sql2o.open())
+		{
+			entries = con.createQuery("select t1.item, t3.name, t1.price, t1.time, t1.fetched_time from prices t1"
+				+ " join (select item, max(time) as time from prices where item in (" + in + ") group by item) t2"
+				+ " on t1.item = t2.item and t1.time = t2.time"
+				+ " join items t3 on t1.item = t3.id")
+				.executeAndFetch(PriceEntry.class);
+		}
 
-				if (priceEntry == null)
-				{
-					continue;
-				}
+		Map<Integer, PriceEntry> byItem = new HashMap<>(entries.size());
+		for (PriceEntry entry : entries)
+		{
+			byItem.put(entry.getItem(), entry);
+		}
 
+		List<PriceEntry> priceEntries = new ArrayList<>(entries.size());
+		for (int itemId : ids)
+		{
+			PriceEntry priceEntry = byItem.get(itemId);
+			if (priceEntry != null)
+			{
 				priceEntries.add(priceEntry);
 			}
-
-			return priceEntries;
 		}
+
+		return priceEntries;
 	}
 
 	public List<ItemEntry> search(String search)
@@ -246,7 +289,7 @@ public class ItemService
 		RSPrices rsprice;
 		try
 		{
-			rsprice = fetchRSPrices(itemId);
+			rsprice = fetchRSPrices(RS_PRICE_URL, itemId);
 		}
 		catch (IOException ex)
 		{
@@ -254,43 +297,136 @@ public class ItemService
 			return null;
 		}
 
+		return writePrices(Collections.singletonMap(itemId, rsprice));
+	}
+
+	/**
+	 * Insert fetched prices of several items in one batch
+	 */
+	private List<PriceEntry> writePrices(Map<Integer, RSPrices> prices)
+	{
 		try (Connection con = sql2o.beginTransaction())
 		{
 			List<PriceEntry> entries = new ArrayList<>();
+			List<PriceEntry> latest = new ArrayList<>();
 			Instant now = Instant.now();
 
 			Query query = con.createQuery("insert into prices (item, price, time, fetched_time) values (:item, :price, :time, :fetched_time) "
 				+ "ON DUPLICATE KEY UPDATE price = VALUES(price), fetched_time = VALUES(fetched_time)");
 
-			for (Map.Entry<Long, Integer> entry : rsprice.getDaily().entrySet())
+			for (Map.Entry<Integer, RSPrices> itemPrices : prices.entrySet())
 			{
-				long ts = entry.getKey(); // ms since epoch
-				int price = entry.getValue(); // gp
-
-				Instant time = Instant.ofEpochMilli(ts);
-
-				PriceEntry priceEntry = new PriceEntry();
-				priceEntry.setItem(itemId);
-				priceEntry.setPrice(price);
-				priceEntry.setTime(time);
-				priceEntry.setFetched_time(now);
-				entries.add(priceEntry);
-
-				query
-					.addParameter("item", itemId)
-					.addParameter("price", price)
-					.addParameter("time", time)
-					.addParameter("fetched_time", now)
-					.addToBatch();
+				int itemId = itemPrices.getKey();
+				List<PriceEntry> itemEntries = new ArrayList<>();
+
+				for (Map.Entry<Long, Integer> entry : itemPrices.getValue().getDaily().entrySet())
+				{
+					long ts = entry.getKey(); // ms since epoch
+					int price = entry.getValue(); // gp
+
+					Instant time = Instant.ofEpochMilli(ts);
+
+					PriceEntry priceEntry = new PriceEntry();
+					priceEntry.setItem(itemId);
+					priceEntry.setPrice(price);
+					priceEntry.setTime(time);
+					priceEntry.setFetched_time(now);
+					itemEntries.add(priceEntry);
+
+					query
+						.addParameter("item", itemId)
+						.addParameter("price", price)
+						.addParameter("time", time)
+						.addParameter("fetched_time", now)
+						.addToBatch();
+				}
+
+				PriceEntry latestEntry = findLatestPrice(con, itemId, itemEntries);
+				if (latestEntry != null)
+				{
+					latest.add(latestEntry);
+				}
+				entries.addAll(itemEntries);
 			}
 
 			query.executeBatch();
 			con.commit(false);
 
+			// only publish the prices once they are committed
+			for (PriceEntry entry : latest)
+			{
+				latestPrices.update(entry.getItem(), entry.getName(), entry.getPrice(), entry.getTime());
+			}
+
 			return entries;
 		}
 	}
 
+	/**
+	 * Find the latest of an item's fetched prices, along with the item name
+	 *
+	 * @return the latest price, or null if there are no prices or the item is unknown
+	 */
+	private PriceEntry findLatestPrice(Connection con, int itemId, List<PriceEntry> entries)
+	{
+		PriceEntry latest = null;
+		for (PriceEntry entry : entries)
+		{
+			if (latest == null || entry.getTime().isAfter(latest.getTime()))
+			{
+				latest = entry;
+			}
+		}
+
+		if (latest == null)
+		{
+			return null;
+		}
+
+		ItemPrice existing = latestPrices.get(itemId);
+		String name = existing != null ? existing.getName() : con.createQuery("select name from items where id = :id")
+			.addParameter("id", itemId)
+			.executeScalar(String.class);
+
+		if (name == null)
+		{
+			// prices are only served for known items
+			return null;
+		}
+
+		PriceEntry priceEntry = new PriceEntry();
+		priceEntry.setItem(itemId);
+		priceEntry.setName(name);
+		priceEntry.setPrice(latest.getPrice());
+		priceEntry.setTime(latest.getTime());
+		return priceEntry;
+	}
+
+	/**
+	 * Get the latest price of every item. This is loaded from the database
+	 * once, and then kept up to date as prices are fetched.
+	 */
+	LatestPrices getLatestPrices()
+	{
+		if (!latestPricesLoaded)
+		{
+			synchronized (latestPrices)
+			{
+				if (!latestPricesLoaded)
+				{
+					for (PriceEntry priceEntry : fetchPrices())
+					{
+						latestPrices.update(priceEntry.getItem(), priceEntry.getName(), priceEntry.getPrice(), priceEntry.getTime());
+					}
+
+					latestPricesLoaded = true;
+				}
+			}
+		}
+
+		return latestPrices;
+	}
+
 	public List<PriceEntry> fetchPrices()
 	{
 		try (Connection con = sql2o.beginTransaction())
@@ -318,9 +454,10 @@ public class ItemService
 
 	}
 
-	private RSPrices fetchRSPrices(int itemId) throws IOException
+	@VisibleForTesting
+	static RSPrices fetchRSPrices(HttpUrl rsPriceUrl, int itemId) throws IOException
 	{
-		HttpUrl priceUrl = RS_PRICE_URL
+		HttpUrl priceUrl = rsPriceUrl
 			.newBuilder()
 			.addPathSegment(itemId + ".json")
 			.build();
@@ -371,7 +508,7 @@ public class ItemService
 		}
 	}
 
-	private <T> T fetchJson(Request request, Class<T> clazz) throws IOException
+	private static <T> T fetchJson(Request request, Class<T> clazz) throws IOException
 	{
 		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
 		{
@@ -435,57 +572,84 @@ public class ItemService
 	@Scheduled(fixedDelay = 5000)
 	public void check()
 	{
-		PendingLookup pendingLookup = pendingLookups.poll();
-		if (pendingLookup == null)
+		for (int i = 0; i < MAX_LOOKUPS_PER_CHECK; ++i)
 		{
-			return;
-		}
+			PendingLookup pendingLookup = pendingLookups.poll();
+			if (pendingLookup == null)
+			{
+				return;
+			}
 
-		switch (pendingLookup.getType())
-		{
-			case SEARCH:
-				try
-				{
-					RSSearch reSearch = fetchRSSearch(pendingLookup.getSearch());
+			// lookups share the rate limit with the price crawler
+			rateLimiter.acquire();
 
-					batchInsertItems(reSearch);
-				}
-				catch (IOException ex)
-				{
-					log.warn("error while searching items", ex);
-				}
-				break;
-			case ITEM:
-				fetchItem(pendingLookup.getItemId());
-				break;
+			switch (pendingLookup.getType())
+			{
+				case SEARCH:
+					try
+					{
+						RSSearch reSearch = fetchRSSearch(pendingLookup.getSearch());
+
+						batchInsertItems(reSearch);
+					}
+					catch (IOException ex)
+					{
+						log.warn("error while searching items", ex);
+					}
+					break;
+				case ITEM:
+					fetchItem(pendingLookup.getItemId());
+					break;
+			}
 		}
 	}
 
-	@Scheduled(fixedDelay = 20_000)
-	public void crawlPrices()
+	@Scheduled(fixedDelay = 10_000)
+	public void crawlPrices() throws InterruptedException
 	{
-		if (tradeableItems == null || tradeableItems.length == 0)
-		{
-			return;
-		}
-
-		int idx = random.nextInt(tradeableItems.length);
-		int id = tradeableItems[idx];
-
-		log.debug("Fetching price for {}", id);
+		int fetched = priceCrawler.crawl(CRAWL_BATCH);
+		log.debug("Crawled {} prices", fetched);
+	}
 
-		fetchPrice(id);
+	/**
+	 * Record that a client looked up an item's price, so the crawler
+	 * refreshes popular items sooner
+	 */
+	public void recordPriceLookup(int itemId)
+	{
+		priceCrawler.recordLookup(itemId);
 	}
 
 	@Scheduled(fixedDelay = 1_8000_000) // 30 minutes
 	public void reloadItems() throws IOException
 	{
 		List<ItemDefinition> items = cacheService.getItems();
-		tradeableItems = items.stream()
+		int[] tradeableItems = items.stream()
 			.filter(item -> item.isTradeable)
 			.mapToInt(item -> item.id)
 			.toArray();
+		priceCrawler.setItems(tradeableItems);
 		log.debug("Loaded {} tradeable items", tradeableItems.length);
+
+		if (!crawlerLoaded)
+		{
+			// start crawling from the items which were fetched longest ago
+			try (Connection con = sql2o.open())
+			{
+				List<PriceEntry> fetched = con.createQuery("select item, max(fetched_time) as fetched_time from prices group by item")
+					.executeAndFetch(PriceEntry.class);
+				for (PriceEntry entry : fetched)
+				{
+					priceCrawler.setLastFetched(entry.getItem(), entry.getFetched_time().toEpochMilli());
+				}
+			}
+			crawlerLoaded = true;
+		}
 	}
 
+	@PreDestroy
+	public void close()
+	{
+		priceCrawler.close();
+	}
 }
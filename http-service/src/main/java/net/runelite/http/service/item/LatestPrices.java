@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import java.time.Instant;
+import java.util.Arrays;
+import net.runelite.http.api.item.ItemPrice;
+
+/**
+ * The latest price of each item, indexed by item id. Prices are only
+ * replaced by newer ones, and the version is incremented on every change
+ * so encoded copies of the prices know when they are stale.
+ */
+class LatestPrices
+{
+	private ItemPrice[] prices = new ItemPrice[0];
+	private int count;
+	private volatile int version;
+
+	/**
+	 * Update the price of an item if it is not older than the current one
+	 *
+	 * @return true if the price was changed
+	 */
+	synchronized boolean update(int itemId, String name, int price, Instant time)
+	{
+		if (itemId < 0)
+		{
+			return false;
+		}
+
+		if (itemId >= prices.length)
+		{
+			prices = Arrays.copyOf(prices, Math.max(itemId + 1, prices.length * 2));
+		}
+
+		ItemPrice existing = prices[itemId];
+		if (existing != null)
+		{
+			if (time.isBefore(existing.getTime())
+				|| (time.equals(existing.getTime()) && price == existing.getPrice()))
+			{
+				return false;
+			}
+		}
+		else
+		{
+			++count;
+		}
+
+		// entries are never modified once published, so the array
+		// returned by toArray() can be shared
+		ItemPrice itemPrice = new ItemPrice();
+		itemPrice.setId(itemId);
+		itemPrice.setName(name);
+		itemPrice.setPrice(price);
+		itemPrice.setTime(time);
+		prices[itemId] = itemPrice;
+
+		++version;
+		return true;
+	}
+
+	synchronized ItemPrice get(int itemId)
+	{
+		return itemId >= 0 && itemId < prices.length ? prices[itemId] : null;
+	}
+
+	int getVersion()
+	{
+		return version;
+	}
+
+	/**
+	 * Get all prices, ordered by item id
+	 */
+	synchronized ItemPrice[] toArray()
+	{
+		ItemPrice[] array = new ItemPrice[count];
+		int i = 0;
+		for (ItemPrice itemPrice : prices)
+		{
+			if (itemPrice != null)
+			{
+				array[i++] = itemPrice;
+			}
+		}
+		return array;
+	}
+}
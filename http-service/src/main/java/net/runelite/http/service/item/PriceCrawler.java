@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Crawls item prices, most stale and most looked up items first. Prices
+ * are fetched by a bounded pool of fetchers under a global rate limit, and
+ * each crawl writes all of its results at once.
+ */
+@Slf4j
+class PriceCrawler implements AutoCloseable
+{
+	@FunctionalInterface
+	interface Fetcher
+	{
+		RSPrices fetch(int itemId) throws IOException;
+	}
+
+	@FunctionalInterface
+	interface Writer
+	{
+		void write(Map<Integer, RSPrices> prices);
+	}
+
+	private final Fetcher fetcher;
+	private final Writer writer;
+	private final RateLimiter rateLimiter;
+	private final ExecutorService executor;
+
+	private int[] itemIds = new int[0];
+	// indexed by item id
+	private long[] lastFetched = new long[0];
+	private volatile AtomicIntegerArray lookups = new AtomicIntegerArray(0);
+
+	PriceCrawler(Fetcher fetcher, Writer writer, int concurrency, RateLimiter rateLimiter)
+	{
+		this.fetcher = fetcher;
+		this.writer = writer;
+		this.rateLimiter = rateLimiter;
+		this.executor = Executors.newFixedThreadPool(concurrency, new ThreadFactoryBuilder()
+			.setNameFormat("price-crawler-%d")
+			.setDaemon(true)
+			.build());
+	}
+
+	/**
+	 * Set the items to crawl. Fetch times and lookup counts of items which
+	 * were already being crawled are kept.
+	 */
+	synchronized void setItems(int[] itemIds)
+	{
+		int max = Arrays.stream(itemIds).max().orElse(-1);
+		if (max >= lastFetched.length)
+		{
+			lastFetched = Arrays.copyOf(lastFetched, max + 1);
+
+			AtomicIntegerArray old = lookups;
+			AtomicIntegerArray l = new AtomicIntegerArray(max + 1);
+			for (int i = 0; i < old.length(); ++i)
+			{
+				l.set(i, old.get(i));
+			}
+			lookups = l;
+		}
+
+		this.itemIds = itemIds.clone();
+	}
+
+	/**
+	 * Record when an item's price was last fetched, eg. as loaded from the
+	 * database
+	 */
+	synchronized void setLastFetched(int itemId, long time)
+	{
+		if (itemId >= 0 && itemId < lastFetched.length)
+		{
+			lastFetched[itemId] = Math.max(lastFetched[itemId], time);
+		}
+	}
+
+	/**
+	 * Record a lookup of an item's price, which makes it crawled sooner
+	 */
+	void recordLookup(int itemId)
+	{
+		AtomicIntegerArray l = lookups;
+		if (itemId >= 0 && itemId < l.length())
+		{
+			l.incrementAndGet(itemId);
+		}
+	}
+
+	/**
+	 * Get the items which most need their prices fetched. An item's
+	 * priority is how long ago it was fetched, scaled by how often it was
+	 * looked up since then.
+	 */
+	synchronized int[] next(int count, long now)
+	{
+		AtomicIntegerArray l = lookups;
+		return Arrays.stream(itemIds)
+			.boxed()
+			.sorted((a, b) -> Double.compare(priority(b, l, now), priority(a, l, now)))
+			.limit(count)
+			.mapToInt(Integer::intValue)
+			.toArray();
+	}
+
+	private double priority(int itemId, AtomicIntegerArray l, long now)
+	{
+		double age = now - lastFetched[itemId];
+		return age * (1 + Math.log1p(l.get(itemId)));
+	}
+
+	/**
+	 * Fetch the prices of the items which most need it, and write them
+	 *
+	 * @param count maximum number of items to fetch
+	 * @return the number of prices fetched
+	 */
+	int crawl(int count) throws InterruptedException
+	{
+		long now = System.currentTimeMillis();
+		int[] items = next(count, now);
+
+		List<Future<RSPrices>> futures = new ArrayList<>(items.length);
+		for (int itemId : items)
+		{
+			futures.add(executor.submit(() ->
+			{
+				rateLimiter.acquire();
+				log.debug("Fetching price for {}", itemId);
+				return fetcher.fetch(itemId);
+			}));
+		}
+
+		Map<Integer, RSPrices> prices = new LinkedHashMap<>();
+		for (int i = 0; i < items.length; ++i)
+		{
+			int itemId = items[i];
+			try
+			{
+				RSPrices rsPrices = futures.get(i).get();
+				if (rsPrices != null)
+				{
+					prices.put(itemId, rsPrices);
+				}
+			}
+			catch (ExecutionException ex)
+			{
+				log.warn("unable to fetch price for item {}", itemId, ex.getCause());
+			}
+
+			synchronized (this)
+			{
+				// failed items are also pushed back, so they are retried
+				// after the others
+				lastFetched[itemId] = now;
+				lookups.set(itemId, 0);
+			}
+		}
+
+		if (!prices.isEmpty())
+		{
+			writer.write(prices);
+		}
+
+		return prices.size();
+	}
+
+	@Override
+	public void close()
+	{
+		executor.shutdownNow();
+	}
+}
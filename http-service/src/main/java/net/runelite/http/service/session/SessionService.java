@@ -24,8 +24,13 @@
  */
 package net.runelite.http.service.session;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import net.runelite.http.service.util.TouchCoalescer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -38,12 +43,20 @@ public class SessionService
 {
 	private final Sql2o sql2o;
 
+	private final Cache<UUID, SessionEntry> sessionCache = CacheBuilder.newBuilder()
+		.maximumSize(100_000L)
+		.expireAfterWrite(1, TimeUnit.MINUTES)
+		.build();
+
+	private final TouchCoalescer lastTouched;
+
 	@Autowired
 	public SessionService(
 		@Qualifier("Runelite SQL2O") Sql2o sql2o
 	)
 	{
 		this.sql2o = sql2o;
+		this.lastTouched = new TouchCoalescer(sql2o, "update session set last = :time where uuid = :uuid");
 	}
 
 	public void createSession(SessionEntry session)
@@ -58,16 +71,30 @@ public class SessionService
 				.addParameter("last", session.getLast())
 				.executeUpdate();
 		}
+
+		sessionCache.put(session.getUuid(), session);
 	}
 
 	public SessionEntry findSessionByUUID(UUID id)
 	{
+		SessionEntry session = sessionCache.getIfPresent(id);
+		if (session != null)
+		{
+			return session;
+		}
+
 		try (Connection con = sql2o.open())
 		{
-			return con.createQuery("select uuid, ip, start, last from session where uuid = :uuid")
+			session = con.createQuery("select uuid, ip, start, last from session where uuid = :uuid")
 				.addParameter("uuid", id.toString())
 				.executeAndFetchFirst(SessionEntry.class);
 		}
+
+		if (session != null)
+		{
+			sessionCache.put(id, session);
+		}
+		return session;
 	}
 
 	public void deleteSession(SessionEntry session)
@@ -78,27 +105,34 @@ public class SessionService
 				.addParameter("uuid", session.getUuid().toString())
 				.executeUpdate();
 		}
+
+		sessionCache.invalidate(session.getUuid());
+		lastTouched.remove(session.getUuid());
 	}
 
+	/**
+	 * update the last seen time of a session. The update is written to
+	 * the database on the next flush.
+	 *
+	 * @param session
+	 */
 	public void updateLast(UUID session)
 	{
-		try (Connection con = sql2o.open())
-		{
-			Instant last = Instant.now();
-			con.createQuery("update session set last = :last where uuid = :uuid")
-				.addParameter("last", last)
-				.addParameter("uuid", session.toString())
-				.executeUpdate();
-		}
+		lastTouched.touch(session, Instant.now());
 	}
 
 	private void deleteExpired()
 	{
+		// write pending pings first so active sessions aren't expired
+		lastTouched.flush();
+
 		try (Connection con = sql2o.open())
 		{
 			con.createQuery("delete from session where last + interval 5 minute < current_timestamp()")
 				.executeUpdate();
 		}
+
+		sessionCache.invalidateAll();
 	}
 
 	public int getCount()
@@ -115,4 +149,11 @@ public class SessionService
 	{
 		deleteExpired();
 	}
+
+	@Scheduled(fixedDelay = 10_000)
+	@PreDestroy
+	public void flush()
+	{
+		lastTouched.flush();
+	}
 }
@@ -24,13 +24,17 @@
  */
 package net.runelite.http.service.sprite;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutionException;
+import net.runelite.http.service.cache.CacheService;
+import net.runelite.http.service.cache.beans.CacheEntry;
+import net.runelite.http.service.util.CachedPng;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -39,34 +43,42 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/sprite")
 public class SpriteController
 {
+	private static final CachedPng MISSING = new CachedPng(new byte[0], null);
+
 	@Autowired
 	private SpriteService spriteService;
 
-	private final LoadingCache<Integer, byte[]> spriteCache = CacheBuilder.newBuilder()
+	@Autowired
+	private CacheService cacheService;
+
+	private final Cache<SpriteKey, CachedPng> spriteCache = CacheBuilder.newBuilder()
 		.maximumSize(1024L)
-		.expireAfterWrite(10, TimeUnit.MINUTES)
-		.build(new CacheLoader<Integer, byte[]>()
-		{
-			@Override
-			public byte[] load(Integer key) throws Exception
-			{
-				byte[] data = spriteService.getImagePng(key >>> 16, key & 0xffff);
-				return data != null ? data : new byte[0];
-			}
-		});
+		.build();
 
 	@RequestMapping(produces = "image/png")
 	public ResponseEntity<byte[]> getSprite(
 		@RequestParam int spriteId,
-		@RequestParam(defaultValue = "0") int frameId
-	) throws IOException
+		@RequestParam(defaultValue = "0") int frameId,
+		@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+	) throws IOException, ExecutionException
 	{
-		byte[] data = spriteCache.getUnchecked(spriteId << 16 | frameId);
-		if (data == null || data.length == 0)
+		CacheEntry cache = cacheService.findMostRecent();
+		if (cache == null)
+		{
+			return ResponseEntity.notFound().build();
+		}
+
+		SpriteKey key = new SpriteKey(cache.getId(), spriteId, frameId);
+		CachedPng png = spriteCache.get(key, () ->
+		{
+			CachedPng image = spriteService.getImagePng(spriteId, frameId);
+			return image != null ? image : MISSING;
+		});
+		if (png == MISSING)
 		{
 			return ResponseEntity.notFound().build();
 		}
 
-		return ResponseEntity.ok(data);
+		return png.toResponse(ifNoneMatch);
 	}
 }
@@ -28,15 +28,9 @@ import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import javax.imageio.ImageIO;
-import net.runelite.cache.IndexType;
 import net.runelite.cache.definitions.SpriteDefinition;
-import net.runelite.cache.definitions.loaders.SpriteLoader;
-import net.runelite.cache.fs.ArchiveFiles;
-import net.runelite.cache.fs.FSFile;
 import net.runelite.http.service.cache.CacheService;
-import net.runelite.http.service.cache.beans.ArchiveEntry;
-import net.runelite.http.service.cache.beans.CacheEntry;
-import net.runelite.http.service.cache.beans.IndexEntry;
+import net.runelite.http.service.util.CachedPng;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -48,33 +42,12 @@ public class SpriteService
 
 	public SpriteDefinition getSprite(int spriteId, int frameId) throws IOException
 	{
-		CacheEntry cache = cacheService.findMostRecent();
-		if (cache == null)
-		{
-			return null;
-		}
-
-		IndexEntry index = cacheService.findIndexForCache(cache, IndexType.SPRITES.getNumber());
-		if (index == null)
-		{
-			return null;
-		}
-
-		ArchiveEntry archive = cacheService.findArchiveForIndex(index, spriteId);
-		if (archive == null)
-		{
-			return null;
-		}
-
-		ArchiveFiles files = cacheService.getArchiveFiles(archive);
-		if (files == null)
+		SpriteDefinition[] sprite = cacheService.getSprites(spriteId);
+		if (sprite == null)
 		{
 			return null;
 		}
 
-		FSFile file = files.getFiles().get(0);
-		byte[] contents = file.getContents();
-		SpriteDefinition[] sprite = new SpriteLoader().load(archive.getArchiveId(), contents);
 		if (frameId < 0 || frameId >= sprite.length)
 		{
 			return null;
@@ -95,7 +68,7 @@ public class SpriteService
 		return bufferedImage;
 	}
 
-	public byte[] getImagePng(int spriteId, int frameId) throws IOException
+	public CachedPng getImagePng(int spriteId, int frameId) throws IOException
 	{
 		BufferedImage image = getImage(spriteId, frameId);
 		if (image == null)
@@ -105,7 +78,7 @@ public class SpriteService
 
 		ByteArrayOutputStream bao = new ByteArrayOutputStream();
 		ImageIO.write(image, "png", bao);
-		return bao.toByteArray();
+		return CachedPng.of(bao.toByteArray());
 	}
 
 	private BufferedImage getSpriteImage(SpriteDefinition sprite)
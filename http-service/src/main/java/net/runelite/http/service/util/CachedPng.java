@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.util;
+
+import com.google.common.base.Splitter;
+import com.google.common.hash.Hashing;
+import lombok.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * An encoded PNG image along with a strong ETag of its contents
+ */
+@Value
+public class CachedPng
+{
+	private static final Splitter ETAG_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
+	byte[] data;
+	String etag;
+
+	public static CachedPng of(byte[] data)
+	{
+		String etag = '"' + Hashing.sha256().hashBytes(data).toString() + '"';
+		return new CachedPng(data, etag);
+	}
+
+	/**
+	 * build a response for this image, responding with 304 Not Modified
+	 * if the client already has it
+	 *
+	 * @param ifNoneMatch value of the If-None-Match header, or null
+	 * @return
+	 */
+	public ResponseEntity<byte[]> toResponse(String ifNoneMatch)
+	{
+		if (matches(ifNoneMatch))
+		{
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+				.eTag(etag)
+				.build();
+		}
+
+		return ResponseEntity.ok()
+			.eTag(etag)
+			.body(data);
+	}
+
+	private boolean matches(String ifNoneMatch)
+	{
+		if (ifNoneMatch == null)
+		{
+			return false;
+		}
+
+		for (String tag : ETAG_SPLITTER.split(ifNoneMatch))
+		{
+			// If-None-Match uses the weak comparison function
+			if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag))
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.util;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.extern.slf4j.Slf4j;
+import org.sql2o.Connection;
+import org.sql2o.Query;
+import org.sql2o.Sql2o;
+import org.sql2o.Sql2oException;
+
+/**
+ * Coalesces "last used" timestamp updates of sessions in memory and writes
+ * them out in a single batch when flushed. Only the most recent timestamp of
+ * each session is kept.
+ */
+@Slf4j
+public class TouchCoalescer
+{
+	private final Sql2o sql2o;
+	private final String query;
+	private final ConcurrentMap<UUID, Instant> pending = new ConcurrentHashMap<>();
+
+	/**
+	 * @param sql2o
+	 * @param query update query, with :uuid and :time parameters
+	 */
+	public TouchCoalescer(Sql2o sql2o, String query)
+	{
+		this.sql2o = sql2o;
+		this.query = query;
+	}
+
+	public void touch(UUID uuid, Instant time)
+	{
+		pending.merge(uuid, time, (a, b) -> a.isAfter(b) ? a : b);
+	}
+
+	public void remove(UUID uuid)
+	{
+		pending.remove(uuid);
+	}
+
+	/**
+	 * write all pending timestamps
+	 *
+	 * @return the number of sessions updated
+	 */
+	public int flush()
+	{
+		if (pending.isEmpty())
+		{
+			return 0;
+		}
+
+		Map<UUID, Instant> drained = new HashMap<>();
+		for (Map.Entry<UUID, Instant> entry : pending.entrySet())
+		{
+			// only removes the entry if it was not touched again meanwhile
+			if (pending.remove(entry.getKey(), entry.getValue()))
+			{
+				drained.put(entry.getKey(), entry.getValue());
+			}
+		}
+
+		try (Connection con = sql2o.beginTransaction())
+		{
+			Query q = con.createQuery(query);
+
+			for (Map.Entry<UUID, Instant> entry : drained.entrySet())
+			{
+				q.addParameter("uuid", entry.getKey().toString())
+					.addParameter("time", Timestamp.from(entry.getValue()))
+					.addToBatch();
+			}
+
+			q.executeBatch();
+			con.commit(false);
+		}
+		catch (Sql2oException ex)
+		{
+			// keep the timestamps for the next flush so the sessions don't expire early
+			drained.forEach(this::touch);
+			throw ex;
+		}
+
+		int count = drained.size();
+		log.debug("Flushed {} session timestamps", count);
+		return count;
+	}
+}
@@ -24,34 +24,97 @@
  */
 package net.runelite.http.service.xp;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.http.api.hiscore.HiscoreEndpoint;
 import net.runelite.http.api.hiscore.HiscoreResult;
 import net.runelite.http.api.xp.XpData;
 import net.runelite.http.service.hiscore.HiscoreService;
-import net.runelite.http.service.xp.beans.PlayerEntity;
 import net.runelite.http.service.xp.beans.XpEntity;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.sql2o.Connection;
+import org.sql2o.Query;
 import org.sql2o.Sql2o;
+import org.sql2o.Sql2oException;
 
 @Service
 @Slf4j
 public class XpTrackerService
 {
 	private static final Duration UPDATE_TIME = Duration.ofMinutes(5);
+	private static final int QUEUE_SIZE = 10_000;
+	private static final int BATCH_SIZE = 500;
+	private static final int MAX_QUEUED_UPDATES = 1000;
 
-	@Autowired
-	@Qualifier("Runelite XP Tracker SQL2O")
-	private Sql2o sql2o;
+	private static final String INSERT_XP = "insert ignore into xp (player,time,attack_xp,defence_xp,strength_xp,hitpoints_xp,ranged_xp,prayer_xp,magic_xp,cooking_xp,woodcutting_xp,"
+		+ "fletching_xp,fishing_xp,firemaking_xp,crafting_xp,smithing_xp,mining_xp,herblore_xp,agility_xp,thieving_xp,slayer_xp,farming_xp,"
+		+ "runecraft_xp,hunter_xp,construction_xp,attack_rank,defence_rank,strength_rank,hitpoints_rank,ranged_rank,prayer_rank,magic_rank,"
+		+ "cooking_rank,woodcutting_rank,fletching_rank,fishing_rank,firemaking_rank,crafting_rank,smithing_rank,mining_rank,herblore_rank,"
+		+ "agility_rank,thieving_rank,slayer_rank,farming_rank,runecraft_rank,hunter_rank,construction_rank,overall_rank) values (:player,:time,"
+		+ ":attack_xp,:defence_xp,:strength_xp,:hitpoints_xp,:ranged_xp,:prayer_xp,:magic_xp,:cooking_xp,:woodcutting_xp,:fletching_xp,:fishing_xp,"
+		+ ":firemaking_xp,:crafting_xp,:smithing_xp,:mining_xp,:herblore_xp,:agility_xp,:thieving_xp,:slayer_xp,:farming_xp,:runecraft_xp,:hunter_xp,"
+		+ ":construction_xp,:attack_rank,:defence_rank,:strength_rank,:hitpoints_rank,:ranged_rank,:prayer_rank,:magic_rank,:cooking_rank,"
+		+ ":woodcutting_rank,:fletching_rank,:fishing_rank,:firemaking_rank,:crafting_rank,:smithing_rank,:mining_rank,:herblore_rank,:agility_rank,"
+		+ ":thieving_rank,:slayer_rank,:farming_rank,:runecraft_rank,:hunter_rank,:construction_rank,:overall_rank)";
+
+	private final Sql2o sql2o;
+	private final HiscoreService hiscoreService;
+
+	/**
+	 * player name to id
+	 */
+	private final Cache<String, Integer> playerIds = CacheBuilder.newBuilder()
+		.maximumSize(100_000L)
+		.build();
+
+	/**
+	 * most recent xp of each player, including snapshots not yet written
+	 */
+	private final Cache<Integer, XpData> latestXp = CacheBuilder.newBuilder()
+		.maximumSize(100_000L)
+		.build();
+
+	private final BlockingQueue<PendingXp> pending = new LinkedBlockingQueue<>(QUEUE_SIZE);
+
+	/**
+	 * runs updates submitted from hiscore lookups, so they don't hold up the lookup threads
+	 */
+	private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1,
+		0L, TimeUnit.MILLISECONDS,
+		new ArrayBlockingQueue<>(MAX_QUEUED_UPDATES),
+		new ThreadFactoryBuilder()
+			.setNameFormat("xp-tracker-%d")
+			.setDaemon(true)
+			.build(),
+		(r, e) -> log.debug("Dropping xp update, too many updates are queued"));
 
 	@Autowired
-	private HiscoreService hiscoreService;
+	public XpTrackerService(
+		@Qualifier("Runelite XP Tracker SQL2O") Sql2o sql2o,
+		HiscoreService hiscoreService
+	)
+	{
+		this.sql2o = sql2o;
+		this.hiscoreService = hiscoreService;
+	}
 
 	public void update(String username) throws ExecutionException
 	{
@@ -59,118 +122,250 @@ public class XpTrackerService
 		update(username, hiscoreResult);
 	}
 
+	/**
+	 * record the xp of a player. The snapshot is queued and written on
+	 * the next flush.
+	 *
+	 * @param username
+	 * @param hiscoreResult
+	 */
 	public void update(String username, HiscoreResult hiscoreResult)
 	{
-		try (Connection con = sql2o.open())
+		if (hiscoreResult == null)
 		{
-			PlayerEntity playerEntity = findOrCreatePlayer(con, username);
+			log.debug("No hiscore result for {}", username);
+			return;
+		}
+
+		int playerId = findOrCreatePlayer(username);
 
-			Instant now = Instant.now();
-			XpEntity currentXp = findXpAtTime(con, username, now);
-			if (currentXp != null)
+		Instant now = Instant.now();
+		XpData currentXp = findLatestXp(playerId);
+		XpData hiscoreData = XpMapper.INSTANCE.hiscoreResultToXpData(hiscoreResult);
+		if (currentXp != null)
+		{
+			if (hiscoreData.equals(currentXp))
+			{
+				log.debug("Hiscore for {} already up to date", username);
+				return;
+			}
+
+			Duration difference = Duration.between(currentXp.getTime(), now);
+			if (difference.compareTo(UPDATE_TIME) <= 0)
 			{
-				XpData hiscoreData = XpMapper.INSTANCE.hiscoreResultToXpData(hiscoreResult);
-				XpData existingData = XpMapper.INSTANCE.xpEntityToXpData(currentXp);
-
-				if (hiscoreData.equals(existingData))
-				{
-					log.debug("Hiscore for {} already up to date", username);
-					return;
-				}
-
-				Duration difference = Duration.between(currentXp.getTime(), now);
-				if (difference.compareTo(UPDATE_TIME) <= 0)
-				{
-					log.debug("Updated {} too recently", username);
-					return;
-				}
+				log.debug("Updated {} too recently", username);
+				return;
 			}
+		}
+
+		hiscoreData.setTime(now);
 
-			con.createQuery("insert into xp (player,attack_xp,defence_xp,strength_xp,hitpoints_xp,ranged_xp,prayer_xp,magic_xp,cooking_xp,woodcutting_xp,"
-				+ "fletching_xp,fishing_xp,firemaking_xp,crafting_xp,smithing_xp,mining_xp,herblore_xp,agility_xp,thieving_xp,slayer_xp,farming_xp,"
-				+ "runecraft_xp,hunter_xp,construction_xp,attack_rank,defence_rank,strength_rank,hitpoints_rank,ranged_rank,prayer_rank,magic_rank,"
-				+ "cooking_rank,woodcutting_rank,fletching_rank,fishing_rank,firemaking_rank,crafting_rank,smithing_rank,mining_rank,herblore_rank,"
-				+ "agility_rank,thieving_rank,slayer_rank,farming_rank,runecraft_rank,hunter_rank,construction_rank,overall_rank) values (:player,:attack_xp,:defence_xp,"
-				+ ":strength_xp,:hitpoints_xp,:ranged_xp,:prayer_xp,:magic_xp,:cooking_xp,:woodcutting_xp,:fletching_xp,:fishing_xp,:firemaking_xp,"
-				+ ":crafting_xp,:smithing_xp,:mining_xp,:herblore_xp,:agility_xp,:thieving_xp,:slayer_xp,:farming_xp,:runecraft_xp,:hunter_xp,"
-				+ ":construction_xp,:attack_rank,:defence_rank,:strength_rank,:hitpoints_rank,:ranged_rank,:prayer_rank,:magic_rank,:cooking_rank,"
-				+ ":woodcutting_rank,:fletching_rank,:fishing_rank,:firemaking_rank,:crafting_rank,:smithing_rank,:mining_rank,:herblore_rank,"
-				+ ":agility_rank,:thieving_rank,:slayer_rank,:farming_rank,:runecraft_rank,:hunter_rank,:construction_rank,:overall_rank)")
-				.addParameter("player", playerEntity.getId())
-				.addParameter("attack_xp", hiscoreResult.getAttack().getExperience())
-				.addParameter("defence_xp", hiscoreResult.getDefence().getExperience())
-				.addParameter("strength_xp", hiscoreResult.getStrength().getExperience())
-				.addParameter("hitpoints_xp", hiscoreResult.getHitpoints().getExperience())
-				.addParameter("ranged_xp", hiscoreResult.getRanged().getExperience())
-				.addParameter("prayer_xp", hiscoreResult.getPrayer().getExperience())
-				.addParameter("magic_xp", hiscoreResult.getMagic().getExperience())
-				.addParameter("cooking_xp", hiscoreResult.getCooking().getExperience())
-				.addParameter("woodcutting_xp", hiscoreResult.getWoodcutting().getExperience())
-				.addParameter("fletching_xp", hiscoreResult.getFletching().getExperience())
-				.addParameter("fishing_xp", hiscoreResult.getFishing().getExperience())
-				.addParameter("firemaking_xp", hiscoreResult.getFiremaking().getExperience())
-				.addParameter("crafting_xp", hiscoreResult.getCrafting().getExperience())
-				.addParameter("smithing_xp", hiscoreResult.getSmithing().getExperience())
-				.addParameter("mining_xp", hiscoreResult.getMining().getExperience())
-				.addParameter("herblore_xp", hiscoreResult.getHerblore().getExperience())
-				.addParameter("agility_xp", hiscoreResult.getAgility().getExperience())
-				.addParameter("thieving_xp", hiscoreResult.getThieving().getExperience())
-				.addParameter("slayer_xp", hiscoreResult.getSlayer().getExperience())
-				.addParameter("farming_xp", hiscoreResult.getFarming().getExperience())
-				.addParameter("runecraft_xp", hiscoreResult.getRunecraft().getExperience())
-				.addParameter("hunter_xp", hiscoreResult.getHunter().getExperience())
-				.addParameter("construction_xp", hiscoreResult.getConstruction().getExperience())
-				.addParameter("attack_rank", hiscoreResult.getAttack().getRank())
-				.addParameter("defence_rank", hiscoreResult.getDefence().getRank())
-				.addParameter("strength_rank", hiscoreResult.getStrength().getRank())
-				.addParameter("hitpoints_rank", hiscoreResult.getHitpoints().getRank())
-				.addParameter("ranged_rank", hiscoreResult.getRanged().getRank())
-				.addParameter("prayer_rank", hiscoreResult.getPrayer().getRank())
-				.addParameter("magic_rank", hiscoreResult.getMagic().getRank())
-				.addParameter("cooking_rank", hiscoreResult.getCooking().getRank())
-				.addParameter("woodcutting_rank", hiscoreResult.getWoodcutting().getRank())
-				.addParameter("fletching_rank", hiscoreResult.getFletching().getRank())
-				.addParameter("fishing_rank", hiscoreResult.getFishing().getRank())
-				.addParameter("firemaking_rank", hiscoreResult.getFiremaking().getRank())
-				.addParameter("crafting_rank", hiscoreResult.getCrafting().getRank())
-				.addParameter("smithing_rank", hiscoreResult.getSmithing().getRank())
-				.addParameter("mining_rank", hiscoreResult.getMining().getRank())
-				.addParameter("herblore_rank", hiscoreResult.getHerblore().getRank())
-				.addParameter("agility_rank", hiscoreResult.getAgility().getRank())
-				.addParameter("thieving_rank", hiscoreResult.getThieving().getRank())
-				.addParameter("slayer_rank", hiscoreResult.getSlayer().getRank())
-				.addParameter("farming_rank", hiscoreResult.getFarming().getRank())
-				.addParameter("runecraft_rank", hiscoreResult.getRunecraft().getRank())
-				.addParameter("hunter_rank", hiscoreResult.getHunter().getRank())
-				.addParameter("construction_rank", hiscoreResult.getConstruction().getRank())
-				.addParameter("overall_rank", hiscoreResult.getOverall().getRank())
-				.executeUpdate();
+		PendingXp xp = new PendingXp(playerId, hiscoreData);
+		if (!pending.offer(xp))
+		{
+			// the queue is full, write it out from this thread
+			flush();
+
+			if (!pending.offer(xp))
+			{
+				log.warn("Dropping xp snapshot for {}, the queue is full", username);
+				return;
+			}
 		}
+
+		latestXp.put(playerId, hiscoreData);
 	}
 
-	private synchronized PlayerEntity findOrCreatePlayer(Connection con, String username)
+	/**
+	 * record the xp of a player on the tracker's own thread. Failures are
+	 * logged rather than passed back to the caller.
+	 *
+	 * @param username
+	 * @param hiscoreResult
+	 */
+	public void submit(String username, HiscoreResult hiscoreResult)
 	{
-		PlayerEntity playerEntity = con.createQuery("select * from player where name = :name")
-			.addParameter("name", username)
-			.executeAndFetchFirst(PlayerEntity.class);
-		if (playerEntity != null)
+		executor.execute(() ->
 		{
-			return playerEntity;
+			try
+			{
+				update(username, hiscoreResult);
+			}
+			catch (RuntimeException ex)
+			{
+				log.warn("Unable to update xp for {}", username, ex);
+			}
+		});
+	}
+
+	@PreDestroy
+	public void close() throws InterruptedException
+	{
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+		flush();
+	}
+
+	/**
+	 * write queued xp snapshots to the database. If a batch can't be
+	 * written it is queued again for the next flush.
+	 */
+	@Scheduled(fixedDelay = 1000)
+	public synchronized void flush()
+	{
+		List<PendingXp> batch = new ArrayList<>(BATCH_SIZE);
+		while (pending.drainTo(batch, BATCH_SIZE) > 0)
+		{
+			try
+			{
+				write(batch);
+			}
+			catch (Sql2oException ex)
+			{
+				requeue(batch);
+				throw ex;
+			}
+
+			log.debug("Wrote {} xp snapshots", batch.size());
+			batch.clear();
 		}
+	}
 
-		Instant now = Instant.now();
+	private void requeue(List<PendingXp> batch)
+	{
+		int dropped = 0;
+		for (PendingXp xp : batch)
+		{
+			// the snapshot isn't stored, so it can't be used as the latest xp
+			latestXp.invalidate(xp.getPlayer());
+
+			if (!pending.offer(xp))
+			{
+				++dropped;
+			}
+		}
+
+		if (dropped > 0)
+		{
+			log.warn("Dropped {} xp snapshots which could not be written", dropped);
+		}
+	}
+
+	private void write(List<PendingXp> batch)
+	{
+		try (Connection con = sql2o.beginTransaction())
+		{
+			Query query = con.createQuery(INSERT_XP);
+
+			for (PendingXp pendingXp : batch)
+			{
+				XpData xp = pendingXp.getXp();
+				query
+					.addParameter("player", pendingXp.getPlayer())
+					.addParameter("time", Timestamp.from(xp.getTime()))
+					.addParameter("attack_xp", xp.getAttack_xp())
+					.addParameter("defence_xp", xp.getDefence_xp())
+					.addParameter("strength_xp", xp.getStrength_xp())
+					.addParameter("hitpoints_xp", xp.getHitpoints_xp())
+					.addParameter("ranged_xp", xp.getRanged_xp())
+					.addParameter("prayer_xp", xp.getPrayer_xp())
+					.addParameter("magic_xp", xp.getMagic_xp())
+					.addParameter("cooking_xp", xp.getCooking_xp())
+					.addParameter("woodcutting_xp", xp.getWoodcutting_xp())
+					.addParameter("fletching_xp", xp.getFletching_xp())
+					.addParameter("fishing_xp", xp.getFishing_xp())
+					.addParameter("firemaking_xp", xp.getFiremaking_xp())
+					.addParameter("crafting_xp", xp.getCrafting_xp())
+					.addParameter("smithing_xp", xp.getSmithing_xp())
+					.addParameter("mining_xp", xp.getMining_xp())
+					.addParameter("herblore_xp", xp.getHerblore_xp())
+					.addParameter("agility_xp", xp.getAgility_xp())
+					.addParameter("thieving_xp", xp.getThieving_xp())
+					.addParameter("slayer_xp", xp.getSlayer_xp())
+					.addParameter("farming_xp", xp.getFarming_xp())
+					.addParameter("runecraft_xp", xp.getRunecraft_xp())
+					.addParameter("hunter_xp", xp.getHunter_xp())
+					.addParameter("construction_xp", xp.getConstruction_xp())
+					.addParameter("attack_rank", xp.getAttack_rank())
+					.addParameter("defence_rank", xp.getDefence_rank())
+					.addParameter("strength_rank", xp.getStrength_rank())
+					.addParameter("hitpoints_rank", xp.getHitpoints_rank())
+					.addParameter("ranged_rank", xp.getRanged_rank())
+					.addParameter("prayer_rank", xp.getPrayer_rank())
+					.addParameter("magic_rank", xp.getMagic_rank())
+					.addParameter("cooking_rank", xp.getCooking_rank())
+					.addParameter("woodcutting_rank", xp.getWoodcutting_rank())
+					.addParameter("fletching_rank", xp.getFletching_rank())
+					.addParameter("fishing_rank", xp.getFishing_rank())
+					.addParameter("firemaking_rank", xp.getFiremaking_rank())
+					.addParameter("crafting_rank", xp.getCrafting_rank())
+					.addParameter("smithing_rank", xp.getSmithing_rank())
+					.addParameter("mining_rank", xp.getMining_rank())
+					.addParameter("herblore_rank", xp.getHerblore_rank())
+					.addParameter("agility_rank", xp.getAgility_rank())
+					.addParameter("thieving_rank", xp.getThieving_rank())
+					.addParameter("slayer_rank", xp.getSlayer_rank())
+					.addParameter("farming_rank", xp.getFarming_rank())
+					.addParameter("runecraft_rank", xp.getRunecraft_rank())
+					.addParameter("hunter_rank", xp.getHunter_rank())
+					.addParameter("construction_rank", xp.getConstruction_rank())
+					.addParameter("overall_rank", xp.getOverall_rank())
+					.addToBatch();
+			}
+
+			query.executeBatch();
+			con.commit(false);
+		}
+	}
+
+	private int findOrCreatePlayer(String username)
+	{
+		Integer id = playerIds.getIfPresent(username);
+		if (id != null)
+		{
+			return id;
+		}
+
+		try (Connection con = sql2o.open())
+		{
+			// last_insert_id(id) makes the key of an existing player available as the generated key
+			id = con.createQuery("insert into player (name, tracked_since) values (:name, :tracked_since) "
+				+ "on duplicate key update id = last_insert_id(id)")
+				.addParameter("name", username)
+				.addParameter("tracked_since", Instant.now())
+				.executeUpdate()
+				.getKey(int.class);
+		}
 
-		int id = con.createQuery("insert into player (name, tracked_since) values (:name, :tracked_since)")
-			.addParameter("name", username)
-			.addParameter("tracked_since", now)
-			.executeUpdate()
-			.getKey(int.class);
-
-		playerEntity = new PlayerEntity();
-		playerEntity.setId(id);
-		playerEntity.setName(username);
-		playerEntity.setTracked_since(now);
-		return playerEntity;
+		playerIds.put(username, id);
+		return id;
+	}
+
+	private XpData findLatestXp(int playerId)
+	{
+		XpData xp = latestXp.getIfPresent(playerId);
+		if (xp != null)
+		{
+			return xp;
+		}
+
+		XpEntity xpEntity;
+		try (Connection con = sql2o.open())
+		{
+			xpEntity = con.createQuery("select * from xp where player = :player order by time desc limit 1")
+				.throwOnMappingFailure(false)
+				.addParameter("player", playerId)
+				.executeAndFetchFirst(XpEntity.class);
+		}
+
+		if (xpEntity == null)
+		{
+			return null;
+		}
+
+		xp = XpMapper.INSTANCE.xpEntityToXpData(xpEntity);
+		latestXp.put(playerId, xp);
+		return xp;
 	}
 
 	private XpEntity findXpAtTime(Connection con, String username, Instant time)
@@ -189,4 +384,11 @@ public class XpTrackerService
 			return findXpAtTime(con, username, time);
 		}
 	}
+
+	@Value
+	private static class PendingXp
+	{
+		int player;
+		XpData xp;
+	}
 }
@@ -24,9 +24,18 @@
  */
 package net.runelite.http.service.xtea;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
+import lombok.Value;
 import net.runelite.cache.IndexType;
 import net.runelite.cache.fs.Container;
 import net.runelite.cache.util.Djb2;
@@ -72,6 +81,23 @@ public class XteaService
 	private final Sql2o sql2o;
 	private final CacheService cacheService;
 
+	/**
+	 * most recent keys of each region
+	 */
+	private final ConcurrentMap<Integer, XteaEntry> latestKeys = new ConcurrentHashMap<>();
+
+	/**
+	 * results of checking keys against the map archives of a cache
+	 */
+	private final Cache<KeyCheck, Boolean> keyChecks = CacheBuilder.newBuilder()
+		.maximumSize(16384L)
+		.build();
+
+	/**
+	 * response of {@link #get()}, rebuilt after keys are added
+	 */
+	private volatile List<XteaKey> allKeys = Collections.emptyList();
+
 	@Autowired
 	public XteaService(
 		@Qualifier("Runelite SQL2O") Sql2o sql2o,
@@ -86,104 +112,135 @@ public class XteaService
 			con.createQuery(CREATE_SQL)
 				.executeUpdate();
 		}
+
+		loadLatestKeys();
 	}
 
-	private XteaEntry findLatestXtea(Connection con, int region)
+	private void loadLatestKeys()
 	{
-		return con.createQuery("select region, time, key1, key2, key3, key4 from xtea "
-			+ "where region = :region "
-			+ "order by time desc "
-			+ "limit 1")
-			.addParameter("region", region)
-			.executeAndFetchFirst(XteaEntry.class);
+		try (Connection con = sql2o.open())
+		{
+			List<XteaEntry> entries = con.createQuery(
+				"select t1.region, t1.time, t2.rev, t2.key1, t2.key2, t2.key3, t2.key4 from " +
+					"(select region,max(time) as time from xtea group by region) t1 " +
+					"join xtea t2 on t1.region = t2.region and t1.time = t2.time")
+				.executeAndFetch(XteaEntry.class);
+
+			for (XteaEntry entry : entries)
+			{
+				latestKeys.put(entry.getRegion(), entry);
+			}
+		}
+
+		rebuildKeys();
+		logger.info("Loaded keys for {} regions", latestKeys.size());
+	}
+
+	private synchronized void rebuildKeys()
+	{
+		List<XteaKey> keys = latestKeys.values().stream()
+			.sorted(Comparator.comparingInt(XteaEntry::getRegion))
+			.map(XteaService::entryToKey)
+			.collect(Collectors.toList());
+		allKeys = Collections.unmodifiableList(keys);
 	}
 
 	@RequestMapping(method = POST)
 	public void submit(@RequestBody XteaRequest xteaRequest)
 	{
-		try (Connection con = sql2o.beginTransaction())
+		CacheEntry cache = null;
+		List<XteaEntry> newEntries = new ArrayList<>();
+
+		for (XteaKey key : xteaRequest.getKeys())
 		{
-			CacheEntry cache = cacheService.findMostRecent();
+			int region = key.getRegion();
+			int[] keys = key.getKeys();
 
-			if (cache == null)
+			if (keys.length != 4)
 			{
-				throw new InternalServerErrorException("No most recent cache");
+				throw new IllegalArgumentException("Key length must be 4");
 			}
 
-			Query query = con.createQuery("insert into xtea (region, rev, key1, key2, key3, key4) "
-				+ "values (:region, :rev, :key1, :key2, :key3, :key4)");
+			XteaEntry xteaEntry = latestKeys.get(region);
 
-			for (XteaKey key : xteaRequest.getKeys())
+			// already have these?
+			if (xteaEntry != null
+				&& xteaEntry.getKey1() == keys[0]
+				&& xteaEntry.getKey2() == keys[1]
+				&& xteaEntry.getKey3() == keys[2]
+				&& xteaEntry.getKey4() == keys[3])
 			{
-				int region = key.getRegion();
-				int[] keys = key.getKeys();
+				continue;
+			}
 
-				XteaEntry xteaEntry = findLatestXtea(con, region);
+			if (cache == null)
+			{
+				cache = cacheService.findMostRecent();
 
-				if (keys.length != 4)
+				if (cache == null)
 				{
-					throw new IllegalArgumentException("Key length must be 4");
+					throw new InternalServerErrorException("No most recent cache");
 				}
+			}
 
-				// already have these?
-				if (xteaEntry != null
-					&& xteaEntry.getKey1() == keys[0]
-					&& xteaEntry.getKey2() == keys[1]
-					&& xteaEntry.getKey3() == keys[2]
-					&& xteaEntry.getKey4() == keys[3])
-				{
-					continue;
-				}
+			if (!checkKeysCached(cache, region, keys))
+			{
+				continue;
+			}
 
-				if (!checkKeys(cache, region, keys))
-				{
-					continue;
-				}
+			XteaEntry entry = new XteaEntry();
+			entry.setRegion(region);
+			entry.setTime(Instant.now());
+			entry.setRev(xteaRequest.getRevision());
+			entry.setKey1(keys[0]);
+			entry.setKey2(keys[1]);
+			entry.setKey3(keys[2]);
+			entry.setKey4(keys[3]);
+			newEntries.add(entry);
+		}
 
-				query.addParameter("region", region)
-					.addParameter("rev", xteaRequest.getRevision())
-					.addParameter("key1", keys[0])
-					.addParameter("key2", keys[1])
-					.addParameter("key3", keys[2])
-					.addParameter("key4", keys[3])
+		if (newEntries.isEmpty())
+		{
+			return;
+		}
+
+		try (Connection con = sql2o.beginTransaction())
+		{
+			Query query = con.createQuery("insert into xtea (region, rev, key1, key2, key3, key4) "
+				+ "values (:region, :rev, :key1, :key2, :key3, :key4)");
+
+			for (XteaEntry entry : newEntries)
+			{
+				query.addParameter("region", entry.getRegion())
+					.addParameter("rev", entry.getRev())
+					.addParameter("key1", entry.getKey1())
+					.addParameter("key2", entry.getKey2())
+					.addParameter("key3", entry.getKey3())
+					.addParameter("key4", entry.getKey4())
 					.addToBatch();
 			}
 
 			query.executeBatch();
 			con.commit(false);
 		}
+
+		for (XteaEntry entry : newEntries)
+		{
+			latestKeys.put(entry.getRegion(), entry);
+		}
+		rebuildKeys();
 	}
 
 	@RequestMapping
 	public List<XteaKey> get()
 	{
-		try (Connection con = sql2o.open())
-		{
-			List<XteaEntry> entries = con.createQuery(
-				"select t1.region, t1.time, t2.rev, t2.key1, t2.key2, t2.key3, t2.key4 from " +
-					"(select region,max(time) as time from xtea group by region) t1 " +
-					"join xtea t2 on t1.region = t2.region and t1.time = t2.time")
-				.executeAndFetch(XteaEntry.class);
-
-			return entries.stream()
-				.map(XteaService::entryToKey)
-				.collect(Collectors.toList());
-		}
+		return allKeys;
 	}
 
 	@RequestMapping("/{region}")
 	public XteaKey getRegion(@PathVariable int region)
 	{
-		XteaEntry entry;
-
-		try (Connection con = sql2o.open())
-		{
-			entry = con.createQuery("select region, time, rev, key1, key2, key3, key4 from xtea "
-				+ "where region = :region order by time desc limit 1")
-				.addParameter("region", region)
-				.executeAndFetchFirst(XteaEntry.class);
-		}
-
+		XteaEntry entry = latestKeys.get(region);
 		if (entry == null)
 		{
 			throw new NotFoundException();
@@ -192,6 +249,18 @@ public class XteaService
 		return entryToKey(entry);
 	}
 
+	private boolean checkKeysCached(CacheEntry cache, int regionId, int[] keys)
+	{
+		KeyCheck check = new KeyCheck(cache.getId(), regionId, keys[0], keys[1], keys[2], keys[3]);
+		Boolean valid = keyChecks.getIfPresent(check);
+		if (valid == null)
+		{
+			valid = checkKeys(cache, regionId, keys);
+			keyChecks.put(check, valid);
+		}
+		return valid;
+	}
+
 	private boolean checkKeys(CacheEntry cache, int regionId, int[] keys)
 	{
 		int x = regionId >>> 8;
@@ -241,4 +310,15 @@ public class XteaService
 		});
 		return xteaKey;
 	}
+
+	@Value
+	private static class KeyCheck
+	{
+		int cache;
+		int region;
+		int key1;
+		int key2;
+		int key3;
+		int key4;
+	}
 }
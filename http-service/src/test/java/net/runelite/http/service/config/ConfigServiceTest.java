@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import net.runelite.http.api.config.ConfigEntry;
+import net.runelite.http.api.config.Configuration;
+import net.runelite.http.service.account.AuthFilter;
+import net.runelite.http.service.account.beans.SessionEntry;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.sql2o.Connection;
+import org.sql2o.Query;
+import org.sql2o.Sql2o;
+
+public class ConfigServiceTest
+{
+	private static final int USER = 42;
+
+	private final HttpServletRequest request = mock(HttpServletRequest.class);
+	private final HttpServletResponse response = mock(HttpServletResponse.class);
+
+	private final Query selectQuery = mockQuery();
+	private final Query setQuery = mockQuery();
+	private final Query unsetQuery = mockQuery();
+
+	private final List<ConfigEntry> stored = new ArrayList<>();
+
+	private ConfigService configService;
+
+	@Before
+	public void before() throws IOException
+	{
+		// table creation
+		Query createQuery = mockQuery();
+
+		Connection con = mock(Connection.class);
+		when(con.createQuery(anyString())).thenReturn(createQuery);
+		when(con.createQuery(startsWith("select"))).thenReturn(selectQuery);
+		when(con.createQuery(startsWith("insert"))).thenReturn(setQuery);
+		when(con.createQuery(startsWith("delete"))).thenReturn(unsetQuery);
+		when(selectQuery.executeAndFetch(ConfigEntry.class)).thenAnswer(invocation -> new ArrayList<>(stored));
+
+		Sql2o sql2o = mock(Sql2o.class);
+		when(sql2o.open()).thenReturn(con);
+		when(sql2o.beginTransaction()).thenReturn(con);
+
+		SessionEntry session = new SessionEntry();
+		session.setUser(USER);
+
+		AuthFilter auth = mock(AuthFilter.class);
+		when(auth.handle(request, response)).thenReturn(session);
+
+		stored.add(entry("test.key", "value"));
+
+		configService = new ConfigService(sql2o, auth);
+	}
+
+	@Test
+	public void testNotModified() throws IOException
+	{
+		ResponseEntity<Configuration> first = configService.get(request, response, null);
+		assertEquals(HttpStatus.OK, first.getStatusCode());
+		assertEquals(1, first.getBody().getConfig().size());
+
+		String etag = first.getHeaders().getETag();
+		assertNotNull(etag);
+
+		ResponseEntity<Configuration> second = configService.get(request, response, etag);
+		assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+		assertEquals(etag, second.getHeaders().getETag());
+		assertNull(second.getBody());
+
+		ResponseEntity<Configuration> stale = configService.get(request, response, "\"stale\"");
+		assertEquals(HttpStatus.OK, stale.getStatusCode());
+
+		// the configuration is cached between requests
+		verify(selectQuery, times(1)).executeAndFetch(ConfigEntry.class);
+	}
+
+	@Test
+	public void testPatch() throws IOException
+	{
+		String etag = configService.get(request, response, null).getHeaders().getETag();
+
+		configService.patch(request, response, Arrays.asList(
+			entry("test.key", "value2"),
+			entry("test.other", null)
+		));
+
+		verify(setQuery).addParameter("key", "test.key");
+		verify(setQuery).addParameter("value", "value2");
+		verify(setQuery, times(1)).addToBatch();
+		verify(setQuery).executeBatch();
+		verify(unsetQuery).addParameter("key", "test.other");
+		verify(unsetQuery, times(1)).addToBatch();
+		verify(unsetQuery).executeBatch();
+
+		stored.clear();
+		stored.add(entry("test.key", "value2"));
+
+		// the patch invalidates the cached configuration, so it is reloaded with a new etag
+		ResponseEntity<Configuration> after = configService.get(request, response, etag);
+		assertEquals(HttpStatus.OK, after.getStatusCode());
+		assertEquals("value2", after.getBody().getConfig().get(0).getValue());
+		verify(selectQuery, times(2)).executeAndFetch(ConfigEntry.class);
+	}
+
+	@Test
+	public void testChangeDuringRead() throws IOException
+	{
+		// another request sets a key after the configuration is read, but before it is cached
+		when(selectQuery.executeAndFetch(ConfigEntry.class)).thenAnswer(invocation ->
+		{
+			List<ConfigEntry> config = new ArrayList<>(stored);
+			configService.setKey(request, response, "test.key", "value2");
+			stored.clear();
+			stored.add(entry("test.key", "value2"));
+			return config;
+		});
+
+		ResponseEntity<Configuration> first = configService.get(request, response, null);
+		assertEquals("value", first.getBody().getConfig().get(0).getValue());
+
+		when(selectQuery.executeAndFetch(ConfigEntry.class)).thenAnswer(invocation -> new ArrayList<>(stored));
+
+		// the stale read wasn't cached
+		ResponseEntity<Configuration> second = configService.get(request, response, first.getHeaders().getETag());
+		assertEquals(HttpStatus.OK, second.getStatusCode());
+		assertEquals("value2", second.getBody().getConfig().get(0).getValue());
+	}
+
+	private static Query mockQuery()
+	{
+		Query query = mock(Query.class);
+		when(query.addParameter(anyString(), anyString())).thenReturn(query);
+		when(query.addParameter(anyString(), anyInt())).thenReturn(query);
+		when(query.addToBatch()).thenReturn(query);
+		return query;
+	}
+
+	private static ConfigEntry entry(String key, String value)
+	{
+		ConfigEntry entry = new ConfigEntry();
+		entry.setKey(key);
+		entry.setValue(value);
+		return entry;
+	}
+}
@@ -25,8 +25,12 @@
 package net.runelite.http.service.hiscore;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import net.runelite.http.api.hiscore.HiscoreEndpoint;
 import net.runelite.http.api.hiscore.HiscoreResult;
+import net.runelite.http.service.util.exception.NotFoundException;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import org.junit.After;
@@ -75,7 +79,9 @@ public class HiscoreServiceTest
 	@Before
 	public void before() throws IOException
 	{
-		server.enqueue(new MockResponse().setBody(RESPONSE));
+		server.enqueue(new MockResponse()
+			.setBody(RESPONSE)
+			.setBodyDelay(100, TimeUnit.MILLISECONDS));
 
 		server.start();
 	}
@@ -105,4 +111,53 @@ public class HiscoreServiceTest
 		Assert.assertEquals(-1, result.getLastManStanding().getLevel());
 	}
 
+	@Test
+	public void testConcurrentLookupsCoalesced() throws Exception
+	{
+		HiscoreTestService hiscores = new HiscoreTestService(server.url("/"));
+
+		CompletableFuture<HiscoreResult> first = hiscores.lookupUsernameAsync("zezima", HiscoreEndpoint.NORMAL);
+		CompletableFuture<HiscoreResult> second = hiscores.lookupUsernameAsync("zezima", HiscoreEndpoint.NORMAL);
+
+		Assert.assertSame(first.get(), second.get());
+		Assert.assertEquals(1, server.getRequestCount());
+
+		// served from the cache
+		Assert.assertSame(first.get(), hiscores.lookupUsername("zezima", HiscoreEndpoint.NORMAL));
+		Assert.assertEquals(1, server.getRequestCount());
+	}
+
+	@Test
+	public void testUnknownPlayer() throws Exception
+	{
+		MockWebServer notFoundServer = new MockWebServer();
+		notFoundServer.enqueue(new MockResponse().setResponseCode(404));
+		notFoundServer.enqueue(new MockResponse().setResponseCode(404));
+		notFoundServer.start();
+
+		try
+		{
+			HiscoreTestService hiscores = new HiscoreTestService(notFoundServer.url("/"));
+
+			for (int i = 1; i <= 2; ++i)
+			{
+				try
+				{
+					hiscores.lookupUsername("nobody", HiscoreEndpoint.NORMAL);
+					Assert.fail("lookup of an unknown player should fail");
+				}
+				catch (ExecutionException ex)
+				{
+					Assert.assertTrue(ex.getCause() instanceof NotFoundException);
+				}
+
+				// not found isn't cached
+				Assert.assertEquals(i, notFoundServer.getRequestCount());
+			}
+		}
+		finally
+		{
+			notFoundServer.shutdown();
+		}
+	}
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.http.service.util.InstantConverter;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.sql2o.Connection;
+import org.sql2o.Sql2o;
+import org.sql2o.converters.Converter;
+import org.sql2o.quirks.NoQuirks;
+
+/**
+ * Compares batched price lookups with looking up each price individually,
+ * against a local database with a populated prices table.
+ */
+@Slf4j
+@Ignore
+public class ItemServiceBenchmark
+{
+	private static final int ITERATIONS = 50;
+
+	private Sql2o sql2o;
+	private ItemService itemService;
+	private int[] itemIds;
+
+	@Before
+	public void before()
+	{
+		Map<Class, Converter> converters = new HashMap<>();
+		converters.put(Instant.class, new InstantConverter());
+		sql2o = new Sql2o("jdbc:mysql://localhost/runelite", "runelite", "runelite", new NoQuirks(converters));
+		itemService = new ItemService(sql2o, null);
+
+		try (Connection con = sql2o.open())
+		{
+			List<Integer> ids = con.createQuery("select distinct item from prices limit 1000")
+				.executeScalarList(Integer.class);
+			itemIds = ids.stream().mapToInt(Integer::intValue).toArray();
+		}
+	}
+
+	@Test
+	public void benchmark()
+	{
+		for (int batchSize : new int[]{1, 100, 1000})
+		{
+			int[] batch = Arrays.copyOf(itemIds, Math.min(batchSize, itemIds.length));
+
+			// warm up, and check both return the same prices
+			List<PriceEntry> batched = itemService.getPrices(batch);
+			Assert.assertEquals(lookupEach(batch), batched.size());
+
+			long start = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; ++i)
+			{
+				itemService.getPrices(batch);
+			}
+			long batchedTime = (System.nanoTime() - start) / ITERATIONS;
+
+			start = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; ++i)
+			{
+				lookupEach(batch);
+			}
+			long eachTime = (System.nanoTime() - start) / ITERATIONS;
+
+			log.info("batch size {}: batched {}us per request, one query per item {}us per request",
+				batch.length, TimeUnit.NANOSECONDS.toMicros(batchedTime), TimeUnit.NANOSECONDS.toMicros(eachTime));
+		}
+	}
+
+	private int lookupEach(int[] batch)
+	{
+		int found = 0;
+		for (int itemId : batch)
+		{
+			if (itemService.getPrice(itemId, null) != null)
+			{
+				++found;
+			}
+		}
+		return found;
+	}
+}
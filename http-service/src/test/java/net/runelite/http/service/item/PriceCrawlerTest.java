@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import com.google.common.util.concurrent.RateLimiter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PriceCrawlerTest
+{
+	private final MockWebServer server = new MockWebServer();
+	private final List<Map<Integer, RSPrices>> batches = new ArrayList<>();
+	private PriceCrawler crawler;
+
+	@Before
+	public void before() throws IOException
+	{
+		server.setDispatcher(new Dispatcher()
+		{
+			@Override
+			public MockResponse dispatch(RecordedRequest request)
+			{
+				return new MockResponse().setBody("{\"daily\":{\"1526342400000\":100}}");
+			}
+		});
+		server.start();
+
+		HttpUrl url = server.url("/api/graph");
+		crawler = new PriceCrawler(itemId -> ItemService.fetchRSPrices(url, itemId), batches::add, 4, RateLimiter.create(20));
+	}
+
+	@After
+	public void after() throws IOException
+	{
+		crawler.close();
+		server.shutdown();
+	}
+
+	@Test
+	public void testCrawl() throws Exception
+	{
+		crawler.setItems(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+
+		long start = System.nanoTime();
+		assertEquals(10, crawler.crawl(10));
+		long elapsed = System.nanoTime() - start;
+
+		assertEquals(10, server.getRequestCount());
+		// 10 requests at 20 per second
+		assertTrue(elapsed >= 400_000_000L);
+
+		// written in one batch
+		assertEquals(1, batches.size());
+		assertEquals(10, batches.get(0).size());
+		assertEquals(100, (int) batches.get(0).get(7).getDaily().get(1526342400000L));
+	}
+
+	@Test
+	public void testOrder()
+	{
+		crawler.setItems(new int[]{1, 2, 3});
+		crawler.setLastFetched(1, 1000);
+		crawler.setLastFetched(2, 1000);
+		crawler.setLastFetched(3, 500);
+
+		// the most stale item comes first
+		assertArrayEquals(new int[]{3}, crawler.next(1, 2000));
+
+		// then popular ones
+		for (int i = 0; i < 10; ++i)
+		{
+			crawler.recordLookup(2);
+		}
+		assertArrayEquals(new int[]{2, 3, 1}, crawler.next(3, 2000));
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.xp;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.http.api.hiscore.HiscoreResult;
+import net.runelite.http.api.hiscore.Skill;
+import net.runelite.http.service.util.InstantConverter;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.sql2o.Sql2o;
+import org.sql2o.converters.Converter;
+import org.sql2o.quirks.NoQuirks;
+
+/**
+ * Measures xp update throughput with an increasing number of threads,
+ * against a local xp tracker database.
+ */
+@Slf4j
+@Ignore
+public class XpTrackerServiceLoadTest
+{
+	private static final int UPDATES_PER_THREAD = 2000;
+
+	private XpTrackerService xpTrackerService;
+
+	@Before
+	public void before()
+	{
+		Map<Class, Converter> converters = new HashMap<>();
+		converters.put(Instant.class, new InstantConverter());
+		Sql2o sql2o = new Sql2o("jdbc:mysql://localhost/xptracker", "runelite", "runelite", new NoQuirks(converters));
+		xpTrackerService = new XpTrackerService(sql2o, null);
+	}
+
+	@Test
+	public void testLoad() throws Exception
+	{
+		String run = Long.toString(System.currentTimeMillis() % 1_000_000L, 36);
+
+		for (int threads : new int[]{1, 2, 4, 8, 16})
+		{
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+			List<Future<?>> futures = new ArrayList<>(threads);
+
+			long start = System.nanoTime();
+			for (int t = 0; t < threads; ++t)
+			{
+				String prefix = run + "-" + threads + "-" + t + "-";
+				futures.add(executor.submit(() ->
+				{
+					for (int i = 0; i < UPDATES_PER_THREAD; ++i)
+					{
+						xpTrackerService.update(prefix + i, hiscoreResult(i));
+					}
+				}));
+			}
+
+			for (Future<?> future : futures)
+			{
+				future.get();
+			}
+			xpTrackerService.flush();
+			long elapsed = System.nanoTime() - start;
+
+			executor.shutdown();
+
+			int updates = threads * UPDATES_PER_THREAD;
+			log.info("{} threads: {} updates in {}ms, {} updates/s", threads, updates,
+				TimeUnit.NANOSECONDS.toMillis(elapsed), updates * 1_000_000_000L / elapsed);
+		}
+	}
+
+	private static HiscoreResult hiscoreResult(int i)
+	{
+		HiscoreResult hiscoreResult = new HiscoreResult();
+		hiscoreResult.setOverall(new Skill(i + 1, 32, 1_000_000 + i));
+		hiscoreResult.setAttack(new Skill(i + 1, 99, 13_034_431));
+		hiscoreResult.setAgility(new Skill(i + 1, 50, 101_333 + i));
+		return hiscoreResult;
+	}
+}
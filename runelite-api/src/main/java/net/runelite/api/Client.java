@@ -561,6 +561,109 @@ public interface Client extends GameEngine
 	 */
 	void setMenuEntries(MenuEntry[] entries);
 
+	/**
+	 * Gets the number of open right-click menu entries.
+	 * <p>
+	 * Along with the indexed menu accessors below, this allows reading
+	 * and modifying the menu in place without the copies made by
+	 * {@link #getMenuEntries()} and {@link #setMenuEntries(MenuEntry[])}.
+	 * Entries are indexed in the same order as {@link #getMenuEntries()},
+	 * so the last entry is the default (left-click) option.
+	 *
+	 * @return the number of menu entries
+	 */
+	int getMenuEntryCount();
+
+	/**
+	 * Gets the option of a menu entry.
+	 *
+	 * @param index the menu entry index
+	 * @return the option, ie. "Walk here"
+	 */
+	String getMenuOption(int index);
+
+	/**
+	 * Sets the option of a menu entry.
+	 *
+	 * @param index the menu entry index
+	 * @param option the new option
+	 */
+	void setMenuOption(int index, String option);
+
+	/**
+	 * Gets the target of a menu entry.
+	 *
+	 * @param index the menu entry index
+	 * @return the target
+	 */
+	String getMenuTarget(int index);
+
+	/**
+	 * Sets the target of a menu entry.
+	 *
+	 * @param index the menu entry index
+	 * @param target the new target
+	 */
+	void setMenuTarget(int index, String target);
+
+	/**
+	 * Gets the type of a menu entry.
+	 *
+	 * @param index the menu entry index
+	 * @return the menu action type
+	 * @see MenuAction
+	 */
+	int getMenuType(int index);
+
+	/**
+	 * Sets the type of a menu entry.
+	 *
+	 * @param index the menu entry index
+	 * @param type the new menu action type
+	 */
+	void setMenuType(int index, int type);
+
+	/**
+	 * Gets the identifier of a menu entry.
+	 *
+	 * @param index the menu entry index
+	 * @return the identifier
+	 */
+	int getMenuIdentifier(int index);
+
+	/**
+	 * Sets the identifier of a menu entry.
+	 *
+	 * @param index the menu entry index
+	 * @param identifier the new identifier
+	 */
+	void setMenuIdentifier(int index, int identifier);
+
+	/**
+	 * Gets the first action parameter of a menu entry.
+	 *
+	 * @param index the menu entry index
+	 * @return the first action parameter
+	 */
+	int getMenuParam0(int index);
+
+	/**
+	 * Gets the second action parameter of a menu entry, which is
+	 * the widget id for widget menu entries.
+	 *
+	 * @param index the menu entry index
+	 * @return the second action parameter
+	 */
+	int getMenuParam1(int index);
+
+	/**
+	 * Swaps two menu entries in place.
+	 *
+	 * @param first the index of the first entry
+	 * @param second the index of the second entry
+	 */
+	void swapMenuEntries(int first, int second);
+
 	/**
 	 * Checks whether a right-click menu is currently open.
 	 *
@@ -25,11 +25,11 @@
 package net.runelite.client;
 
 import com.google.common.eventbus.EventBus;
-import com.google.common.eventbus.SubscriberExceptionContext;
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.name.Names;
 import java.applet.Applet;
+import java.lang.reflect.Method;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import javax.annotation.Nullable;
@@ -46,9 +46,11 @@ import net.runelite.client.config.RuneLiteConfig;
 import net.runelite.client.game.ItemManager;
 import net.runelite.client.menus.MenuManager;
 import net.runelite.client.plugins.PluginManager;
+import net.runelite.client.profiler.Profiler;
 import net.runelite.client.rs.ClientLoader;
 import net.runelite.client.rs.ClientUpdateCheckMode;
 import net.runelite.client.task.Scheduler;
+import net.runelite.client.util.CompiledEventBus;
 import net.runelite.client.util.DeferredEventBus;
 import net.runelite.client.util.ExecutorServiceExceptionLogger;
 import net.runelite.client.util.QueryRunner;
@@ -126,12 +128,12 @@ public class RuneLiteModule extends AbstractModule
 
 	@Provides
 	@Singleton
-	EventBus provideEventBus()
+	EventBus provideEventBus(Profiler profiler)
 	{
-		return new EventBus(RuneLiteModule::eventExceptionHandler);
+		return new CompiledEventBus(RuneLiteModule::eventExceptionHandler, profiler);
 	}
 
-	private static void eventExceptionHandler(Throwable exception, SubscriberExceptionContext context)
+	private static void eventExceptionHandler(Throwable exception, Object event, Object subscriber, Method method)
 	{
 		log.warn("uncaught exception in event subscriber", exception);
 	}
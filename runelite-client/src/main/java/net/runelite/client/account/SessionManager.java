@@ -175,6 +175,9 @@ public class SessionManager
 
 		log.debug("Logging out of account {}", accountSession.getUsername());
 
+		// send pending config changes while the session is still valid
+		configManager.sendConfig();
+
 		AccountClient client = new AccountClient(accountSession.getUuid());
 		try
 		{
@@ -31,6 +31,8 @@ import java.util.function.BooleanSupplier;
 import javax.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
+import net.runelite.client.profiler.ProfileCategory;
+import net.runelite.client.profiler.Profiler;
 
 @Singleton
 @Slf4j
@@ -41,13 +43,12 @@ public class ClientThread
 	@Inject
 	private Client client;
 
+	@Inject
+	private Profiler profiler;
+
 	public void invoke(Runnable r)
 	{
-		invoke(() ->
-		{
-			r.run();
-			return true;
-		});
+		invoke(new RunnableInvoke(r));
 	}
 
 	/**
@@ -74,11 +75,7 @@ public class ClientThread
 	 */
 	public void invokeLater(Runnable r)
 	{
-		invokeLater(() ->
-		{
-			r.run();
-			return true;
-		});
+		invokeLater(new RunnableInvoke(r));
 	}
 
 	public void invokeLater(BooleanSupplier r)
@@ -94,6 +91,9 @@ public class ClientThread
 		{
 			BooleanSupplier r = ir.next();
 			boolean remove = true;
+			final boolean profiling = profiler.isEnabled();
+			final long startNanos = profiling ? System.nanoTime() : 0L;
+			final long startBytes = profiling ? profiler.getAllocatedBytes() : 0L;
 			try
 			{
 				remove = r.getAsBoolean();
@@ -106,10 +106,33 @@ public class ClientThread
 			{
 				log.warn("Exception in invoke", e);
 			}
+			if (profiling)
+			{
+				// attribute wrapped runnables to the code which submitted them
+				Object source = r instanceof RunnableInvoke ? ((RunnableInvoke) r).runnable : r;
+				profiler.record(ProfileCategory.CLIENT_THREAD, source, startNanos, startBytes);
+			}
 			if (remove)
 			{
 				ir.remove();
 			}
 		}
 	}
+
+	private static class RunnableInvoke implements BooleanSupplier
+	{
+		private final Runnable runnable;
+
+		RunnableInvoke(Runnable runnable)
+		{
+			this.runnable = runnable;
+		}
+
+		@Override
+		public boolean getAsBoolean()
+		{
+			runnable.run();
+			return true;
+		}
+	}
 }
@@ -44,6 +44,8 @@ import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.nio.channels.FileLock;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
@@ -67,6 +69,10 @@ import net.runelite.http.api.config.Configuration;
 public class ConfigManager
 {
 	private static final String SETTINGS_FILE_NAME = "settings.properties";
+	/**
+	 * ETag of the configuration last downloaded into the profile's settings file
+	 */
+	private static final String ETAG_FILE_NAME = "settings.etag";
 
 	@Inject
 	EventBus eventBus;
@@ -88,6 +94,9 @@ public class ConfigManager
 
 	public final void switchSession(AccountSession session)
 	{
+		// send changes made under the previous session
+		sendConfig();
+
 		if (session == null)
 		{
 			this.session = null;
@@ -104,6 +113,19 @@ public class ConfigManager
 		load(); // load profile specific config
 	}
 
+	/**
+	 * send configuration changes which are waiting to be synchronized,
+	 * blocking until they are sent
+	 */
+	public void sendConfig()
+	{
+		ConfigClient client = this.client;
+		if (client != null)
+		{
+			client.flush();
+		}
+	}
+
 	private File getPropertiesFile()
 	{
 		// Sessions that aren't logged in have no username
@@ -130,7 +152,7 @@ public class ConfigManager
 
 		try
 		{
-			configuration = client.get();
+			configuration = client.get(loadEtag());
 		}
 		catch (IOException ex)
 		{
@@ -139,6 +161,13 @@ public class ConfigManager
 			return;
 		}
 
+		if (configuration == null)
+		{
+			log.debug("Configuration is unchanged, using saved configuration on disk");
+			loadFromFile();
+			return;
+		}
+
 		if (configuration.getConfig().isEmpty())
 		{
 			log.debug("No configuration from client, using saved configuration on disk");
@@ -168,6 +197,7 @@ public class ConfigManager
 		try
 		{
 			saveToFile();
+			saveEtag(client.getEtag());
 
 			log.debug("Updated configuration on disk with the latest version");
 		}
@@ -177,6 +207,42 @@ public class ConfigManager
 		}
 	}
 
+	/**
+	 * Load the ETag of the configuration saved on disk, if the saved
+	 * configuration can be reused when it is unchanged
+	 */
+	private String loadEtag()
+	{
+		File etagFile = new File(propertiesFile.getParentFile(), ETAG_FILE_NAME);
+		if (!propertiesFile.exists() || !etagFile.exists())
+		{
+			return null;
+		}
+
+		try
+		{
+			String etag = new String(Files.readAllBytes(etagFile.toPath()), StandardCharsets.UTF_8).trim();
+			return etag.isEmpty() ? null : etag;
+		}
+		catch (IOException ex)
+		{
+			log.debug("Unable to read configuration etag", ex);
+			return null;
+		}
+	}
+
+	private void saveEtag(String etag) throws IOException
+	{
+		File etagFile = new File(propertiesFile.getParentFile(), ETAG_FILE_NAME);
+		if (etag == null)
+		{
+			etagFile.delete();
+			return;
+		}
+
+		Files.write(etagFile.toPath(), etag.getBytes(StandardCharsets.UTF_8));
+	}
+
 	private synchronized void loadFromFile()
 	{
 		properties.clear();
@@ -126,10 +126,10 @@ public class MenuManager
 
 	private boolean menuContainsCustomMenu(WidgetMenuOption customMenuOption)
 	{
-		for (MenuEntry menuEntry : client.getMenuEntries())
+		for (int i = client.getMenuEntryCount() - 1; i >= 0; i--)
 		{
-			String option = menuEntry.getOption();
-			String target = menuEntry.getTarget();
+			String option = client.getMenuOption(i);
+			String target = client.getMenuTarget(i);
 
 			if (option.equals(customMenuOption.getMenuOption()) && target.equals(customMenuOption.getMenuTarget()))
 			{
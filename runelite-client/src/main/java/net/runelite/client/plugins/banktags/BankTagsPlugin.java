@@ -215,8 +215,6 @@ public class BankTagsPlugin extends Plugin implements MouseWheelListener, KeyLis
 	@Subscribe
 	public void onMenuEntryAdded(MenuEntryAdded event)
 	{
-		MenuEntry[] entries = client.getMenuEntries();
-
 		if (event.getActionParam1() == WidgetInfo.BANK_ITEM_CONTAINER.getId()
 			&& event.getOption().equals("Examine"))
 		{
@@ -238,6 +236,7 @@ public class BankTagsPlugin extends Plugin implements MouseWheelListener, KeyLis
 			editTags.setOption(text);
 			editTags.setType(MenuAction.RUNELITE.getId());
 			editTags.setIdentifier(event.getIdentifier());
+			MenuEntry[] entries = client.getMenuEntries();
 			entries = Arrays.copyOf(entries, entries.length + 1);
 			entries[entries.length - 1] = editTags;
 			client.setMenuEntries(entries);
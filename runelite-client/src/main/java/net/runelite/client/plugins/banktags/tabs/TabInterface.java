@@ -494,26 +494,25 @@ public class TabInterface
 			return;
 		}
 
-		MenuEntry[] entries = client.getMenuEntries();
-		MenuEntry entry = entries[entries.length - 1];
+		final int last = client.getMenuEntryCount() - 1;
+		final String option = client.getMenuOption(last);
 
 		if (activeTab != null
 			&& event.getActionParam1() == WidgetInfo.BANK_ITEM_CONTAINER.getId()
 			&& event.getOption().equals("Examine"))
 		{
-			entries = createMenuEntry(event, REMOVE_TAG + " (" + activeTab.getTag() + ")", event.getTarget(), entries);
+			MenuEntry[] entries = createMenuEntry(event, REMOVE_TAG + " (" + activeTab.getTag() + ")", event.getTarget(), client.getMenuEntries());
 			client.setMenuEntries(entries);
 		}
-		else if (iconToSet != null && (entry.getOption().startsWith("Withdraw-") || entry.getOption().equals("Release")))
+		else if (iconToSet != null && (option.startsWith("Withdraw-") || option.equals("Release")))
 		{
 			// TODO: Do not replace every withdraw option with change icon option
-			entry.setOption(CHANGE_ICON + " (" + iconToSet.getTag() + ")");
-			client.setMenuEntries(entries);
+			client.setMenuOption(last, CHANGE_ICON + " (" + iconToSet.getTag() + ")");
 		}
 		else if (event.getActionParam1() == WidgetInfo.BANK_DEPOSIT_INVENTORY.getId()
 			&& event.getOption().equals("Deposit inventory"))
 		{
-			entries = createMenuEntry(event, TAG_INVENTORY, event.getTarget(), entries);
+			MenuEntry[] entries = createMenuEntry(event, TAG_INVENTORY, event.getTarget(), client.getMenuEntries());
 
 			if (activeTab != null)
 			{
@@ -525,7 +524,7 @@ public class TabInterface
 		else if (event.getActionParam1() == WidgetInfo.BANK_DEPOSIT_EQUIPMENT.getId()
 			&& event.getOption().equals("Deposit worn items"))
 		{
-			entries = createMenuEntry(event, TAG_GEAR, event.getTarget(), entries);
+			MenuEntry[] entries = createMenuEntry(event, TAG_GEAR, event.getTarget(), client.getMenuEntries());
 
 			if (activeTab != null)
 			{
@@ -38,7 +38,6 @@ import net.runelite.api.Client;
 import net.runelite.api.GameState;
 import net.runelite.api.MenuAction;
 import static net.runelite.api.MenuAction.MENU_ACTION_DEPRIORITIZE_OFFSET;
-import net.runelite.api.MenuEntry;
 import net.runelite.api.NPC;
 import net.runelite.api.NpcID;
 import net.runelite.api.Varbits;
@@ -242,10 +241,6 @@ public class CorpPlugin extends Plugin
 		}
 
 		// since this is the menu entry add event, this is the last menu entry
-		MenuEntry[] menuEntries = client.getMenuEntries();
-		MenuEntry menuEntry = menuEntries[menuEntries.length - 1];
-
-		menuEntry.setType(NPC_SECTION_ACTION + MENU_ACTION_DEPRIORITIZE_OFFSET);
-		client.setMenuEntries(menuEntries);
+		client.setMenuType(client.getMenuEntryCount() - 1, NPC_SECTION_ACTION + MENU_ACTION_DEPRIORITIZE_OFFSET);
 	}
 }
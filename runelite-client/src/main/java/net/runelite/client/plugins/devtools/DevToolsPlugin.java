@@ -39,7 +39,6 @@ import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
 import net.runelite.api.Experience;
 import net.runelite.api.MenuAction;
-import net.runelite.api.MenuEntry;
 import net.runelite.api.NPC;
 import net.runelite.api.Player;
 import net.runelite.api.Skill;
@@ -121,6 +120,7 @@ public class DevToolsPlugin extends Plugin
 	private DevToolsButton detachedCamera;
 	private DevToolsButton widgetInspector;
 	private DevToolsButton varInspector;
+	private DevToolsButton profiler;
 	private NavigationButton navButton;
 
 	@Provides
@@ -161,6 +161,7 @@ public class DevToolsPlugin extends Plugin
 		detachedCamera = new DevToolsButton("Detached Camera");
 		widgetInspector = new DevToolsButton("Widget Inspector");
 		varInspector = new DevToolsButton("Var Inspector");
+		profiler = new DevToolsButton("Profiler");
 
 		overlayManager.add(overlay);
 		overlayManager.add(locationOverlay);
@@ -319,9 +320,7 @@ public class DevToolsPlugin extends Plugin
 
 		if (EXAMINE_MENU_ACTIONS.contains(action))
 		{
-			MenuEntry[] entries = client.getMenuEntries();
-			MenuEntry entry = entries[entries.length - 1];
-
+			final int last = client.getMenuEntryCount() - 1;
 			final int identifier = event.getIdentifier();
 			String info = "ID: ";
 
@@ -336,13 +335,12 @@ public class DevToolsPlugin extends Plugin
 
 				if (action == MenuAction.EXAMINE_OBJECT)
 				{
-					WorldPoint point = WorldPoint.fromScene(client, entry.getParam0(), entry.getParam1(), client.getPlane());
+					WorldPoint point = WorldPoint.fromScene(client, client.getMenuParam0(last), client.getMenuParam1(last), client.getPlane());
 					info += " X: " + point.getX() + " Y: " + point.getY();
 				}
 			}
 
-			entry.setTarget(entry.getTarget() + " " + ColorUtil.prependColorTag("(" + info + ")", JagexColors.MENU_TARGET));
-			client.setMenuEntries(entries);
+			client.setMenuTarget(last, client.getMenuTarget(last) + " " + ColorUtil.prependColorTag("(" + info + ")", JagexColors.MENU_TARGET));
 		}
 	}
 }
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.devtools;
+
+import com.google.inject.Inject;
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import javax.swing.JButton;
+import javax.swing.JFileChooser;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.JToggleButton;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.profiler.ProfileEntry;
+import net.runelite.client.profiler.Profiler;
+import net.runelite.client.ui.ClientUI;
+
+@Slf4j
+class ProfilerInspector extends JFrame
+{
+	private static final int REFRESH_INTERVAL = 1000;
+
+	private final Profiler profiler;
+	private final ProfileTableModel tableModel = new ProfileTableModel();
+	private final Timer refreshTimer = new Timer(REFRESH_INTERVAL, e -> refresh());
+	private final JToggleButton recordBtn = new JToggleButton("Record");
+
+	@Inject
+	ProfilerInspector(Profiler profiler, DevToolsPlugin plugin)
+	{
+		this.profiler = profiler;
+
+		setTitle("RuneLite Profiler");
+		setIconImage(ClientUI.ICON);
+
+		setLayout(new BorderLayout());
+
+		setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+		addWindowListener(new WindowAdapter()
+		{
+			@Override
+			public void windowClosing(WindowEvent e)
+			{
+				close();
+				plugin.getProfiler().setActive(false);
+			}
+		});
+
+		final JTable table = new JTable(tableModel);
+		table.setAutoCreateRowSorter(true);
+
+		final JScrollPane tableScroller = new JScrollPane(table);
+		tableScroller.setPreferredSize(new Dimension(700, 400));
+		add(tableScroller, BorderLayout.CENTER);
+
+		final JPanel options = new JPanel();
+		options.setLayout(new FlowLayout());
+
+		recordBtn.addActionListener(e -> profiler.setEnabled(recordBtn.isSelected()));
+		options.add(recordBtn);
+
+		final JButton resetBtn = new JButton("Reset");
+		resetBtn.addActionListener(e ->
+		{
+			profiler.reset();
+			refresh();
+		});
+		options.add(resetBtn);
+
+		final JButton exportBtn = new JButton("Export JSON");
+		exportBtn.addActionListener(e -> export());
+		options.add(exportBtn);
+
+		add(options, BorderLayout.SOUTH);
+
+		pack();
+	}
+
+	private void refresh()
+	{
+		final List<ProfileEntry> entries = new ArrayList<>(profiler.getEntries());
+		entries.sort(Comparator.comparingLong(ProfileEntry::getTotalNanos).reversed());
+		tableModel.setEntries(entries);
+	}
+
+	private void export()
+	{
+		final JFileChooser fileChooser = new JFileChooser();
+		fileChooser.setSelectedFile(new File("profile.json"));
+
+		if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION)
+		{
+			return;
+		}
+
+		try
+		{
+			Files.write(fileChooser.getSelectedFile().toPath(), profiler.toJson().getBytes(StandardCharsets.UTF_8));
+		}
+		catch (IOException ex)
+		{
+			log.warn("Unable to export profile", ex);
+		}
+	}
+
+	public void open()
+	{
+		refresh();
+		refreshTimer.start();
+		setVisible(true);
+		toFront();
+		repaint();
+	}
+
+	public void close()
+	{
+		// stop recording so the profiler has no overhead while it can't be seen
+		profiler.setEnabled(false);
+		recordBtn.setSelected(false);
+		refreshTimer.stop();
+		setVisible(false);
+	}
+
+	private static class ProfileTableModel extends AbstractTableModel
+	{
+		private static final String[] COLUMNS = {
+			"Plugin", "Category", "Calls", "Total (ms)", "Average (us)", "Max (ms)", "Allocated (KiB)"
+		};
+
+		private List<ProfileEntry> entries = new ArrayList<>();
+
+		void setEntries(List<ProfileEntry> entries)
+		{
+			this.entries = entries;
+			fireTableDataChanged();
+		}
+
+		@Override
+		public int getRowCount()
+		{
+			return entries.size();
+		}
+
+		@Override
+		public int getColumnCount()
+		{
+			return COLUMNS.length;
+		}
+
+		@Override
+		public String getColumnName(int column)
+		{
+			return COLUMNS[column];
+		}
+
+		@Override
+		public Class<?> getColumnClass(int column)
+		{
+			return column < 2 ? String.class : Long.class;
+		}
+
+		@Override
+		public Object getValueAt(int row, int column)
+		{
+			final ProfileEntry entry = entries.get(row);
+
+			switch (column)
+			{
+				case 0:
+					return entry.getOwner();
+				case 1:
+					return entry.getCategory().getName();
+				case 2:
+					return entry.getCount();
+				case 3:
+					return entry.getTotalNanos() / 1_000_000L;
+				case 4:
+					return entry.getTotalNanos() / entry.getCount() / 1_000L;
+				case 5:
+					return entry.getMaxNanos() / 1_000_000L;
+				case 6:
+					return entry.getAllocatedBytes() < 0 ? -1L : entry.getAllocatedBytes() / 1024L;
+				default:
+					throw new IllegalArgumentException();
+			}
+		}
+	}
+}
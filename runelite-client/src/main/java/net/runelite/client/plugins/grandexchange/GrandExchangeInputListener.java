@@ -29,7 +29,6 @@ import java.awt.event.MouseEvent;
 import javax.inject.Inject;
 import javax.swing.SwingUtilities;
 import net.runelite.api.Client;
-import net.runelite.api.MenuEntry;
 import net.runelite.client.input.KeyListener;
 import net.runelite.client.input.MouseAdapter;
 import static net.runelite.client.plugins.grandexchange.GrandExchangePlugin.SEARCH_GRAND_EXCHANGE;
@@ -53,12 +52,11 @@ public class GrandExchangeInputListener extends MouseAdapter implements KeyListe
 		// Check if left click + alt
 		if (e.getButton() == MouseEvent.BUTTON1 && e.isAltDown())
 		{
-			final MenuEntry[] menuEntries = client.getMenuEntries();
-			for (final MenuEntry menuEntry : menuEntries)
+			for (int i = 0; i < client.getMenuEntryCount(); ++i)
 			{
-				if (menuEntry.getOption().equals(SEARCH_GRAND_EXCHANGE))
+				if (client.getMenuOption(i).equals(SEARCH_GRAND_EXCHANGE))
 				{
-					search(Text.removeTags(menuEntry.getTarget()));
+					search(Text.removeTags(client.getMenuTarget(i)));
 					e.consume();
 					break;
 				}
@@ -49,7 +49,6 @@ import net.runelite.api.GameState;
 import net.runelite.api.GrandExchangeOffer;
 import net.runelite.api.ItemComposition;
 import net.runelite.api.MenuAction;
-import net.runelite.api.MenuEntry;
 import net.runelite.api.events.ChatMessage;
 import net.runelite.api.events.ConfigChanged;
 import net.runelite.api.events.FocusChanged;
@@ -247,9 +246,8 @@ public class GrandExchangePlugin extends Plugin
 			return;
 		}
 
-		final MenuEntry[] entries = client.getMenuEntries();
-		final MenuEntry menuEntry = entries[entries.length - 1];
-		final int widgetId = menuEntry.getParam1();
+		final int last = client.getMenuEntryCount() - 1;
+		final int widgetId = client.getMenuParam1(last);
 		final int groupId = WidgetInfo.TO_GROUP(widgetId);
 
 		switch (groupId)
@@ -264,9 +262,8 @@ public class GrandExchangePlugin extends Plugin
 			case WidgetID.BANK_INVENTORY_GROUP_ID:
 			case WidgetID.GRAND_EXCHANGE_INVENTORY_GROUP_ID:
 			case WidgetID.SHOP_INVENTORY_GROUP_ID:
-				menuEntry.setOption(SEARCH_GRAND_EXCHANGE);
-				menuEntry.setType(MenuAction.RUNELITE.getId());
-				client.setMenuEntries(entries);
+				client.setMenuOption(last, SEARCH_GRAND_EXCHANGE);
+				client.setMenuType(last, MenuAction.RUNELITE.getId());
 		}
 	}
 
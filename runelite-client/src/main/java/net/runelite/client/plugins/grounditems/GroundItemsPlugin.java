@@ -52,7 +52,6 @@ import net.runelite.api.ItemComposition;
 import net.runelite.api.ItemID;
 import net.runelite.api.ItemLayer;
 import net.runelite.api.MenuAction;
-import net.runelite.api.MenuEntry;
 import net.runelite.api.Node;
 import net.runelite.api.Player;
 import net.runelite.api.Scene;
@@ -359,8 +358,7 @@ public class GroundItemsPlugin extends Plugin
 				return;
 			}
 
-			MenuEntry[] menuEntries = client.getMenuEntries();
-			MenuEntry lastEntry = menuEntries[menuEntries.length - 1];
+			final int last = client.getMenuEntryCount() - 1;
 
 			int quantity = 1;
 			Node current = itemLayer.getBottom();
@@ -392,22 +390,20 @@ public class GroundItemsPlugin extends Plugin
 
 				if (mode == BOTH || mode == OPTION)
 				{
-					lastEntry.setOption(ColorUtil.prependColorTag("Take", color));
+					client.setMenuOption(last, ColorUtil.prependColorTag("Take", color));
 				}
 
 				if (mode == BOTH || mode == NAME)
 				{
-					String target = lastEntry.getTarget().substring(lastEntry.getTarget().indexOf(">") + 1);
-					lastEntry.setTarget(ColorUtil.prependColorTag(target, color));
+					String target = client.getMenuTarget(last).substring(client.getMenuTarget(last).indexOf(">") + 1);
+					client.setMenuTarget(last, ColorUtil.prependColorTag(target, color));
 				}
 			}
 
 			if (config.showMenuItemQuantities() && itemComposition.isStackable() && quantity > 1)
 			{
-				lastEntry.setTarget(lastEntry.getTarget() + " (" + quantity + ")");
+				client.setMenuTarget(last, client.getMenuTarget(last) + " (" + quantity + ")");
 			}
-
-			client.setMenuEntries(menuEntries);
 		}
 	}
 
@@ -80,17 +80,15 @@ class ItemPricesOverlay extends Overlay
 			return null;
 		}
 
-		final MenuEntry[] menuEntries = client.getMenuEntries();
-		final int last = menuEntries.length - 1;
+		final int last = client.getMenuEntryCount() - 1;
 
 		if (last < 0)
 		{
 			return null;
 		}
 
-		final MenuEntry menuEntry = menuEntries[last];
-		final MenuAction action = MenuAction.of(menuEntry.getType());
-		final int widgetId = menuEntry.getParam1();
+		final MenuAction action = MenuAction.of(client.getMenuType(last));
+		final int widgetId = client.getMenuParam1(last);
 		final int groupId = WidgetInfo.TO_GROUP(widgetId);
 
 		// Tooltip action type handling
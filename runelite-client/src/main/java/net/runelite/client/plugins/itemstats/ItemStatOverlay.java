@@ -28,7 +28,6 @@ import com.google.inject.Inject;
 import java.awt.Dimension;
 import java.awt.Graphics2D;
 import net.runelite.api.Client;
-import net.runelite.api.MenuEntry;
 import net.runelite.api.widgets.WidgetInfo;
 import net.runelite.client.ui.overlay.Overlay;
 import net.runelite.client.ui.overlay.tooltip.Tooltip;
@@ -61,22 +60,19 @@ public class ItemStatOverlay extends Overlay
 			return null;
 		}
 
-		final MenuEntry[] menu = client.getMenuEntries();
-		final int menuSize = menu.length;
+		final int last = client.getMenuEntryCount() - 1;
 
-		if (menuSize <= 0)
+		if (last < 0)
 		{
 			return null;
 		}
 
-		final MenuEntry entry = menu[menuSize - 1];
-
-		if (entry.getParam1() != WidgetInfo.INVENTORY.getId())
+		if (client.getMenuParam1(last) != WidgetInfo.INVENTORY.getId())
 		{
 			return null;
 		}
 
-		final Effect change = statChanges.get(entry.getIdentifier());
+		final Effect change = statChanges.get(client.getMenuIdentifier(last));
 		if (change != null)
 		{
 			final StringBuilder b = new StringBuilder();
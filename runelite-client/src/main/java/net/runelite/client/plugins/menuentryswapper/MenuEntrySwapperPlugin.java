@@ -555,13 +555,12 @@ public class MenuEntrySwapperPlugin extends Plugin
 		}
 	}
 
-	private int searchIndex(MenuEntry[] entries, String option, String target, boolean strict)
+	private int searchIndex(String option, String target, boolean strict)
 	{
-		for (int i = entries.length - 1; i >= 0; i--)
+		for (int i = client.getMenuEntryCount() - 1; i >= 0; i--)
 		{
-			MenuEntry entry = entries[i];
-			String entryOption = Text.removeTags(entry.getOption()).toLowerCase();
-			String entryTarget = Text.removeTags(entry.getTarget()).toLowerCase();
+			String entryOption = Text.removeTags(client.getMenuOption(i)).toLowerCase();
+			String entryTarget = Text.removeTags(client.getMenuTarget(i)).toLowerCase();
 
 			if (strict)
 			{
@@ -584,18 +583,12 @@ public class MenuEntrySwapperPlugin extends Plugin
 
 	private void swap(String optionA, String optionB, String target, boolean strict)
 	{
-		MenuEntry[] entries = client.getMenuEntries();
-
-		int idxA = searchIndex(entries, optionA, target, strict);
-		int idxB = searchIndex(entries, optionB, target, strict);
+		int idxA = searchIndex(optionA, target, strict);
+		int idxB = searchIndex(optionB, target, strict);
 
 		if (idxA >= 0 && idxB >= 0)
 		{
-			MenuEntry entry = entries[idxA];
-			entries[idxA] = entries[idxB];
-			entries[idxB] = entry;
-
-			client.setMenuEntries(entries);
+			client.swapMenuEntries(idxA, idxB);
 		}
 	}
 
@@ -29,7 +29,6 @@ import java.awt.Dimension;
 import java.awt.Graphics2D;
 import javax.inject.Inject;
 import net.runelite.api.Client;
-import net.runelite.api.MenuEntry;
 import net.runelite.api.VarClientInt;
 import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetInfo;
@@ -61,17 +60,15 @@ class MouseHighlightOverlay extends Overlay
 			return null;
 		}
 
-		MenuEntry[] menuEntries = client.getMenuEntries();
-		int last = menuEntries.length - 1;
+		int last = client.getMenuEntryCount() - 1;
 
 		if (last < 0)
 		{
 			return null;
 		}
 
-		MenuEntry menuEntry = menuEntries[last];
-		String target = menuEntry.getTarget();
-		String option = menuEntry.getOption();
+		String target = client.getMenuTarget(last);
+		String option = client.getMenuOption(last);
 
 		if (Strings.isNullOrEmpty(option))
 		{
@@ -32,7 +32,6 @@ import java.awt.Graphics2D;
 import java.awt.Image;
 import javax.inject.Inject;
 import net.runelite.api.Client;
-import net.runelite.api.MenuEntry;
 import net.runelite.api.Point;
 import net.runelite.api.Skill;
 import net.runelite.api.VarPlayer;
@@ -176,14 +175,12 @@ class StatusBarsOverlay extends Overlay
 
 		if (config.enableRestorationBars())
 		{
-			final MenuEntry[] menu = client.getMenuEntries();
-			final int menuSize = menu.length;
-			final MenuEntry entry = menu[menuSize - 1];
-			final Effect change = itemStatService.getItemStatChanges(entry.getIdentifier());
+			final int last = client.getMenuEntryCount() - 1;
+			final Effect change = itemStatService.getItemStatChanges(client.getMenuIdentifier(last));
 			int prayerHealValue = 0;
 			int foodHealValue = 0;
 
-			if (change != null & entry.getParam1() == WidgetInfo.INVENTORY.getId())
+			if (change != null & client.getMenuParam1(last) == WidgetInfo.INVENTORY.getId())
 			{
 				final StatsChanges statsChanges = change.calculate(client);
 
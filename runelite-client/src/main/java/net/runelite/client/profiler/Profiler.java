@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.profiler;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.plugins.Plugin;
+import net.runelite.client.plugins.PluginDescriptor;
+import net.runelite.client.plugins.PluginManager;
+import net.runelite.http.api.RuneLiteAPI;
+
+/**
+ * Records the time spent, and where supported the memory allocated, by each plugin in
+ * event subscribers, overlays, client thread invokes and scheduled tasks.
+ * <p>
+ * Callers check {@link #isEnabled()} before measuring, so a disabled profiler costs a
+ * single volatile read. Samples are recorded into lock-free counters and histograms and
+ * attributed to the plugin whose package contains the class which did the work.
+ * Measurements are inclusive, so work done by a nested call is also counted for its caller.
+ */
+@Singleton
+@Slf4j
+public class Profiler
+{
+	private static final int BUCKETS = 48;
+
+	private final Provider<PluginManager> pluginManager;
+	private final com.sun.management.ThreadMXBean threadBean;
+
+	private final Map<Class<?>, Owner> ownersByClass = new ConcurrentHashMap<>();
+	private final Map<String, Owner> owners = new ConcurrentHashMap<>();
+
+	private volatile boolean enabled;
+
+	@Inject
+	Profiler(Provider<PluginManager> pluginManager)
+	{
+		this.pluginManager = pluginManager;
+		this.threadBean = findThreadBean();
+	}
+
+	public boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled)
+	{
+		if (enabled)
+		{
+			// plugins may have been loaded since classes were last attributed
+			ownersByClass.clear();
+		}
+		this.enabled = enabled;
+	}
+
+	public boolean isAllocationSupported()
+	{
+		return threadBean != null;
+	}
+
+	/**
+	 * Gets the number of bytes allocated by the current thread
+	 *
+	 * @return allocated bytes, or 0 if allocations can not be measured
+	 */
+	public long getAllocatedBytes()
+	{
+		return threadBean != null ? threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0L;
+	}
+
+	/**
+	 * Records a sample
+	 *
+	 * @param category what kind of work was done
+	 * @param source the object which did the work, used to find its plugin
+	 * @param startNanos {@link System#nanoTime()} when the work started
+	 * @param startBytes {@link #getAllocatedBytes()} when the work started
+	 */
+	public void record(ProfileCategory category, Object source, long startNanos, long startBytes)
+	{
+		final long nanos = System.nanoTime() - startNanos;
+		final long bytes = getAllocatedBytes() - startBytes;
+
+		Owner owner = ownersByClass.get(source.getClass());
+		if (owner == null)
+		{
+			owner = owners.computeIfAbsent(findOwner(source.getClass()), Owner::new);
+			ownersByClass.put(source.getClass(), owner);
+		}
+
+		owner.stats[category.ordinal()].record(nanos, bytes);
+	}
+
+	public void reset()
+	{
+		ownersByClass.clear();
+		owners.clear();
+	}
+
+	public List<ProfileEntry> getEntries()
+	{
+		final List<ProfileEntry> entries = new ArrayList<>();
+		for (Owner owner : owners.values())
+		{
+			for (ProfileCategory category : ProfileCategory.values())
+			{
+				final Stats stats = owner.stats[category.ordinal()];
+				final long count = stats.count.sum();
+
+				if (count == 0)
+				{
+					continue;
+				}
+
+				final long[] histogram = new long[BUCKETS];
+				for (int i = 0; i < BUCKETS; ++i)
+				{
+					histogram[i] = stats.histogram.get(i);
+				}
+
+				entries.add(new ProfileEntry(owner.name, category, count, stats.nanos.sum(), stats.maxNanos.get(),
+					threadBean != null ? stats.bytes.sum() : -1L, histogram));
+			}
+		}
+		return entries;
+	}
+
+	public String toJson()
+	{
+		return RuneLiteAPI.GSON.toJson(getEntries());
+	}
+
+	private String findOwner(Class<?> clazz)
+	{
+		// lambdas and inner classes are named after, and in the package of, their enclosing class
+		final String className = clazz.getName();
+		final Collection<Plugin> plugins = pluginManager.get().getPlugins();
+		String owner = null;
+		int ownerPackageLength = 0;
+
+		for (Plugin plugin : plugins)
+		{
+			final String packageName = plugin.getClass().getPackage().getName();
+			final PluginDescriptor descriptor = plugin.getClass().getAnnotation(PluginDescriptor.class);
+
+			if (descriptor != null && packageName.length() > ownerPackageLength
+				&& className.startsWith(packageName + "."))
+			{
+				owner = descriptor.name();
+				ownerPackageLength = packageName.length();
+			}
+		}
+
+		if (owner != null)
+		{
+			return owner;
+		}
+
+		// not part of a plugin, use the name of its top level class
+		final int start = className.lastIndexOf('.') + 1;
+		final int end = className.indexOf('$', start);
+		return end == -1 ? className.substring(start) : className.substring(start, end);
+	}
+
+	private static com.sun.management.ThreadMXBean findThreadBean()
+	{
+		try
+		{
+			final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			if (bean instanceof com.sun.management.ThreadMXBean)
+			{
+				final com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+				if (sunBean.isThreadAllocatedMemorySupported())
+				{
+					sunBean.setThreadAllocatedMemoryEnabled(true);
+					return sunBean;
+				}
+			}
+		}
+		catch (LinkageError | RuntimeException ex)
+		{
+			log.debug("Thread allocation measurement is not available", ex);
+		}
+		return null;
+	}
+
+	private static class Owner
+	{
+		private final String name;
+		private final Stats[] stats = new Stats[ProfileCategory.values().length];
+
+		Owner(String name)
+		{
+			this.name = name;
+			for (int i = 0; i < stats.length; ++i)
+			{
+				stats[i] = new Stats();
+			}
+		}
+	}
+
+	private static class Stats
+	{
+		private final LongAdder count = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+		private final LongAdder bytes = new LongAdder();
+		private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+		private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+		void record(long nanos, long bytes)
+		{
+			count.increment();
+			this.nanos.add(nanos);
+			this.bytes.add(bytes);
+			maxNanos.accumulate(nanos);
+			histogram.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos)));
+		}
+	}
+}
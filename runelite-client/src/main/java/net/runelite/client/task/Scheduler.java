@@ -35,6 +35,8 @@ import java.util.concurrent.ScheduledExecutorService;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.profiler.ProfileCategory;
+import net.runelite.client.profiler.Profiler;
 
 @Singleton
 @Slf4j
@@ -45,6 +47,9 @@ public class Scheduler
 	@Inject
 	ScheduledExecutorService executor;
 
+	@Inject
+	Profiler profiler;
+
 	public void addScheduledMethod(ScheduledMethod method)
 	{
 		scheduledMethods.add(method);
@@ -94,6 +99,9 @@ public class Scheduler
 	private void run(ScheduledMethod scheduledMethod)
 	{
 		Method method = scheduledMethod.getMethod();
+		final boolean profiling = profiler.isEnabled();
+		final long startNanos = profiling ? System.nanoTime() : 0L;
+		final long startBytes = profiling ? profiler.getAllocatedBytes() : 0L;
 
 		try
 		{
@@ -107,5 +115,10 @@ public class Scheduler
 		{
 			log.warn("error during scheduled task", ex);
 		}
+
+		if (profiling)
+		{
+			profiler.record(ProfileCategory.SCHEDULER, scheduledMethod.getObject(), startNanos, startBytes);
+		}
 	}
 }
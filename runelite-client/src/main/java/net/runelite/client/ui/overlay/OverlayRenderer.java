@@ -24,7 +24,6 @@
  */
 package net.runelite.client.ui.overlay;
 
-import com.google.common.base.MoreObjects;
 import com.google.common.eventbus.Subscribe;
 import com.google.common.primitives.Ints;
 import java.awt.Color;
@@ -34,7 +33,10 @@ import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.swing.SwingUtilities;
@@ -48,6 +50,8 @@ import net.runelite.client.input.KeyListener;
 import net.runelite.client.input.KeyManager;
 import net.runelite.client.input.MouseAdapter;
 import net.runelite.client.input.MouseManager;
+import net.runelite.client.profiler.ProfileCategory;
+import net.runelite.client.profiler.Profiler;
 
 @Singleton
 public class OverlayRenderer extends MouseAdapter implements KeyListener
@@ -60,9 +64,11 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 	private static final Color SNAP_CORNER_ACTIVE_COLOR = new Color(0, 255, 0, 100);
 	private static final Color MOVING_OVERLAY_COLOR = new Color(255, 255, 0, 100);
 	private static final Color MOVING_OVERLAY_ACTIVE_COLOR = new Color(255, 255, 0, 200);
+	private static final Point ORIGIN = new Point();
 	private final Client client;
 	private final OverlayManager overlayManager;
 	private final RuneLiteConfig runeLiteConfig;
+	private final Profiler profiler;
 
 	// Overlay movement variables
 	private final Point overlayOffset = new Point();
@@ -77,6 +83,10 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 	private boolean chatboxHidden;
 	private boolean isResizeable;
 	private OverlayBounds snapCorners;
+	private int snapCornersVersion;
+
+	// Overlay layout
+	private final Map<OverlayLayer, LayerLayout> layouts = new EnumMap<>(OverlayLayer.class);
 
 	@Inject
 	private OverlayRenderer(
@@ -84,11 +94,13 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 		final OverlayManager overlayManager,
 		final RuneLiteConfig runeLiteConfig,
 		final MouseManager mouseManager,
-		final KeyManager keyManager)
+		final KeyManager keyManager,
+		final Profiler profiler)
 	{
 		this.client = client;
 		this.overlayManager = overlayManager;
 		this.runeLiteConfig = runeLiteConfig;
+		this.profiler = profiler;
 		keyManager.registerKeyListener(this);
 		mouseManager.registerMouseListener(this);
 	}
@@ -118,10 +130,9 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 		if (shouldInvalidateBounds())
 		{
 			snapCorners = buildSnapCorners();
+			++snapCornersVersion;
 		}
 
-		// Create copy of snap corners because overlays will modify them
-		OverlayBounds snapCorners = new OverlayBounds(this.snapCorners);
 		OverlayUtil.setGraphicProperties(graphics);
 
 		// Draw snap corners
@@ -142,64 +153,25 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 			graphics.setColor(previous);
 		}
 
-		for (Overlay overlay : overlays)
-		{
-			OverlayPosition overlayPosition = overlay.getPosition();
+		final LayerLayout layout = layouts.computeIfAbsent(layer, l -> new LayerLayout());
+		final Dimension realDimensions = client.getRealDimensions();
 
-			if (overlay.getPreferredPosition() != null)
-			{
-				overlayPosition = overlay.getPreferredPosition();
-			}
+		if (!isLayoutValid(layout, overlays, realDimensions))
+		{
+			layout(layout, overlays, realDimensions);
+		}
 
-			if (!isResizeable)
-			{
-				// On fixed mode, ABOVE_CHATBOX_RIGHT is in the same location as
-				// BOTTOM_RIGHT and CANVAST_TOP_RIGHT is same as TOP_RIGHT.
-				// Just use BOTTOM_RIGHT and TOP_RIGHT to prevent overlays from
-				// drawing over each other.
-				switch (overlayPosition)
-				{
-					case CANVAS_TOP_RIGHT:
-						overlayPosition = OverlayPosition.TOP_RIGHT;
-						break;
-					case ABOVE_CHATBOX_RIGHT:
-						overlayPosition = OverlayPosition.BOTTOM_RIGHT;
-						break;
-				}
-			}
+		for (int i = 0; i < overlays.size(); ++i)
+		{
+			final Overlay overlay = overlays.get(i);
+			final Point location = layout.locations[i];
 
-			if (overlayPosition == OverlayPosition.DYNAMIC || overlayPosition == OverlayPosition.TOOLTIP)
+			if (location == null)
 			{
-				safeRender(client, overlay, layer, graphics, new Point());
+				safeRender(client, overlay, layer, graphics, ORIGIN);
 			}
 			else
 			{
-				final Point location = overlay.getBounds().getLocation();
-				final Dimension dimension = overlay.getBounds().getSize();
-
-				// If the final position is not modified, layout it
-				if (overlayPosition != OverlayPosition.DETACHED && (overlay.getPreferredLocation() == null || overlay.getPreferredPosition() != null))
-				{
-					final Rectangle snapCorner = snapCorners.forPosition(overlayPosition);
-					final Point translation = OverlayUtil.transformPosition(overlayPosition, dimension);
-					location.setLocation(snapCorner.getX() + translation.x, snapCorner.getY() + translation.y);
-					final Point padding = OverlayUtil.padPosition(overlayPosition, dimension, PADDING);
-					snapCorner.translate(padding.x, padding.y);
-				}
-				else
-				{
-					final Point preferredLocation = overlay.getPreferredLocation();
-
-					if (preferredLocation != null)
-					{
-						location.setLocation(preferredLocation);
-					}
-				}
-
-				final Dimension realDimensions = client.getRealDimensions();
-				location.x = Ints.constrainToRange(location.x, 0, realDimensions.width - dimension.width);
-				location.y = Ints.constrainToRange(location.y, 0, realDimensions.height - dimension.height);
-
 				if (overlay.getPreferredSize() != null)
 				{
 					overlay.getBounds().setSize(overlay.getPreferredSize());
@@ -224,6 +196,122 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 		}
 	}
 
+	private OverlayPosition getLayoutPosition(final Overlay overlay)
+	{
+		OverlayPosition overlayPosition = overlay.getPosition();
+
+		if (overlay.getPreferredPosition() != null)
+		{
+			overlayPosition = overlay.getPreferredPosition();
+		}
+
+		if (!isResizeable)
+		{
+			// On fixed mode, ABOVE_CHATBOX_RIGHT is in the same location as
+			// BOTTOM_RIGHT and CANVAST_TOP_RIGHT is same as TOP_RIGHT.
+			// Just use BOTTOM_RIGHT and TOP_RIGHT to prevent overlays from
+			// drawing over each other.
+			switch (overlayPosition)
+			{
+				case CANVAS_TOP_RIGHT:
+					overlayPosition = OverlayPosition.TOP_RIGHT;
+					break;
+				case ABOVE_CHATBOX_RIGHT:
+					overlayPosition = OverlayPosition.BOTTOM_RIGHT;
+					break;
+			}
+		}
+
+		return overlayPosition;
+	}
+
+	/**
+	 * Checks whether the cached layout still applies, which is the case until the overlays,
+	 * their sizes or positions, the snap corners or the canvas size change
+	 */
+	private boolean isLayoutValid(final LayerLayout layout, final List<Overlay> overlays, final Dimension realDimensions)
+	{
+		if (layout.overlays != overlays
+			|| layout.snapCornersVersion != snapCornersVersion
+			|| !realDimensions.equals(layout.realDimensions))
+		{
+			return false;
+		}
+
+		for (int i = 0; i < overlays.size(); ++i)
+		{
+			final Overlay overlay = overlays.get(i);
+			final Rectangle bounds = overlay.getBounds();
+
+			if (layout.positions[i] != getLayoutPosition(overlay)
+				|| layout.preferredPositions[i] != overlay.getPreferredPosition()
+				|| !Objects.equals(layout.preferredLocations[i], overlay.getPreferredLocation())
+				|| layout.widths[i] != bounds.width
+				|| layout.heights[i] != bounds.height)
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private void layout(final LayerLayout layout, final List<Overlay> overlays, final Dimension realDimensions)
+	{
+		final int size = overlays.size();
+		layout.overlays = overlays;
+		layout.snapCornersVersion = snapCornersVersion;
+		layout.realDimensions = new Dimension(realDimensions);
+		layout.positions = new OverlayPosition[size];
+		layout.preferredPositions = new OverlayPosition[size];
+		layout.preferredLocations = new Point[size];
+		layout.widths = new int[size];
+		layout.heights = new int[size];
+		layout.locations = new Point[size];
+
+		// Create copy of snap corners because overlays will modify them
+		final OverlayBounds snapCorners = new OverlayBounds(this.snapCorners);
+
+		for (int i = 0; i < size; ++i)
+		{
+			final Overlay overlay = overlays.get(i);
+			final OverlayPosition overlayPosition = getLayoutPosition(overlay);
+			final Point preferredLocation = overlay.getPreferredLocation();
+
+			layout.positions[i] = overlayPosition;
+			layout.preferredPositions[i] = overlay.getPreferredPosition();
+			layout.preferredLocations[i] = preferredLocation != null ? new Point(preferredLocation) : null;
+			layout.widths[i] = overlay.getBounds().width;
+			layout.heights[i] = overlay.getBounds().height;
+
+			if (overlayPosition == OverlayPosition.DYNAMIC || overlayPosition == OverlayPosition.TOOLTIP)
+			{
+				continue;
+			}
+
+			final Point location = overlay.getBounds().getLocation();
+			final Dimension dimension = overlay.getBounds().getSize();
+
+			// If the final position is not modified, layout it
+			if (overlayPosition != OverlayPosition.DETACHED && (preferredLocation == null || overlay.getPreferredPosition() != null))
+			{
+				final Rectangle snapCorner = snapCorners.forPosition(overlayPosition);
+				final Point translation = OverlayUtil.transformPosition(overlayPosition, dimension);
+				location.setLocation(snapCorner.getX() + translation.x, snapCorner.getY() + translation.y);
+				final Point padding = OverlayUtil.padPosition(overlayPosition, dimension, PADDING);
+				snapCorner.translate(padding.x, padding.y);
+			}
+			else if (preferredLocation != null)
+			{
+				location.setLocation(preferredLocation);
+			}
+
+			location.x = Ints.constrainToRange(location.x, 0, realDimensions.width - dimension.width);
+			location.y = Ints.constrainToRange(location.y, 0, realDimensions.height - dimension.height);
+			layout.locations[i] = location;
+		}
+	}
+
 	@Override
 	public MouseEvent mousePressed(MouseEvent mouseEvent)
 	{
@@ -389,9 +477,25 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 		}
 
 		subGraphics.translate(point.x, point.y);
-		final Dimension dimension = MoreObjects.firstNonNull(overlay.render(subGraphics), new Dimension());
+		final boolean profiling = profiler.isEnabled();
+		final long startBytes = profiling ? profiler.getAllocatedBytes() : 0L;
+		final long start = profiling ? System.nanoTime() : 0L;
+		final Dimension dimension = overlay.render(subGraphics);
+
+		if (profiling)
+		{
+			profiler.record(ProfileCategory.OVERLAY, overlay, start, startBytes);
+		}
 		subGraphics.dispose();
-		overlay.setBounds(new Rectangle(point, dimension));
+
+		if (dimension != null)
+		{
+			overlay.getBounds().setBounds(point.x, point.y, dimension.width, dimension.height);
+		}
+		else
+		{
+			overlay.getBounds().setBounds(point.x, point.y, 0, 0);
+		}
 	}
 
 	private boolean shouldInvalidateBounds()
@@ -406,11 +510,12 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 			changed = true;
 		}
 
-		final boolean chatboxBoundsChanged = chatbox == null || !chatbox.getBounds().equals(chatboxBounds);
+		final Rectangle currentChatboxBounds = chatbox != null ? chatbox.getBounds() : new Rectangle();
+		final boolean chatboxBoundsChanged = !currentChatboxBounds.equals(chatboxBounds);
 
 		if (chatboxBoundsChanged)
 		{
-			chatboxBounds = chatbox != null ? chatbox.getBounds() : new Rectangle();
+			chatboxBounds = currentChatboxBounds;
 			changed = true;
 		}
 
@@ -487,4 +592,21 @@ public class OverlayRenderer extends MouseAdapter implements KeyListener
 			new Rectangle(rightChatboxPoint, SNAP_CORNER_SIZE),
 			new Rectangle(canvasTopRightPoint, SNAP_CORNER_SIZE));
 	}
+
+	private static class LayerLayout
+	{
+		private List<Overlay> overlays;
+		private int snapCornersVersion;
+		private Dimension realDimensions;
+
+		// layout inputs of each overlay
+		private OverlayPosition[] positions;
+		private OverlayPosition[] preferredPositions;
+		private Point[] preferredLocations;
+		private int[] widths;
+		private int[] heights;
+
+		// computed locations, null for overlays which are not laid out
+		private Point[] locations;
+	}
 }
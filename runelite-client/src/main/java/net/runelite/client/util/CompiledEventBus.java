@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.util;
+
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import com.google.common.reflect.TypeToken;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.profiler.ProfileCategory;
+import net.runelite.client.profiler.Profiler;
+
+/**
+ * An {@link EventBus} which resolves subscribers when they are registered instead of
+ * when events are posted. Each {@link Subscribe} method is called through an invoker
+ * generated with {@link LambdaMetafactory}, and the subscribers for each event class
+ * are kept in an array, so posting an event does not use reflection, take the bus
+ * lock or allocate.
+ * <p>
+ * Like {@link EventBus}, events posted from within a subscriber are queued and
+ * delivered once the current event has been delivered to all of its subscribers, and
+ * exceptions thrown by subscribers are passed to the exception handler without
+ * stopping delivery to the remaining subscribers. Subscriber methods are called by
+ * one thread at a time, unless they are annotated with {@link AllowConcurrentEvents}.
+ */
+@Slf4j
+public class CompiledEventBus extends EventBus
+{
+	@FunctionalInterface
+	public interface ExceptionHandler
+	{
+		void handleException(Throwable exception, Object event, Object subscriber, Method method);
+	}
+
+	@FunctionalInterface
+	interface Invoker
+	{
+		void invoke(Object event) throws Throwable;
+	}
+
+	@FunctionalInterface
+	private interface InvokerFactory
+	{
+		Invoker create(Object target) throws Throwable;
+	}
+
+	private static final Subscriber[] NO_SUBSCRIBERS = new Subscriber[0];
+
+	/**
+	 * subscriber methods of each subscriber class, and how to create their invokers
+	 */
+	private static final Map<Class<?>, SubscriberMethod[]> SUBSCRIBER_METHODS = new ConcurrentHashMap<>();
+
+	private final ExceptionHandler exceptionHandler;
+	private final Profiler profiler;
+
+	/**
+	 * subscribers by the event type they subscribe to, guarded by this
+	 */
+	private final Map<Class<?>, Subscriber[]> subscribersByType = new HashMap<>();
+	private final Map<Object, Subscriber[]> subscribersByTarget = new IdentityHashMap<>();
+
+	/**
+	 * subscribers for each posted event class, including those of its supertypes
+	 */
+	private final Map<Class<?>, Subscriber[]> dispatchCache = new ConcurrentHashMap<>();
+
+	private final ThreadLocal<Dispatch> dispatch = ThreadLocal.withInitial(Dispatch::new);
+
+	public CompiledEventBus(ExceptionHandler exceptionHandler, Profiler profiler)
+	{
+		this.exceptionHandler = exceptionHandler;
+		this.profiler = profiler;
+	}
+
+	public CompiledEventBus(ExceptionHandler exceptionHandler)
+	{
+		this(exceptionHandler, null);
+	}
+
+	public CompiledEventBus()
+	{
+		this((exception, event, subscriber, method) ->
+			log.warn("Exception thrown by subscriber method {} when dispatching event {}", method, event, exception));
+	}
+
+	@Override
+	public synchronized void register(Object object)
+	{
+		SubscriberMethod[] methods = findSubscriberMethods(object.getClass());
+		if (methods.length == 0 || subscribersByTarget.containsKey(object))
+		{
+			return;
+		}
+
+		Subscriber[] subscribers = new Subscriber[methods.length];
+		for (int i = 0; i < methods.length; ++i)
+		{
+			SubscriberMethod method = methods[i];
+			Subscriber subscriber = new Subscriber(object, method.method, method.createInvoker(object));
+			subscribers[i] = subscriber;
+
+			Subscriber[] existing = subscribersByType.getOrDefault(method.eventType, NO_SUBSCRIBERS);
+			Subscriber[] updated = Arrays.copyOf(existing, existing.length + 1);
+			updated[existing.length] = subscriber;
+			subscribersByType.put(method.eventType, updated);
+		}
+
+		subscribersByTarget.put(object, subscribers);
+		dispatchCache.clear();
+	}
+
+	@Override
+	public synchronized void unregister(Object object)
+	{
+		Subscriber[] subscribers = subscribersByTarget.remove(object);
+		if (subscribers == null)
+		{
+			if (findSubscriberMethods(object.getClass()).length > 0)
+			{
+				throw new IllegalArgumentException("missing event subscriber for an annotated method. Is " + object + " registered?");
+			}
+			return;
+		}
+
+		for (Subscriber subscriber : subscribers)
+		{
+			Class<?> eventType = subscriber.method.getParameterTypes()[0];
+			Subscriber[] existing = subscribersByType.get(eventType);
+			Subscriber[] updated = Arrays.stream(existing)
+				.filter(s -> s != subscriber)
+				.toArray(Subscriber[]::new);
+
+			if (updated.length == 0)
+			{
+				subscribersByType.remove(eventType);
+			}
+			else
+			{
+				subscribersByType.put(eventType, updated);
+			}
+		}
+
+		dispatchCache.clear();
+	}
+
+	@Override
+	public void post(Object event)
+	{
+		Subscriber[] subscribers = dispatchCache.get(event.getClass());
+		if (subscribers == null)
+		{
+			subscribers = resolveSubscribers(event.getClass());
+		}
+
+		if (subscribers.length == 0)
+		{
+			return;
+		}
+
+		Dispatch dispatch = this.dispatch.get();
+		ArrayDeque<Object> queue = dispatch.queue;
+		queue.add(event);
+		queue.add(subscribers);
+
+		if (dispatch.dispatching)
+		{
+			// delivered by the outer post once the current event is done
+			return;
+		}
+
+		dispatch.dispatching = true;
+		try
+		{
+			Object next;
+			while ((next = queue.poll()) != null)
+			{
+				for (Subscriber subscriber : (Subscriber[]) queue.poll())
+				{
+					final boolean profiling = profiler != null && profiler.isEnabled();
+					final long startNanos = profiling ? System.nanoTime() : 0L;
+					final long startBytes = profiling ? profiler.getAllocatedBytes() : 0L;
+
+					try
+					{
+						if (subscriber.concurrent)
+						{
+							subscriber.invoker.invoke(next);
+						}
+						else
+						{
+							synchronized (subscriber)
+							{
+								subscriber.invoker.invoke(next);
+							}
+						}
+					}
+					catch (Throwable ex)
+					{
+						exceptionHandler.handleException(ex, next, subscriber.target, subscriber.method);
+					}
+
+					if (profiling)
+					{
+						profiler.record(ProfileCategory.EVENT, subscriber.target, startNanos, startBytes);
+					}
+				}
+			}
+		}
+		finally
+		{
+			queue.clear();
+			dispatch.dispatching = false;
+		}
+	}
+
+	private synchronized Subscriber[] resolveSubscribers(Class<?> eventClass)
+	{
+		Subscriber[] subscribers = dispatchCache.get(eventClass);
+		if (subscribers != null)
+		{
+			return subscribers;
+		}
+
+		List<Subscriber> list = new ArrayList<>();
+		for (Class<?> type : TypeToken.of(eventClass).getTypes().rawTypes())
+		{
+			Subscriber[] forType = subscribersByType.get(type);
+			if (forType != null)
+			{
+				list.addAll(Arrays.asList(forType));
+			}
+		}
+
+		subscribers = list.isEmpty() ? NO_SUBSCRIBERS : list.toArray(new Subscriber[list.size()]);
+		dispatchCache.put(eventClass, subscribers);
+		return subscribers;
+	}
+
+	private static SubscriberMethod[] findSubscriberMethods(Class<?> clazz)
+	{
+		SubscriberMethod[] methods = SUBSCRIBER_METHODS.get(clazz);
+		if (methods == null)
+		{
+			methods = SUBSCRIBER_METHODS.computeIfAbsent(clazz, CompiledEventBus::scanSubscriberMethods);
+		}
+		return methods;
+	}
+
+	private static SubscriberMethod[] scanSubscriberMethods(Class<?> clazz)
+	{
+		List<SubscriberMethod> methods = new ArrayList<>();
+		Set<String> seen = new HashSet<>();
+
+		for (Class<?> type : TypeToken.of(clazz).getTypes().rawTypes())
+		{
+			for (Method method : type.getDeclaredMethods())
+			{
+				if (!method.isAnnotationPresent(Subscribe.class) || method.isSynthetic())
+				{
+					continue;
+				}
+
+				Class<?>[] parameterTypes = method.getParameterTypes();
+				if (parameterTypes.length != 1)
+				{
+					throw new IllegalArgumentException("Method " + method + " has @Subscribe annotation but has "
+						+ parameterTypes.length + " parameters. Subscriber methods must have exactly 1 parameter.");
+				}
+
+				if (Modifier.isStatic(method.getModifiers()))
+				{
+					throw new IllegalArgumentException("Method " + method + " has @Subscribe annotation but is static");
+				}
+
+				// overridden methods are only subscribed once
+				if (!seen.add(method.getName() + Arrays.toString(parameterTypes)))
+				{
+					continue;
+				}
+
+				methods.add(new SubscriberMethod(method, parameterTypes[0], createInvokerFactory(method)));
+			}
+		}
+
+		return methods.toArray(new SubscriberMethod[methods.size()]);
+	}
+
+	private static InvokerFactory createInvokerFactory(Method method)
+	{
+		Class<?> declaringClass = method.getDeclaringClass();
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+		if (isAccessible(method))
+		{
+			try
+			{
+				CallSite callSite = LambdaMetafactory.metafactory(lookup,
+					"invoke",
+					MethodType.methodType(Invoker.class, declaringClass),
+					MethodType.methodType(void.class, Object.class),
+					lookup.unreflect(method),
+					MethodType.methodType(void.class, method.getParameterTypes()[0]));
+				MethodHandle factory = callSite.getTarget();
+				return target -> (Invoker) factory.invoke(target);
+			}
+			catch (LambdaConversionException | ReflectiveOperationException | RuntimeException ex)
+			{
+				log.debug("Unable to generate invoker for {}, using a method handle", method, ex);
+			}
+		}
+
+		// methods which can't be linked to from here are called through a method handle instead
+		method.setAccessible(true);
+		MethodHandle handle;
+		try
+		{
+			handle = lookup.unreflect(method);
+		}
+		catch (IllegalAccessException ex)
+		{
+			throw new IllegalArgumentException("Unable to access subscriber method " + method, ex);
+		}
+
+		MethodHandle unbound = handle;
+		return target ->
+		{
+			MethodHandle bound = unbound.bindTo(target).asType(MethodType.methodType(void.class, Object.class));
+			return event ->
+			{
+				bound.invokeExact(event);
+			};
+		};
+	}
+
+	/**
+	 * a generated invoker can only call methods which are public in public classes
+	 */
+	private static boolean isAccessible(Method method)
+	{
+		if (!Modifier.isPublic(method.getModifiers()))
+		{
+			return false;
+		}
+
+		for (Class<?> c = method.getDeclaringClass(); c != null; c = c.getEnclosingClass())
+		{
+			if (!Modifier.isPublic(c.getModifiers()))
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static class SubscriberMethod
+	{
+		private final Method method;
+		private final Class<?> eventType;
+		private final InvokerFactory invokerFactory;
+
+		SubscriberMethod(Method method, Class<?> eventType, InvokerFactory invokerFactory)
+		{
+			this.method = method;
+			this.eventType = eventType;
+			this.invokerFactory = invokerFactory;
+		}
+
+		Invoker createInvoker(Object target)
+		{
+			try
+			{
+				return invokerFactory.create(target);
+			}
+			catch (RuntimeException | Error ex)
+			{
+				throw ex;
+			}
+			catch (Throwable ex)
+			{
+				throw new IllegalStateException("Unable to create invoker for " + method, ex);
+			}
+		}
+	}
+
+	private static class Subscriber
+	{
+		private final Object target;
+		private final Method method;
+		private final Invoker invoker;
+		private final boolean concurrent;
+
+		Subscriber(Object target, Method method, Invoker invoker)
+		{
+			this.target = target;
+			this.method = method;
+			this.invoker = invoker;
+			this.concurrent = method.isAnnotationPresent(AllowConcurrentEvents.class);
+		}
+	}
+
+	private static class Dispatch
+	{
+		private final ArrayDeque<Object> queue = new ArrayDeque<>();
+		private boolean dispatching;
+	}
+}
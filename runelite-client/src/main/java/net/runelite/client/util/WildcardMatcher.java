@@ -24,34 +24,148 @@
  */
 package net.runelite.client.util;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 
+/**
+ * Case insensitive matcher for patterns where {@code *} matches any run of characters.
+ * <p>
+ * A set of patterns is compiled once with {@link #compile(Collection)}, after which a
+ * name can be matched against all of them without compiling regexes or allocating.
+ */
 public class WildcardMatcher
 {
-	private static final Pattern WILDCARD_PATTERN = Pattern.compile("(?i)[^*]+|(\\*)");
+	private final CompiledPattern[] patterns;
+
+	private WildcardMatcher(CompiledPattern[] patterns)
+	{
+		this.patterns = patterns;
+	}
+
+	/**
+	 * Compiles a set of patterns into a matcher
+	 *
+	 * @param patterns the wildcard patterns
+	 * @return a matcher which matches text matching any of the patterns
+	 */
+	public static WildcardMatcher compile(Collection<String> patterns)
+	{
+		List<CompiledPattern> compiled = new ArrayList<>(patterns.size());
+		for (String pattern : new LinkedHashSet<>(patterns))
+		{
+			compiled.add(new CompiledPattern(pattern));
+		}
+
+		// exact patterns are the cheapest to reject, so try them first
+		compiled.sort((a, b) -> Boolean.compare(a.middle != null, b.middle != null));
+		return new WildcardMatcher(compiled.toArray(new CompiledPattern[compiled.size()]));
+	}
 
 	public static boolean matches(String pattern, String text)
 	{
-		final Matcher matcher = WILDCARD_PATTERN.matcher(pattern);
-		final StringBuffer buffer = new StringBuffer();
+		return compile(Collections.singletonList(pattern)).matches(text);
+	}
 
-		buffer.append("(?i)");
-		while (matcher.find())
+	/**
+	 * Checks if the text matches any of the patterns
+	 *
+	 * @param text the text to match
+	 * @return true if any pattern matches the whole text
+	 */
+	public boolean matches(String text)
+	{
+		for (CompiledPattern pattern : patterns)
 		{
-			if (matcher.group(1) != null)
+			if (pattern.matches(text))
 			{
-				matcher.appendReplacement(buffer, ".*");
+				return true;
 			}
-			else
+		}
+		return false;
+	}
+
+	private static class CompiledPattern
+	{
+		private final String prefix;
+		private final String suffix;
+		// null for patterns without wildcards
+		private final String[] middle;
+		private final int minLength;
+
+		CompiledPattern(String pattern)
+		{
+			String[] segments = pattern.split("\\*", -1);
+			prefix = segments[0];
+
+			if (segments.length == 1)
 			{
-				matcher.appendReplacement(buffer, "\\\\Q" + matcher.group(0) + "\\\\E");
+				suffix = null;
+				middle = null;
+				minLength = prefix.length();
+				return;
 			}
+
+			suffix = segments[segments.length - 1];
+			middle = Arrays.stream(segments, 1, segments.length - 1)
+				.filter(segment -> !segment.isEmpty())
+				.toArray(String[]::new);
+
+			int length = prefix.length() + suffix.length();
+			for (String segment : middle)
+			{
+				length += segment.length();
+			}
+			minLength = length;
 		}
 
-		matcher.appendTail(buffer);
-		final String replaced = buffer.toString();
+		boolean matches(String text)
+		{
+			if (middle == null)
+			{
+				return text.equalsIgnoreCase(prefix);
+			}
+
+			if (text.length() < minLength
+				|| !text.regionMatches(true, 0, prefix, 0, prefix.length()))
+			{
+				return false;
+			}
+
+			int end = text.length() - suffix.length();
+			if (!text.regionMatches(true, end, suffix, 0, suffix.length()))
+			{
+				return false;
+			}
+
+			// the leftmost match of each segment leaves the most room for the rest
+			int pos = prefix.length();
+			for (String segment : middle)
+			{
+				pos = indexOfIgnoreCase(text, segment, pos, end);
+				if (pos == -1)
+				{
+					return false;
+				}
+				pos += segment.length();
+			}
+
+			return true;
+		}
 
-		return text.matches(replaced);
+		private static int indexOfIgnoreCase(String text, String segment, int from, int end)
+		{
+			for (int i = from, last = end - segment.length(); i <= last; ++i)
+			{
+				if (text.regionMatches(true, i, segment, 0, segment.length()))
+				{
+					return i;
+				}
+			}
+			return -1;
+		}
 	}
 }
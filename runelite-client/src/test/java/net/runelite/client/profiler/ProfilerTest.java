@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.profiler;
+
+import java.util.Collections;
+import java.util.List;
+import net.runelite.client.plugins.PluginManager;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProfilerTest
+{
+	@Mock
+	private PluginManager pluginManager;
+
+	private Profiler profiler;
+
+	@Before
+	public void before()
+	{
+		when(pluginManager.getPlugins()).thenReturn(Collections.emptyList());
+		profiler = new Profiler(() -> pluginManager);
+	}
+
+	@Test
+	public void testDisabledByDefault()
+	{
+		assertFalse(profiler.isEnabled());
+	}
+
+	@Test
+	public void testRecord()
+	{
+		profiler.setEnabled(true);
+
+		final Runnable source = () ->
+		{
+		};
+		final long start = System.nanoTime() - 5_000L;
+		profiler.record(ProfileCategory.CLIENT_THREAD, source, start, profiler.getAllocatedBytes());
+		profiler.record(ProfileCategory.CLIENT_THREAD, source, start, profiler.getAllocatedBytes());
+		profiler.record(ProfileCategory.OVERLAY, this, start, profiler.getAllocatedBytes());
+
+		final List<ProfileEntry> entries = profiler.getEntries();
+		assertEquals(2, entries.size());
+
+		for (ProfileEntry entry : entries)
+		{
+			// both sources are declared by this class, and are not part of a plugin
+			assertEquals("ProfilerTest", entry.getOwner());
+
+			final long expected = entry.getCategory() == ProfileCategory.CLIENT_THREAD ? 2 : 1;
+			assertEquals(expected, entry.getCount());
+			assertTrue(entry.getMaxNanos() >= 5_000L);
+
+			long histogramCount = 0;
+			for (long count : entry.getHistogram())
+			{
+				histogramCount += count;
+			}
+			assertEquals(expected, histogramCount);
+		}
+
+		profiler.reset();
+		assertTrue(profiler.getEntries().isEmpty());
+	}
+}
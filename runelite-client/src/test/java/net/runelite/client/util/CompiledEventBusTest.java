@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.util;
+
+import com.google.common.eventbus.Subscribe;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompiledEventBusTest
+{
+	private final List<Throwable> exceptions = new ArrayList<>();
+	private CompiledEventBus eventBus;
+
+	@Before
+	public void before()
+	{
+		eventBus = new CompiledEventBus((exception, event, subscriber, method) -> exceptions.add(exception));
+	}
+
+	@Test
+	public void testPost()
+	{
+		Recorder recorder = new Recorder();
+		eventBus.register(recorder);
+		eventBus.post("test");
+		eventBus.post(42);
+
+		assertEquals(1, recorder.strings.size());
+		assertEquals("test", recorder.strings.get(0));
+		assertEquals(2, recorder.objects.size());
+		assertEquals(42, recorder.objects.get(1));
+	}
+
+	@Test
+	public void testRegisterTwice()
+	{
+		Recorder recorder = new Recorder();
+		eventBus.register(recorder);
+		eventBus.register(recorder);
+		eventBus.post("test");
+
+		assertEquals(1, recorder.strings.size());
+	}
+
+	@Test
+	public void testUnregister()
+	{
+		Recorder recorder = new Recorder();
+		eventBus.register(recorder);
+		eventBus.post("first");
+		eventBus.unregister(recorder);
+		eventBus.post("second");
+
+		assertEquals(1, recorder.strings.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnregisterNotRegistered()
+	{
+		eventBus.unregister(new Recorder());
+	}
+
+	@Test
+	public void testPrivateSubscriber()
+	{
+		PrivateSubscriber subscriber = new PrivateSubscriber();
+		eventBus.register(subscriber);
+		eventBus.post("test");
+
+		assertEquals(1, subscriber.count);
+	}
+
+	@Test
+	public void testNestedPostIsQueued()
+	{
+		List<String> order = new ArrayList<>();
+		eventBus.register(new Object()
+		{
+			@Subscribe
+			public void onString(String event)
+			{
+				order.add("first " + event);
+				if (event.equals("outer"))
+				{
+					eventBus.post("inner");
+				}
+			}
+		});
+		eventBus.register(new Object()
+		{
+			@Subscribe
+			public void onString(String event)
+			{
+				order.add("second " + event);
+			}
+		});
+
+		eventBus.post("outer");
+
+		assertEquals(4, order.size());
+		assertEquals("first outer", order.get(0));
+		assertEquals("second outer", order.get(1));
+		assertEquals("first inner", order.get(2));
+		assertEquals("second inner", order.get(3));
+	}
+
+	@Test
+	public void testExceptionDoesNotStopDispatch()
+	{
+		RuntimeException exception = new RuntimeException();
+		Recorder recorder = new Recorder();
+		eventBus.register(new Object()
+		{
+			@Subscribe
+			public void onString(String event)
+			{
+				throw exception;
+			}
+		});
+		eventBus.register(recorder);
+		eventBus.post("test");
+
+		assertEquals(1, recorder.strings.size());
+		assertEquals(1, exceptions.size());
+		assertSame(exception, exceptions.get(0));
+	}
+
+	@Test
+	public void testInheritedSubscriber()
+	{
+		ChildRecorder recorder = new ChildRecorder();
+		eventBus.register(recorder);
+		eventBus.post("test");
+
+		assertEquals(1, recorder.strings.size());
+		assertTrue(recorder.objects.contains("test"));
+	}
+
+	@Test
+	public void testSubscriberCalledByOneThreadAtATime() throws InterruptedException
+	{
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger active = new AtomicInteger();
+		AtomicInteger maxActive = new AtomicInteger();
+		eventBus.register(new Object()
+		{
+			@Subscribe
+			public void onString(String event) throws InterruptedException
+			{
+				maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+				entered.countDown();
+				if (event.equals("first"))
+				{
+					release.await(1, TimeUnit.SECONDS);
+				}
+				active.decrementAndGet();
+			}
+		});
+
+		Thread first = new Thread(() -> eventBus.post("first"));
+		first.start();
+		entered.await(1, TimeUnit.SECONDS);
+
+		Thread second = new Thread(() -> eventBus.post("second"));
+		second.start();
+		second.join(100);
+		release.countDown();
+
+		first.join();
+		second.join();
+
+		assertEquals(1, maxActive.get());
+	}
+
+	public static class Recorder
+	{
+		final List<String> strings = new ArrayList<>();
+		final List<Object> objects = new ArrayList<>();
+
+		@Subscribe
+		public void onString(String event)
+		{
+			strings.add(event);
+		}
+
+		@Subscribe
+		public void onObject(Object event)
+		{
+			objects.add(event);
+		}
+	}
+
+	public static class ChildRecorder extends Recorder
+	{
+		@Subscribe
+		@Override
+		public void onString(String event)
+		{
+			super.onString(event);
+		}
+	}
+
+	private static class PrivateSubscriber
+	{
+		private int count;
+
+		@Subscribe
+		private void onString(String event)
+		{
+			++count;
+		}
+	}
+}
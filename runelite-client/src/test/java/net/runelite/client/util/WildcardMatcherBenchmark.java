@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026, agent <agent@local>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.util;
+
+import com.google.common.base.Splitter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares matching item and npc names against highlight lists with the compiled
+ * matcher and with the previous regex per call implementation. Run with main().
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WildcardMatcherBenchmark
+{
+	private static final Pattern WILDCARD_PATTERN = Pattern.compile("(?i)[^*]+|(\\*)");
+	private static final Splitter COMMA_SPLITTER = Splitter.on(',').omitEmptyStrings().trimResults();
+
+	private static final String ITEM_PATTERNS = "rune*, dragon*, *bones, abyssal whip, ranarr*, snapdragon*, torstol*, "
+		+ "*seed, clue scroll*, *key, coins, nature rune, law rune, death rune, blood rune, zulrah's scales, "
+		+ "*dart tip, *bolts (e), amulet of *, ring of *, *(4), crystal *, magic logs, yew logs, *ore";
+	private static final String NPC_PATTERNS = "goblin, zulrah, *wyvern, *dragon, cave kraken, abyssal demon, "
+		+ "nechryael, *gargoyle, dust devil, smoke devil, *hellhound, *spider, guard, man, woman";
+
+	private static final String[] ITEM_NAMES = {
+		"Rune platebody", "Dragon bones", "Big bones", "Abyssal whip", "Ranarr seed", "Coins", "Bronze arrow",
+		"Iron dagger", "Law rune", "Grimy guam leaf", "Clue scroll (hard)", "Crystal key", "Amulet of glory(4)",
+		"Adamant dart tip", "Shark", "Lobster", "Oak logs", "Runite ore", "Feather", "Ashes"
+	};
+	private static final String[] NPC_NAMES = {
+		"Goblin", "Skeletal Wyvern", "Black dragon", "Cow", "Chicken", "Guard", "Man", "Hellhound",
+		"Giant spider", "Banker", "Imp", "Rat", "Zombie", "Abyssal demon", "Dark wizard"
+	};
+
+	private List<String> itemPatterns;
+	private List<String> npcPatterns;
+	private WildcardMatcher itemMatcher;
+	private WildcardMatcher npcMatcher;
+
+	@Setup
+	public void setup()
+	{
+		itemPatterns = COMMA_SPLITTER.splitToList(ITEM_PATTERNS);
+		npcPatterns = COMMA_SPLITTER.splitToList(NPC_PATTERNS);
+		itemMatcher = WildcardMatcher.compile(itemPatterns);
+		npcMatcher = WildcardMatcher.compile(npcPatterns);
+	}
+
+	@Benchmark
+	public void itemsRegex(Blackhole blackhole)
+	{
+		for (String name : ITEM_NAMES)
+		{
+			blackhole.consume(regexMatches(itemPatterns, name));
+		}
+	}
+
+	@Benchmark
+	public void itemsCompiled(Blackhole blackhole)
+	{
+		for (String name : ITEM_NAMES)
+		{
+			blackhole.consume(itemMatcher.matches(name));
+		}
+	}
+
+	@Benchmark
+	public void npcsRegex(Blackhole blackhole)
+	{
+		for (String name : NPC_NAMES)
+		{
+			blackhole.consume(regexMatches(npcPatterns, name));
+		}
+	}
+
+	@Benchmark
+	public void npcsCompiled(Blackhole blackhole)
+	{
+		for (String name : NPC_NAMES)
+		{
+			blackhole.consume(npcMatcher.matches(name));
+		}
+	}
+
+	private static boolean regexMatches(List<String> patterns, String text)
+	{
+		for (String pattern : patterns)
+		{
+			if (regexMatches(pattern, text))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean regexMatches(String pattern, String text)
+	{
+		final Matcher matcher = WILDCARD_PATTERN.matcher(pattern);
+		final StringBuffer buffer = new StringBuffer();
+
+		buffer.append("(?i)");
+		while (matcher.find())
+		{
+			if (matcher.group(1) != null)
+			{
+				matcher.appendReplacement(buffer, ".*");
+			}
+			else
+			{
+				matcher.appendReplacement(buffer, "\\\\Q" + matcher.group(0) + "\\\\E");
+			}
+		}
+
+		matcher.appendTail(buffer);
+		return text.matches(buffer.toString());
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		Options opt = new OptionsBuilder()
+			.include(WildcardMatcherBenchmark.class.getSimpleName())
+			.build();
+		new Runner(opt).run();
+	}
+}
@@ -25,6 +25,8 @@
 package net.runelite.client.util;
 
 import static junit.framework.TestCase.assertTrue;
+import java.util.Arrays;
+import java.util.Collections;
 import static net.runelite.client.util.WildcardMatcher.matches;
 import static org.junit.Assert.assertFalse;
 import org.junit.Test;
@@ -40,4 +42,31 @@ public class WildcardMatcherTest
 		assertTrue(matches("rune*", "Runeite Ore"));
 		assertTrue(matches("Abyssal whip", "Abyssal whip"));
 	}
+
+	@Test
+	public void testWildcards()
+	{
+		assertTrue(matches("*wyvern", "Skeletal Wyvern"));
+		assertFalse(matches("*wyvern", "Wyvern visage"));
+		assertTrue(matches("*dragon*", "Black dragon"));
+		assertTrue(matches("*dragon*", "Dragon bones"));
+		assertTrue(matches("rune*axe", "Rune battleaxe"));
+		assertFalse(matches("rune*axe", "Rune axe head"));
+		assertTrue(matches("a*a", "aa"));
+		assertFalse(matches("aa*aa", "aaa"));
+		assertTrue(matches("a*b*c", "aXbYbZc"));
+		assertTrue(matches("**", ""));
+		assertFalse(matches("", "a"));
+	}
+
+	@Test
+	public void testCompile()
+	{
+		WildcardMatcher matcher = WildcardMatcher.compile(Arrays.asList("rune*", "Abyssal whip", "*bones"));
+		assertTrue(matcher.matches("Rune pouch"));
+		assertTrue(matcher.matches("abyssal whip"));
+		assertTrue(matcher.matches("Big bones"));
+		assertFalse(matcher.matches("Abyssal dagger"));
+		assertFalse(WildcardMatcher.compile(Collections.emptyList()).matches("Rune pouch"));
+	}
 }
\ No newline at end of file
@@ -584,6 +584,118 @@ public abstract class RSClientMixin implements RSClient
 		oldMenuEntryCount = count;
 	}
 
+	@Inject
+	@Override
+	public int getMenuEntryCount()
+	{
+		return getMenuOptionCount();
+	}
+
+	@Inject
+	@Override
+	public String getMenuOption(int index)
+	{
+		return getMenuOptions()[index];
+	}
+
+	@Inject
+	@Override
+	public void setMenuOption(int index, String option)
+	{
+		getMenuOptions()[index] = option;
+	}
+
+	@Inject
+	@Override
+	public String getMenuTarget(int index)
+	{
+		return getMenuTargets()[index];
+	}
+
+	@Inject
+	@Override
+	public void setMenuTarget(int index, String target)
+	{
+		getMenuTargets()[index] = target;
+	}
+
+	@Inject
+	@Override
+	public int getMenuType(int index)
+	{
+		return getMenuTypes()[index];
+	}
+
+	@Inject
+	@Override
+	public void setMenuType(int index, int type)
+	{
+		getMenuTypes()[index] = type;
+	}
+
+	@Inject
+	@Override
+	public int getMenuIdentifier(int index)
+	{
+		return getMenuIdentifiers()[index];
+	}
+
+	@Inject
+	@Override
+	public void setMenuIdentifier(int index, int identifier)
+	{
+		getMenuIdentifiers()[index] = identifier;
+	}
+
+	@Inject
+	@Override
+	public int getMenuParam0(int index)
+	{
+		return getMenuActionParams0()[index];
+	}
+
+	@Inject
+	@Override
+	public int getMenuParam1(int index)
+	{
+		return getMenuActionParams1()[index];
+	}
+
+	@Inject
+	@Override
+	public void swapMenuEntries(int first, int second)
+	{
+		String[] menuOptions = getMenuOptions();
+		String option = menuOptions[first];
+		menuOptions[first] = menuOptions[second];
+		menuOptions[second] = option;
+
+		String[] menuTargets = getMenuTargets();
+		String target = menuTargets[first];
+		menuTargets[first] = menuTargets[second];
+		menuTargets[second] = target;
+
+		int[] menuIdentifiers = getMenuIdentifiers();
+		int identifier = menuIdentifiers[first];
+		menuIdentifiers[first] = menuIdentifiers[second];
+		menuIdentifiers[second] = identifier;
+
+		int[] menuTypes = getMenuTypes();
+		int type = menuTypes[first];
+		menuTypes[first] = menuTypes[second];
+		menuTypes[second] = type;
+
+		int[] params0 = getMenuActionParams0();
+		int param0 = params0[first];
+		params0[first] = params0[second];
+		params0[second] = param0;
+
+		int[] params1 = getMenuActionParams1();
+		int param1 = params1[first];
+		params1[first] = params1[second];
+		params1[second] = param1;
+	}
+
 	@FieldHook("menuOptionCount")
 	@Inject
 	public static void onMenuOptionsChanged(int idx)